@@ -38,6 +38,7 @@ public interface HumanProtocolConstants
    String REQUEST_CONFIG_KEY_ANCHORING = "anchoring";
    String REQUEST_CONFIG_KEY_VERSION = "version";
    String REQUEST_CONFIG_DATA_FORMAT = "dataFormat";
+   String REQUEST_CONFIG_KEY_PACK_SIZE = "packSize";
    
    String OVERLAP_NONE = "none";
    String OVERLAP_ANY = "any";
@@ -50,4 +51,7 @@ public interface HumanProtocolConstants
    
    String CUSTOM_SPAN_LAYER = "custom.Span";
    String VALUE_FEATURE = "value";
+   String CUSTOM_ITEM_LAYER = "custom.ItemTag";
+   String TASK_KEY_FEATURE = "taskKey";
+   String CUSTOM_DOCUMENT_LAYER = "custom.DocumentTag";
 }
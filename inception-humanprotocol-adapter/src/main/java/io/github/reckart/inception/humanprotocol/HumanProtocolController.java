@@ -16,24 +16,45 @@
  */
 package io.github.reckart.inception.humanprotocol;
 
+import java.util.List;
+
 import org.springframework.http.ResponseEntity;
 
+import io.github.reckart.inception.humanprotocol.messages.JobIntakeStatistics;
 import io.github.reckart.inception.humanprotocol.messages.JobRequest;
-import io.github.reckart.inception.humanprotocol.model.JobManifest;
+import io.github.reckart.inception.humanprotocol.messages.JobStatus;
+import io.github.reckart.inception.humanprotocol.messages.JobSubmissionResult;
 
 public interface HumanProtocolController
 {
     static final String API_BASE = "/human-protocol/v1";
     static final String SUBMIT_JOB = "submitJob";
+    static final String SUBMIT_JOBS = "submitJobs";
     static final String SUBMIT_JOB_MANIFEST = "submitJobManifest";
+    static final String JOB_STATUS = "jobStatus";
+    static final String RESUME_JOB = "resumeJob";
+    static final String INTAKE_STATISTICS = "intakeStatistics";
 
     static final String PARAM_JOB_ADDRESS = "jobAddress";
     static final String PARAM_NETWORK_ID = "networkId";
 
-    ResponseEntity<Void> submitJob(boolean aSignatureValue, JobRequest aJobRequest)
+    ResponseEntity<JobStatus> submitJob(boolean aSignatureValue, JobRequest aJobRequest)
+        throws Exception;
+
+    ResponseEntity<List<JobSubmissionResult>> submitJobs(boolean aSignatureValue,
+            List<JobRequest> aJobRequests)
         throws Exception;
 
-    ResponseEntity<Void> submitJobManifest(String aJobAddress, int aNetworkId,
-            boolean aSignatureValid, JobManifest aJobRequest)
+    ResponseEntity<JobStatus> submitJobManifest(String aJobAddress, int aNetworkId,
+            boolean aSignatureValid, byte[] aJobManifest)
         throws Exception;
+
+    ResponseEntity<JobStatus> getJobStatus(int aNetworkId, String aJobAddress,
+            boolean aSignatureValid);
+
+    ResponseEntity<JobStatus> resumeJob(int aNetworkId, String aJobAddress,
+            boolean aSignatureValid)
+        throws Exception;
+
+    ResponseEntity<JobIntakeStatistics> getIntakeStatistics(boolean aSignatureValid);
 }
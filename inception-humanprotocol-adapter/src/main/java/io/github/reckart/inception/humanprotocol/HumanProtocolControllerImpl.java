@@ -17,39 +17,75 @@
 package io.github.reckart.inception.humanprotocol;
 
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_PROJECT_TITLE;
+import static io.github.reckart.inception.humanprotocol.JobManifestUtils.loadManifestWithoutTaskData;
+import static io.github.reckart.inception.humanprotocol.JobManifestUtils.readManifestBytes;
+import static io.github.reckart.inception.humanprotocol.model.JobPhase.INVITE;
+import static io.github.reckart.inception.humanprotocol.model.JobPhase.MANIFEST;
+import static io.github.reckart.inception.humanprotocol.model.JobState.COMPLETED;
+import static io.github.reckart.inception.humanprotocol.model.JobState.PARTIALLY_INGESTED;
+import static io.github.reckart.inception.humanprotocol.model.JobState.RUNNING;
 import static io.github.reckart.inception.humanprotocol.security.HumanSignatureValidationFilter.ATTR_SIGNATURE_VALID;
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.ACCEPTED;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 import static org.springframework.http.MediaType.ALL_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
-import java.io.File;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
-import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import de.tudarmstadt.ukp.clarin.webanno.api.ProjectService;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
-import de.tudarmstadt.ukp.clarin.webanno.support.JSONUtil;
 import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolProperties;
+import io.github.reckart.inception.humanprotocol.ingest.PartialIngestionException;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataIngestionService;
+import io.github.reckart.inception.humanprotocol.intake.JobAlreadySubmittedException;
+import io.github.reckart.inception.humanprotocol.intake.JobIntakeQueueFullException;
+import io.github.reckart.inception.humanprotocol.intake.JobIntakeService;
+import io.github.reckart.inception.humanprotocol.intake.JobMonitor;
+import io.github.reckart.inception.humanprotocol.intake.JobNotResumableException;
+import io.github.reckart.inception.humanprotocol.messages.JobIntakeStatistics;
 import io.github.reckart.inception.humanprotocol.messages.JobRequest;
+import io.github.reckart.inception.humanprotocol.messages.JobStatus;
+import io.github.reckart.inception.humanprotocol.messages.JobSubmissionResult;
 import io.github.reckart.inception.humanprotocol.model.JobManifest;
+import io.github.reckart.inception.humanprotocol.pool.ProjectPoolService;
+import io.github.reckart.inception.humanprotocol.registry.JobRegistryService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 
 /**
  * <p>
@@ -67,13 +103,34 @@ public class HumanProtocolControllerImpl
     private final ApplicationContext applicationContext;
     private final ProjectService projectService;
     private final HumanProtocolService hmtService;
+    private final JobIntakeService jobIntakeService;
+    private final ProjectPoolService projectPool;
+    private final TaskDataIngestionService ingestionService;
+    private final JobRegistryService jobRegistry;
+    private final HumanProtocolProperties hmtProperties;
+
+    private volatile HumanProtocolProjectInitializer initializerPrototype;
 
     public HumanProtocolControllerImpl(ApplicationContext aApplicationContext,
-            ProjectService aProjectService, HumanProtocolService aHmtService)
+            ProjectService aProjectService, HumanProtocolService aHmtService,
+            JobIntakeService aJobIntakeService, ProjectPoolService aProjectPool,
+            TaskDataIngestionService aIngestionService, JobRegistryService aJobRegistry,
+            HumanProtocolProperties aHmtProperties)
     {
         applicationContext = aApplicationContext;
         projectService = aProjectService;
         hmtService = aHmtService;
+        jobIntakeService = aJobIntakeService;
+        projectPool = aProjectPool;
+        ingestionService = aIngestionService;
+        jobRegistry = aJobRegistry;
+        hmtProperties = aHmtProperties;
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent aEvent)
+    {
+        jobIntakeService.recoverPendingJobs(this::createJob);
     }
 
     @Override
@@ -81,7 +138,7 @@ public class HumanProtocolControllerImpl
     @PostMapping(path = "/" + SUBMIT_JOB, //
             consumes = APPLICATION_JSON_VALUE, //
             produces = ALL_VALUE)
-    public ResponseEntity<Void> submitJob(
+    public ResponseEntity<JobStatus> submitJob(
             @RequestAttribute(ATTR_SIGNATURE_VALID) boolean aSignatureValid,
             @RequestBody JobRequest aJobRequest)
         throws Exception
@@ -90,9 +147,87 @@ public class HumanProtocolControllerImpl
             return new ResponseEntity<>(BAD_REQUEST);
         }
 
-        createJob(aJobRequest);
+        if (hmtProperties.isAsyncJobIntake()) {
+            return accepted(jobIntakeService.submit(aJobRequest, null, this::createJob));
+        }
 
-        return new ResponseEntity<>(CREATED);
+        return created(jobIntakeService.process(aJobRequest, this::createJob));
+    }
+
+    @Override
+    @Operation(summary = "Submit multiple new jobs at once")
+    @PostMapping(path = "/" + SUBMIT_JOBS, //
+            consumes = APPLICATION_JSON_VALUE, //
+            produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<JobSubmissionResult>> submitJobs(
+            @RequestAttribute(ATTR_SIGNATURE_VALID) boolean aSignatureValid,
+            @RequestBody List<JobRequest> aJobRequests)
+        throws Exception
+    {
+        if (!aSignatureValid) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+
+        // Hand all jobs to the intake first so that their projects are set up in parallel
+        List<JobSubmissionResult> results = new ArrayList<>();
+        List<Future<JobMonitor>> pending = new ArrayList<>();
+        for (JobRequest jobRequest : aJobRequests) {
+            JobSubmissionResult result = new JobSubmissionResult();
+            result.setNetworkId(jobRequest.getNetworkId());
+            result.setJobAddress(jobRequest.getJobAddress());
+            results.add(result);
+
+            Future<JobMonitor> future = null;
+            try {
+                if (hmtProperties.isAsyncJobIntake()) {
+                    JobMonitor monitor = jobIntakeService.submit(jobRequest, null,
+                            this::createJob);
+                    result.setStatus(ACCEPTED.value());
+                    result.setJob(monitor.getStatus());
+                }
+                else {
+                    future = jobIntakeService.schedule(jobRequest, this::createJob);
+                }
+            }
+            catch (JobAlreadySubmittedException e) {
+                result.setStatus(OK.value());
+                result.setJob(e.getMonitor().getStatus());
+            }
+            catch (JobIntakeQueueFullException e) {
+                result.setStatus(TOO_MANY_REQUESTS.value());
+                result.setMessage(e.getMessage());
+                result.setRetryAfter(e.getRetryAfter().toSeconds());
+            }
+            catch (IOException e) {
+                log.error("Unable to accept job [{}/{}]", jobRequest.getNetworkId(),
+                        jobRequest.getJobAddress(), e);
+                result.setStatus(INTERNAL_SERVER_ERROR.value());
+                result.setMessage(e.getMessage());
+            }
+            pending.add(future);
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            Future<JobMonitor> future = pending.get(i);
+            if (future == null) {
+                continue;
+            }
+
+            JobSubmissionResult result = results.get(i);
+            try {
+                result.setJob(future.get().getStatus());
+                result.setStatus(CREATED.value());
+            }
+            catch (ExecutionException e) {
+                // The failure has already been logged by the intake
+                result.setStatus(INTERNAL_SERVER_ERROR.value());
+                result.setMessage(e.getCause().getMessage());
+                jobIntakeService.getMonitor(result.getNetworkId(), result.getJobAddress())
+                        .ifPresent(monitor -> result.setJob(monitor.getStatus()));
+            }
+        }
+
+        return ResponseEntity.ok(results);
     }
 
     @Override
@@ -100,54 +235,213 @@ public class HumanProtocolControllerImpl
     @PostMapping(path = "/" + SUBMIT_JOB_MANIFEST, //
             consumes = APPLICATION_JSON_VALUE, //
             produces = ALL_VALUE)
-    public ResponseEntity<Void> submitJobManifest(
+    public ResponseEntity<JobStatus> submitJobManifest(
             @RequestParam(PARAM_JOB_ADDRESS) String aJobAddress,
             @RequestParam(PARAM_NETWORK_ID) int aNetworkId,
             @RequestAttribute(ATTR_SIGNATURE_VALID) boolean aSignatureValid,
-            @RequestBody JobManifest aJobManifest)
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content( //
+                    schema = @Schema(implementation = JobManifest.class))) //
+            @RequestBody byte[] aJobManifest)
         throws Exception
     {
         if (!aSignatureValid) {
             return new ResponseEntity<>(BAD_REQUEST);
         }
 
-        File tmpManifestFile = null;
-        try {
-            tmpManifestFile = File.createTempFile("manifest", ".json");
-            FileUtils.write(tmpManifestFile, JSONUtil.toPrettyJsonString(aJobManifest), UTF_8);
-
-            JobRequest jobRequest = new JobRequest();
-            jobRequest.setJobAddress(aJobAddress);
-            jobRequest.setNetworkId(aNetworkId);
-            jobRequest.setJobManifest(tmpManifestFile.toURI());
-            createJob(jobRequest);
-        }
-        finally {
-            if (tmpManifestFile != null && tmpManifestFile.exists()) {
-                tmpManifestFile.delete();
+        JobRequest jobRequest = new JobRequest();
+        jobRequest.setJobAddress(aJobAddress);
+        jobRequest.setNetworkId(aNetworkId);
+
+        if (hmtProperties.isAsyncJobIntake()) {
+            // The intake persists the manifest along with the job request
+            return accepted(jobIntakeService.submit(jobRequest, aJobManifest, this::createJob));
+        }
+
+        // The signed request body is handed on as-is - it is parsed exactly once when the job
+        // is created and stored verbatim as the project's manifest
+        return created(jobIntakeService.process(jobRequest,
+                (request, monitor) -> createJob(request, aJobManifest, monitor)));
+    }
+
+    @Override
+    @Operation(summary = "Get the status of a submitted job")
+    @GetMapping(path = "/" + JOB_STATUS, //
+            produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobStatus> getJobStatus(
+            @RequestParam(PARAM_NETWORK_ID) int aNetworkId,
+            @RequestParam(PARAM_JOB_ADDRESS) String aJobAddress,
+            @RequestAttribute(ATTR_SIGNATURE_VALID) boolean aSignatureValid)
+    {
+        if (!aSignatureValid) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+
+        return jobIntakeService.getMonitor(aNetworkId, aJobAddress) //
+                .map(monitor -> ResponseEntity.ok(monitor.getStatus())) //
+                .orElse(new ResponseEntity<>(NOT_FOUND));
+    }
+
+    @Override
+    @Operation(summary = "Resume a job whose task data was only partially ingested")
+    @PostMapping(path = "/" + RESUME_JOB, //
+            produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobStatus> resumeJob(
+            @RequestParam(PARAM_NETWORK_ID) int aNetworkId,
+            @RequestParam(PARAM_JOB_ADDRESS) String aJobAddress,
+            @RequestAttribute(ATTR_SIGNATURE_VALID) boolean aSignatureValid)
+        throws Exception
+    {
+        if (!aSignatureValid) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+
+        return jobIntakeService.resume(aNetworkId, aJobAddress, this::createJob) //
+                .map(this::accepted) //
+                .orElse(new ResponseEntity<>(NOT_FOUND));
+    }
+
+    @Override
+    @Operation(summary = "Get statistics about the job intake queue")
+    @GetMapping(path = "/" + INTAKE_STATISTICS, //
+            produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobIntakeStatistics> getIntakeStatistics(
+            @RequestAttribute(ATTR_SIGNATURE_VALID) boolean aSignatureValid)
+    {
+        if (!aSignatureValid) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+
+        JobIntakeStatistics statistics = jobIntakeService.getStatistics();
+        statistics.setDatapointCache(ingestionService.getCacheStatistics());
+        return ResponseEntity.ok(statistics);
+    }
+
+    @ExceptionHandler(JobIntakeQueueFullException.class)
+    public ResponseEntity<Void> handleJobIntakeQueueFull(JobIntakeQueueFullException aException)
+    {
+        log.warn("{} - asking client to retry after {}", aException.getMessage(),
+                aException.getRetryAfter());
+
+        return ResponseEntity.status(TOO_MANY_REQUESTS) //
+                .header(RETRY_AFTER, String.valueOf(aException.getRetryAfter().toSeconds())) //
+                .build();
+    }
+
+    @ExceptionHandler(JobAlreadySubmittedException.class)
+    public ResponseEntity<JobStatus> handleJobAlreadySubmitted(
+            JobAlreadySubmittedException aException)
+    {
+        log.info("{} - returning status of existing job", aException.getMessage());
+
+        // Retries of a submission are answered with the status of the job that was created by
+        // the original submission
+        JobMonitor monitor = aException.getMonitor();
+        return ResponseEntity.ok() //
+                .location(getJobStatusUri(monitor)) //
+                .body(monitor.getStatus());
+    }
+
+    @ExceptionHandler(JobNotResumableException.class)
+    public ResponseEntity<JobStatus> handleJobNotResumable(JobNotResumableException aException)
+    {
+        log.info("{}", aException.getMessage());
+
+        JobMonitor monitor = aException.getMonitor();
+        return ResponseEntity.status(CONFLICT) //
+                .location(getJobStatusUri(monitor)) //
+                .body(monitor.getStatus());
+    }
+
+    private ResponseEntity<JobStatus> accepted(JobMonitor aMonitor)
+    {
+        return ResponseEntity.accepted() //
+                .location(getJobStatusUri(aMonitor)) //
+                .body(aMonitor.getStatus());
+    }
+
+    private ResponseEntity<JobStatus> created(JobMonitor aMonitor)
+    {
+        return ResponseEntity.status(CREATED) //
+                .location(getJobStatusUri(aMonitor)) //
+                .body(aMonitor.getStatus());
+    }
+
+    private HumanProtocolProjectInitializer getInitializerPrototype()
+    {
+        // Wiring the initializer is done only once - the initializers for the actual jobs share
+        // the services of the prototype
+        if (initializerPrototype == null) {
+            synchronized (this) {
+                if (initializerPrototype == null) {
+                    HumanProtocolProjectInitializer prototype = new HumanProtocolProjectInitializer(
+                            null);
+                    AutowireCapableBeanFactory factory = applicationContext
+                            .getAutowireCapableBeanFactory();
+                    factory.autowireBean(prototype);
+                    factory.initializeBean(prototype, "transientInitializer");
+                    initializerPrototype = prototype;
+                }
             }
         }
 
-        return new ResponseEntity<>(CREATED);
+        return initializerPrototype;
+    }
+
+    private URI getJobStatusUri(JobMonitor aMonitor)
+    {
+        return ServletUriComponentsBuilder.fromCurrentContextPath() //
+                .path(API_BASE + "/" + JOB_STATUS) //
+                .queryParam(PARAM_NETWORK_ID, aMonitor.getNetworkId()) //
+                .queryParam(PARAM_JOB_ADDRESS, aMonitor.getJobAddress()) //
+                .build().toUri();
     }
 
     public void createJob(JobRequest aJobRequest) throws IOException
     {
+        createJob(aJobRequest, JobMonitor.detached());
+    }
+
+    public void createJob(JobRequest aJobRequest, JobMonitor aMonitor) throws IOException
+    {
+        createJob(aJobRequest, readManifestBytes(aJobRequest.getJobManifest()), aMonitor);
+    }
+
+    private void createJob(JobRequest aJobRequest, byte[] aManifestBytes, JobMonitor aMonitor)
+        throws IOException
+    {
+        if (resumePartiallyIngestedJob(aJobRequest, aMonitor)) {
+            return;
+        }
+
+        removeProjectFromInterruptedAttempt(aMonitor);
+
+        // Parse before creating the project so a malformed manifest does not leave anything behind.
+        // Inline task data is streamed from the raw manifest by the initializer.
+        JobManifest manifest = loadManifestWithoutTaskData(aManifestBytes);
+
+        aMonitor.setPhase(MANIFEST);
+
         String projectSlug = projectService.deriveSlugFromName("job-"+aJobRequest.getJobAddress());
         projectSlug = projectService.deriveUniqueSlug(projectSlug);
-        Project project = new Project();
+        // A project from the pool has already been created and had the generic initializers
+        // applied to it - these are skipped when the project is initialized below
+        Optional<Project> pooledProject = projectPool.claim();
+        Project project = pooledProject.orElseGet(Project::new);
         project.setSlug(projectSlug);
         project.setName("Job: " + aJobRequest.getJobAddress());
-        projectService.createProject(project);
+        if (pooledProject.isPresent()) {
+            projectService.updateProject(project);
+        }
+        else {
+            projectService.createProject(project);
+        }
+        aMonitor.setProject(project);
 
         try {
             hmtService.writeJobRequest(project, aJobRequest);
 
-            try (InputStream is = aJobRequest.getJobManifest().toURL().openStream()) {
-                hmtService.importJobManifest(project, is);
-            }
+            hmtService.importJobManifest(project, new ByteArrayInputStream(aManifestBytes));
 
-            JobManifest manifest = hmtService.readJobManifest(project).get();
             if (manifest.getRequesterQuestion() != null) {
                 project.setDescription(manifest.getRequesterQuestion().get("en"));
             }
@@ -161,25 +455,106 @@ public class HumanProtocolControllerImpl
             projectService.updateProject(project);
 
             HumanProtocolProjectInitializer initializer = new HumanProtocolProjectInitializer(
-                    manifest);
-
-            AutowireCapableBeanFactory factory = applicationContext.getAutowireCapableBeanFactory();
-            factory.autowireBean(initializer);
-            factory.initializeBean(initializer, "transientInitializer");
+                    getInitializerPrototype(), manifest, aManifestBytes, aMonitor);
 
             projectService.initializeProject(project, asList(initializer));
 
+            aMonitor.setPhase(INVITE);
             hmtService.publishInviteLink(project);
+            jobRegistry.updateState(project, COMPLETED);
+        }
+        catch (PartialIngestionException e) {
+            // The project is kept so that the ingestion can be resumed
+            jobRegistry.updateState(project, PARTIALLY_INGESTED);
+            throw e;
         }
         catch (Exception e) {
-            try {
-                projectService.removeProject(project);
+            removeProjectAfterFailure(project);
+            throw e;
+        }
+    }
+
+    private void removeProjectAfterFailure(Project aProject)
+    {
+        try {
+            // The job remains registered as failed until it is submitted again
+            jobRegistry.markFailed(aProject);
+            projectService.removeProject(aProject);
+        }
+        catch (Exception ex) {
+            log.error("Unable to clean up project after failing to accept job submission", ex);
+        }
+    }
+
+    /**
+     * If the task data of a job was only partially ingested, the ingestion is resumed in the
+     * existing project. The datapoints which have already been ingested are skipped.
+     * 
+     * @return whether the job was resumed.
+     */
+    private boolean resumePartiallyIngestedJob(JobRequest aJobRequest, JobMonitor aMonitor)
+        throws IOException
+    {
+        // Only a job that has actually been recorded as partially ingested has a project worth
+        // resuming - any other project left behind is from an interrupted attempt
+        String slug = aMonitor.getProjectSlug();
+        if (!aMonitor.isResumed() || slug == null || !projectService.existsProjectWithSlug(slug)) {
+            return false;
+        }
+
+        log.info("Resuming task data ingestion of job {} into project [{}]", aMonitor, slug);
+        Project project = projectService.getProjectBySlug(slug);
+        jobRegistry.updateState(project, RUNNING);
+
+        try {
+            byte[] manifestBytes;
+            if (aJobRequest.getJobManifest() != null) {
+                manifestBytes = readManifestBytes(aJobRequest.getJobManifest());
             }
-            catch (Exception ex) {
-                log.error("Unable to clean up project after failing to accept job submission", ex);
+            else {
+                // The manifest was submitted directly - use the copy stored with the project
+                manifestBytes = hmtService.readJobManifestBytes(project).orElseThrow(
+                        () -> new IOException("Project [" + slug + "] has no job manifest"));
             }
+            HumanProtocolProjectInitializer initializer = new HumanProtocolProjectInitializer(
+                    getInitializerPrototype(), loadManifestWithoutTaskData(manifestBytes),
+                    manifestBytes, aMonitor);
+
+            initializer.resumeTaskData(project);
 
+            aMonitor.setPhase(INVITE);
+            hmtService.publishInviteLink(project);
+            jobRegistry.updateState(project, COMPLETED);
+            return true;
+        }
+        catch (PartialIngestionException e) {
+            jobRegistry.updateState(project, PARTIALLY_INGESTED);
             throw e;
         }
+        catch (Exception e) {
+            removeProjectAfterFailure(project);
+            throw e;
+        }
+    }
+
+    /**
+     * If a job was interrupted (e.g. by a restart) while its project was being set up, the
+     * half-initialized project is removed before trying again.
+     */
+    private void removeProjectFromInterruptedAttempt(JobMonitor aMonitor)
+    {
+        String slug = aMonitor.getProjectSlug();
+        if (slug == null || !projectService.existsProjectWithSlug(slug)) {
+            return;
+        }
+
+        log.info("Removing project [{}] left over by interrupted job {}", slug, aMonitor);
+        try {
+            projectService.removeProject(projectService.getProjectBySlug(slug));
+        }
+        catch (Exception e) {
+            log.error("Unable to remove project [{}] left over by interrupted job {}", slug,
+                    aMonitor, e);
+        }
     }
 }
@@ -27,6 +27,8 @@ import static de.tudarmstadt.ukp.inception.sharing.model.Mandatoriness.NOT_ALLOW
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.ANCHORING_CHARACTERS;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.ANCHORING_SENTENCES;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.ANCHORING_TOKENS;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_DOCUMENT_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_ITEM_LAYER;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_SPAN_LAYER;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.OVERLAP_ANY;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.OVERLAP_NONE;
@@ -34,46 +36,39 @@ import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.R
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_ANCHORING;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_CROSS_SENENCE;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_OVERLAP;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_PACK_SIZE;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_KEY_FEATURE;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_TYPE_DOCUMENT_CLASSIFICATION;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_TYPE_SPAN_SELECT;
-import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.VALID_URI_SCHEMES;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.VALUE_FEATURE;
-import static java.io.File.createTempFile;
+import static io.github.reckart.inception.humanprotocol.model.JobPhase.INVITE;
+import static io.github.reckart.inception.humanprotocol.model.JobPhase.SCHEMA;
+import static io.github.reckart.inception.humanprotocol.model.JobPhase.TASK_DATA;
 import static java.lang.Boolean.TRUE;
-import static java.lang.String.format;
-import static java.lang.String.join;
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.temporal.ChronoUnit.HOURS;
 import static java.util.Arrays.asList;
 import static java.util.Calendar.MONTH;
-import static org.apache.commons.codec.digest.DigestUtils.sha256Hex;
-import static org.apache.commons.io.FilenameUtils.getExtension;
+import static java.util.Collections.synchronizedMap;
 import static org.apache.uima.cas.CAS.TYPE_NAME_STRING;
 
-import java.io.File;
-import java.io.FileInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.net.http.HttpResponse.BodyHandlers;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 
 import org.apache.commons.collections4.MapUtils;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.Validate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.ReflectionUtils;
 
-import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
 import de.tudarmstadt.ukp.clarin.webanno.api.project.ProjectInitializer;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnchoringMode;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocumentState;
@@ -81,7 +76,6 @@ import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationFeature;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
 import de.tudarmstadt.ukp.clarin.webanno.model.OverlapMode;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
-import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
 import de.tudarmstadt.ukp.clarin.webanno.model.Tag;
 import de.tudarmstadt.ukp.clarin.webanno.model.TagSet;
 import de.tudarmstadt.ukp.clarin.webanno.project.initializers.SentenceLayerInitializer;
@@ -99,29 +93,95 @@ import de.tudarmstadt.ukp.inception.workload.dynamic.DynamicWorkloadExtension;
 import de.tudarmstadt.ukp.inception.workload.dynamic.trait.DynamicWorkloadTraits;
 import de.tudarmstadt.ukp.inception.workload.model.WorkloadManagementService;
 import de.tudarmstadt.ukp.inception.workload.model.WorkloadManager;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataBundle;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataIngestionService;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataReader;
+import io.github.reckart.inception.humanprotocol.intake.JobMonitor;
 import io.github.reckart.inception.humanprotocol.model.InternationalizedStrings;
 import io.github.reckart.inception.humanprotocol.model.JobManifest;
-import io.github.reckart.inception.humanprotocol.model.TaskData;
-import io.github.reckart.inception.humanprotocol.model.TaskDataItem;
+import io.github.reckart.inception.humanprotocol.workload.EarlyStoppingWorkflowExtension;
 import software.amazon.awssdk.utils.StringUtils;
 
 public class HumanProtocolProjectInitializer
     implements ProjectInitializer
 {
+    private static final int TEMPLATE_CACHE_SIZE = 64;
+
     private @Autowired AnnotationSchemaService schemaService;
-    private @Autowired DocumentService documentService;
     private @Autowired WorkloadManagementService workloadService;
     private @Autowired DynamicWorkloadExtension dynamicWorkload;
     private @Autowired InviteService inviteService;
     private @Autowired DocumentMetadataLayerSupport docLayerSupport;
     private @Autowired PreferencesService prefService;
     private @Autowired DocumentMetadataSidebarFactory documentMetadataSidebarFactory;
+    private @Autowired TaskDataIngestionService ingestionService;
 
     private final JobManifest manifest;
+    private final JobMonitor monitor;
+
+    /**
+     * The raw manifest from which inline task data is streamed. If this is not set, the inline
+     * task data is taken from the parsed {@link #manifest}.
+     */
+    private byte[] manifestBytes;
+
+    /**
+     * Schema templates by manifest fingerprint. Shared by all initializers created from the same
+     * prototype.
+     */
+    private Map<String, ProjectSchemaTemplate> templateCache = synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true)
+            {
+                private static final long serialVersionUID = 4262349203577460101L;
+
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, ProjectSchemaTemplate> aEldest)
+                {
+                    return size() > TEMPLATE_CACHE_SIZE;
+                }
+            });
 
     public HumanProtocolProjectInitializer(JobManifest aManifest)
+    {
+        this(aManifest, JobMonitor.detached());
+    }
+
+    public HumanProtocolProjectInitializer(JobManifest aManifest, JobMonitor aMonitor)
     {
         manifest = aManifest;
+        monitor = aMonitor;
+    }
+
+    /**
+     * Creates an initializer for the given manifest which uses the same services as the given
+     * (already autowired) prototype. This avoids having to autowire a new initializer for every
+     * job.
+     */
+    public HumanProtocolProjectInitializer(HumanProtocolProjectInitializer aPrototype,
+            JobManifest aManifest, JobMonitor aMonitor)
+    {
+        this(aPrototype, aManifest, null, aMonitor);
+    }
+
+    /**
+     * Like {@link #HumanProtocolProjectInitializer(HumanProtocolProjectInitializer, JobManifest,
+     * JobMonitor)} but streams the inline task data from the given raw manifest. This allows the
+     * manifest to be parsed without its task data using
+     * {@link JobManifestUtils#loadManifestWithoutTaskData(byte[])}.
+     */
+    public HumanProtocolProjectInitializer(HumanProtocolProjectInitializer aPrototype,
+            JobManifest aManifest, byte[] aManifestBytes, JobMonitor aMonitor)
+    {
+        this(aManifest, aMonitor);
+        manifestBytes = aManifestBytes;
+        templateCache = aPrototype.templateCache;
+
+        // All autowired services are taken over, so services added later cannot be forgotten here
+        ReflectionUtils.doWithFields(HumanProtocolProjectInitializer.class, field -> {
+            ReflectionUtils.makeAccessible(field);
+            field.set(this, field.get(aPrototype));
+        }, field -> field.isAnnotationPresent(Autowired.class));
     }
 
     @Override
@@ -145,18 +205,45 @@ public class HumanProtocolProjectInitializer
     @Override
     public void configure(Project aProject) throws IOException
     {
+        monitor.setPhase(SCHEMA);
+
         initializeProjectDescription(aProject);
 
         initializeTask(aProject);
 
-        initializeTaskData(aProject);
-
         initializeWorkloadManagement(aProject);
 
-        initializeAnnotatorAccess(aProject);
+        monitor.setPhase(TASK_DATA);
+
+        int itemCount = initializeTaskData(aProject);
+
+        monitor.setPhase(INVITE);
+
+        initializeAnnotatorAccess(aProject, itemCount);
+    }
+
+    /**
+     * Resumes the initialization of a project whose task data has only been partially ingested.
+     * The schema has already been set up when the task data was first ingested, so only the task
+     * data is ingested (skipping what has already been ingested) and annotator access is set up.
+     */
+    public void resumeTaskData(Project aProject) throws IOException
+    {
+        monitor.setPhase(TASK_DATA);
+
+        int itemCount = initializeTaskData(aProject);
+
+        monitor.setPhase(INVITE);
+
+        initializeAnnotatorAccess(aProject, itemCount);
     }
 
-    private void initializeAnnotatorAccess(Project aProject)
+    /**
+     * @param aItemCount
+     *            the number of task data items. If datapoints are packed, this is larger than the
+     *            number of documents in the project.
+     */
+    private void initializeAnnotatorAccess(Project aProject, int aItemCount)
     {
         Date expirationDate;
         if (manifest.getExpirationDate() > 0) {
@@ -169,9 +256,16 @@ public class HumanProtocolProjectInitializer
             expirationDate = expirationCalendar.getTime();
         }
 
-        inviteService.generateInviteWithExpirationDate(aProject, expirationDate);
-
+        // Projects from the project pool already come with an invite
         ProjectInvite invite = inviteService.readProjectInvite(aProject);
+        if (invite == null) {
+            inviteService.generateInviteWithExpirationDate(aProject, expirationDate);
+            invite = inviteService.readProjectInvite(aProject);
+        }
+        else {
+            invite.setExpirationDate(expirationDate);
+        }
+
         invite.setGuestAccessible(true);
         invite.setInvitationText(String.join("\n", "## Welcome!", "",
                 "To earn credit for your annotations, please enter your Ethereum "
@@ -179,96 +273,101 @@ public class HumanProtocolProjectInitializer
         invite.setUserIdPlaceholder("Ethereum wallet address");
         invite.setAskForEMail(NOT_ALLOWED);
         invite.setDisableOnAnnotationComplete(true);
-        invite.setMaxAnnotatorCount(documentService.listSourceDocuments(aProject).size());
+        invite.setMaxAnnotatorCount(aItemCount);
         inviteService.writeProjectInvite(invite);
     }
 
-    private boolean hasAcceptedUriScheme(URI aUri)
+    /**
+     * @return the number of task data items.
+     */
+    private int initializeTaskData(Project aProject) throws IOException
     {
-        return asList(VALID_URI_SCHEMES).contains(aUri.getScheme());
-    }
-
-    private void enforceAcceptedUriScheme(URI aUri) throws IOException
-    {
-        if (!hasAcceptedUriScheme(aUri)) {
-            throw new IOException(
-                    format("URI [%s] has the scheme [%s] which is not accepted. Only one of [%s] "
-                            + "are valid.", aUri, aUri.getScheme(), join(", ", VALID_URI_SCHEMES)));
+        if (manifest.getTaskdataUri() == null && manifestBytes == null
+                && manifest.getTaskdata() == null) {
+            return 0;
         }
-    }
 
-    private void initializeTaskData(Project aProject) throws IOException
-    {
-        if (manifest.getTaskdataUri() == null && manifest.getTaskdata() == null) {
-            return;
+        String format = (String) manifest.getRequestConfig()
+                .getOrDefault(REQUEST_CONFIG_DATA_FORMAT, TextFormatSupport.ID);
+        int packSize = getPackSize();
+        Validate.isTrue(packSize == 0 || TextFormatSupport.ID.equals(format),
+                "Only datapoints in format [%s] can be packed", TextFormatSupport.ID);
+
+        if (manifest.getTaskdataUri() == null && manifestBytes == null) {
+            monitor.setProgressMax(manifest.getTaskdata().size());
+            ingestionService.ingest(aProject, manifest.getTaskdata().iterator(), format,
+                    packSize, monitor);
+            return manifest.getTaskdata().size();
         }
 
-        TaskData taskData;
         if (manifest.getTaskdataUri() != null) {
             URI taskDataUri = URI.create(manifest.getTaskdataUri());
-            enforceAcceptedUriScheme(taskDataUri);
-            taskData = JobManifestUtils.loadTaskData(taskDataUri);
-        }
-        else {
-            taskData = manifest.getTaskdata();
-        }
+            JobManifestUtils.enforceAcceptedUriScheme(taskDataUri);
+
+            // A bundle contains the datapoints as well, so they do not need to be fetched one
+            // by one
+            if (TaskDataBundle.isBundle(taskDataUri)) {
+                try (TaskDataBundle bundle = TaskDataBundle.open(taskDataUri)) {
+                    ingestionService.ingest(aProject, bundle, format, packSize, monitor);
+                    return bundle.size();
+                }
+            }
 
-        HttpClient client = HttpClient.newHttpClient();
-        for (TaskDataItem item : taskData) {
-            URI datapointUri = URI.create(item.getDatapointUri());
+            // Task data is streamed, so we do not know up-front how many items there are
+            try (TaskDataReader taskData = TaskDataReader.open(taskDataUri)) {
+                ingestionService.ingest(aProject, taskData, format, packSize, monitor);
+                return taskData.getCount();
+            }
+        }
 
-            enforceAcceptedUriScheme(datapointUri);
+        try (TaskDataReader taskData = TaskDataReader
+                .forManifest(new ByteArrayInputStream(manifestBytes))) {
+            ingestionService.ingest(aProject, taskData, format, packSize, monitor);
+            return taskData.getCount();
+        }
+    }
 
-            File tmpFile = createTempFile("taskDataItem", getExtension(datapointUri.getPath()));
-            try {
-                HttpRequest request = HttpRequest.newBuilder().uri(datapointUri).build();
-                HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
+    private void initializeTask(Project aProject) throws IOException
+    {
+        ProjectSchemaTemplate template = templateCache.computeIfAbsent(
+                ProjectSchemaTemplate.fingerprint(manifest), fp -> buildSchemaTemplate());
+
+        Optional<TagSet> tagset = Optional.empty();
+        if (template.hasTags()) {
+            TagSet ts = new TagSet(aProject, "Tagset");
+            ts.setCreateTag(false);
+            schemaService.createTagSet(ts);
+            schemaService.createTags(template.createTags(ts));
+            tagset = Optional.of(ts);
+        }
 
-                String actualDatapointHash = sha256Hex(response.body());
-                if (!actualDatapointHash.equals(item.getDatapointHash())) {
-                    throw new IOException(format(
-                            "Actual data hash for task key [%s] does not "
-                                    + "match expected hash. Expected: [%s] Actual: [%s]",
-                            item.getTaskKey(), item.getDatapointHash(), actualDatapointHash));
-                }
+        AnnotationLayer layer = template.createLayer(aProject);
+        schemaService.createOrUpdateLayer(layer);
 
-                FileUtils.write(tmpFile, response.body(), UTF_8);
+        schemaService.createFeature(template.createFeature(aProject, layer, tagset));
 
-                String format = (String) manifest.getRequestConfig()
-                        .getOrDefault(REQUEST_CONFIG_DATA_FORMAT, TextFormatSupport.ID);
+        Optional<AnnotationFeature> keyFeature = template.createKeyFeature(aProject, layer);
+        if (keyFeature.isPresent()) {
+            schemaService.createFeature(keyFeature.get());
+        }
 
-                SourceDocument sourceDocument = new SourceDocument(
-                        FilenameUtils.getName(datapointUri.getPath()), aProject, format);
-                documentService.createSourceDocument(sourceDocument);
-                try (InputStream is = new FileInputStream(tmpFile)) {
-                    documentService.uploadSourceDocument(is, sourceDocument);
-                }
-            }
-            catch (IOException e) {
-                throw e;
-            }
-            catch (Exception e) {
-                throw new IOException(e);
-            }
-            finally {
-                if (tmpFile.exists()) {
-                    tmpFile.delete();
-                }
-            }
+        if (template.getSidebarTab().isPresent()) {
+            AnnotationSidebarState sidebarState = new AnnotationSidebarState();
+            sidebarState.setSelectedTab(template.getSidebarTab().get());
+            sidebarState.setExpanded(true);
+            prefService.saveDefaultTraitsForProject(KEY_SIDEBAR_STATE, aProject, sidebarState);
         }
     }
 
-    private void initializeTask(Project aProject)
+    private ProjectSchemaTemplate buildSchemaTemplate()
     {
         Validate.notNull(manifest.getRequestType(), "Manifest must specify a request type");
 
         switch (manifest.getRequestType()) {
         case TASK_TYPE_SPAN_SELECT:
-            initializeSpanSelectionTask(aProject);
-            break;
+            return buildSpanSelectionTemplate();
         case TASK_TYPE_DOCUMENT_CLASSIFICATION:
-            initializeDocumentClassificationTask(aProject);
-            break;
+            return buildDocumentClassificationTemplate();
         default:
             throw new IllegalArgumentException(
                     "Unsupported request type [" + manifest.getRequestType() + "]");
@@ -282,17 +381,18 @@ public class HumanProtocolProjectInitializer
         DynamicWorkloadTraits traits = dynamicWorkload.readTraits(mgr);
         traits.setAbandonationTimeout(Duration.of(24, HOURS));
         traits.setAbandonationState(AnnotationDocumentState.IGNORE);
-        traits.setDefaultNumberOfAnnotations(manifest.getRequesterMinRepeats());
+        // Documents on which the annotators agree are withdrawn early by the
+        // EarlyStoppingService, so with an accuracy target, this is only the upper limit
+        traits.setDefaultNumberOfAnnotations(manifest.maxRepeats());
+        traits.setWorkflowType(EarlyStoppingWorkflowExtension.ID);
         workloadService.saveConfiguration(mgr);
     }
 
-    private void initializeSpanSelectionTask(Project aProject)
+    private ProjectSchemaTemplate buildSpanSelectionTemplate()
     {
         Validate.notNull(manifest.getRequestConfig(),
                 "Manifest must contain a request configuration");
 
-        Optional<TagSet> tagset = initializeTagset(aProject);
-
         AnchoringMode anchoringMode;
         Object anchoringModeValue = manifest.getRequestConfig()
                 .getOrDefault(REQUEST_CONFIG_KEY_ANCHORING, ANCHORING_CHARACTERS);
@@ -331,41 +431,82 @@ public class HumanProtocolProjectInitializer
         }
 
         AnnotationLayer spanLayer = new AnnotationLayer(CUSTOM_SPAN_LAYER, "Span", SPAN_TYPE,
-                aProject, false, anchoringMode, overlapMode);
+                null, false, anchoringMode, overlapMode);
         spanLayer.setCrossSentence(crossSentence);
-        schemaService.createOrUpdateLayer(spanLayer);
 
-        AnnotationFeature stringFeature = new AnnotationFeature(aProject, spanLayer, VALUE_FEATURE,
+        AnnotationFeature stringFeature = new AnnotationFeature(null, spanLayer, VALUE_FEATURE,
                 "Value", TYPE_NAME_STRING);
-        tagset.ifPresent(stringFeature::setTagset);
-        schemaService.createFeature(stringFeature);
+
+        return new ProjectSchemaTemplate(spanLayer, stringFeature, buildTags(), null);
     }
 
-    private void initializeDocumentClassificationTask(Project aProject)
+    private ProjectSchemaTemplate buildDocumentClassificationTemplate()
     {
         Validate.notNull(manifest.getRequestConfig(),
                 "Manifest must contain a request configuration");
 
-        Optional<TagSet> tagset = initializeTagset(aProject);
+        if (getPackSize() > 0) {
+            return buildPackedDocumentClassificationTemplate();
+        }
 
-        AnnotationLayer docMetaLayer = new AnnotationLayer("custom.DocumentTag", "Document Tag",
-                DocumentMetadataLayerSupport.TYPE, aProject, false, TOKENS, NO_OVERLAP);
+        AnnotationLayer docMetaLayer = new AnnotationLayer(CUSTOM_DOCUMENT_LAYER, "Document Tag",
+                DocumentMetadataLayerSupport.TYPE, null, false, TOKENS, NO_OVERLAP);
         DocumentMetadataLayerTraits traits = new DocumentMetadataLayerTraits();
         traits.setSingleton(true);
         docMetaLayer.setTraits(TYPE_NAME_STRING);
         docLayerSupport.writeTraits(docMetaLayer, traits);
-        schemaService.createOrUpdateLayer(docMetaLayer);
 
-        AnnotationFeature stringFeature = new AnnotationFeature(aProject, docMetaLayer,
+        AnnotationFeature stringFeature = new AnnotationFeature(null, docMetaLayer,
                 VALUE_FEATURE, "Value", TYPE_NAME_STRING);
-        tagset.ifPresent(stringFeature::setTagset);
-        schemaService.createFeature(stringFeature);
 
         // Open the document annotation sidebar by default
-        AnnotationSidebarState sidebarState = new AnnotationSidebarState();
-        sidebarState.setSelectedTab(documentMetadataSidebarFactory.getBeanName());
-        sidebarState.setExpanded(true);
-        prefService.saveDefaultTraitsForProject(KEY_SIDEBAR_STATE, aProject, sidebarState);
+        return new ProjectSchemaTemplate(docMetaLayer, stringFeature, buildTags(),
+                documentMetadataSidebarFactory.getBeanName());
+    }
+
+    /**
+     * Many tiny datapoints are packed into a single document in which every datapoint is covered
+     * by a pre-created item annotation. Instead of classifying the document, the annotators
+     * classify each of the items. The task key of the item is kept in a hidden feature.
+     */
+    private ProjectSchemaTemplate buildPackedDocumentClassificationTemplate()
+    {
+        AnnotationLayer itemLayer = new AnnotationLayer(CUSTOM_ITEM_LAYER, "Item Tag", SPAN_TYPE,
+                null, false, SENTENCES, NO_OVERLAP);
+        itemLayer.setCrossSentence(false);
+
+        AnnotationFeature stringFeature = new AnnotationFeature(null, itemLayer, VALUE_FEATURE,
+                "Value", TYPE_NAME_STRING);
+
+        AnnotationFeature keyFeature = new AnnotationFeature(null, itemLayer, TASK_KEY_FEATURE,
+                "Task key", TYPE_NAME_STRING);
+        keyFeature.setVisible(false);
+        keyFeature.setReadonly(true);
+
+        return new ProjectSchemaTemplate(itemLayer, stringFeature, keyFeature, buildTags(), null);
+    }
+
+    private int getPackSize()
+    {
+        if (manifest.getRequestConfig() == null) {
+            return 0;
+        }
+
+        Object packSizeValue = manifest.getRequestConfig().get(REQUEST_CONFIG_KEY_PACK_SIZE);
+        if (packSizeValue == null) {
+            return 0;
+        }
+
+        Validate.isTrue(packSizeValue instanceof Number,
+                "Request configuration [%s] must be a number", REQUEST_CONFIG_KEY_PACK_SIZE);
+        int packSize = ((Number) packSizeValue).intValue();
+        Validate.isTrue(packSize >= 0, "Request configuration [%s] must not be negative",
+                REQUEST_CONFIG_KEY_PACK_SIZE);
+        Validate.isTrue(packSize == 0
+                || TASK_TYPE_DOCUMENT_CLASSIFICATION.equals(manifest.getRequestType()),
+                "Request configuration [%s] is only supported for [%s] jobs",
+                REQUEST_CONFIG_KEY_PACK_SIZE, TASK_TYPE_DOCUMENT_CLASSIFICATION);
+        return packSize;
     }
 
     private void initializeProjectDescription(Project aProject)
@@ -377,29 +518,23 @@ public class HumanProtocolProjectInitializer
         aProject.setDescription(manifest.getRequesterQuestion().getOrDefault("en", ""));
     }
 
-    private Optional<TagSet> initializeTagset(Project aProject)
+    private List<Tag> buildTags()
     {
+        List<Tag> tags = new ArrayList<>();
         if (MapUtils.isEmpty(manifest.getRequesterRestrictedAnswerSet())) {
-            return Optional.empty();
+            return tags;
         }
 
-        TagSet tagset = new TagSet(aProject, "Tagset");
-        tagset.setCreateTag(false);
-        schemaService.createTagSet(tagset);
-
-        List<Tag> tags = new ArrayList<>();
         for (Entry<String, InternationalizedStrings> answer : manifest
                 .getRequesterRestrictedAnswerSet().entrySet()) {
-            Tag tag = new Tag(tagset, answer.getKey().trim());
-            tag.setRank(tags.size());
+            Tag tag = new Tag(null, answer.getKey().trim());
             String description = answer.getValue().get("en");
             if (StringUtils.isNotBlank(description)) {
                 tag.setDescription(description);
             }
             tags.add(tag);
         }
-        schemaService.createTags(tags.stream().toArray(Tag[]::new));
 
-        return Optional.of(tagset);
+        return tags;
     }
 }
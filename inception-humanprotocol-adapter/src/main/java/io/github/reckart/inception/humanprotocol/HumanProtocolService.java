@@ -27,9 +27,21 @@ import io.github.reckart.inception.humanprotocol.model.JobManifest;
 public interface HumanProtocolService
 {
     String RESULTS_KEY_SUFFIX = "results.zip";
+    String TASK_RESULTS_KEY_SUFFIX = "results.jsonl";
     
+    /**
+     * Reads the job manifest of the project. Parsed manifests are cached, so the returned manifest
+     * may be shared with other callers and must not be modified. The inline task data is not
+     * included - use {@link #readJobManifestBytes} to stream it from the stored manifest.
+     */
     Optional<JobManifest> readJobManifest(Project aProject) throws IOException;
 
+    /**
+     * Reads the stored manifest of the project as it was submitted, including its inline task
+     * data. This is not cached.
+     */
+    Optional<byte[]> readJobManifestBytes(Project aProject) throws IOException;
+
     /**
      * Import a job manifest directly into the project from a remote URL. This ensures that any
      * information that is not represented in the {@link JobManifest} class is still present in the
@@ -49,4 +61,10 @@ public interface HumanProtocolService
     void writeJobRequest(Project aProject, JobRequest aJobRequest) throws IOException;
 
     void publishInviteLink(Project aProject) throws IOException;
+
+    /**
+     * Registers the jobs of projects which have been created before jobs were registered in the
+     * database. These projects are only recognized by the job request stored with them.
+     */
+    void registerExistingJobs();
 }
@@ -16,33 +16,48 @@
  */
 package io.github.reckart.inception.humanprotocol;
 
-import static de.tudarmstadt.ukp.clarin.webanno.api.CasUpgradeMode.FORCE_CAS_UPGRADE;
+import static de.tudarmstadt.ukp.clarin.webanno.api.CasUpgradeMode.AUTO_CAS_UPGRADE;
 import static de.tudarmstadt.ukp.clarin.webanno.api.casstorage.CasAccessMode.UNMANAGED_ACCESS;
 import static de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocumentState.FINISHED;
 import static de.tudarmstadt.ukp.clarin.webanno.model.PermissionLevel.ANNOTATOR;
 import static de.tudarmstadt.ukp.clarin.webanno.model.ProjectState.ANNOTATION_FINISHED;
 import static de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState.CURATION_FINISHED;
 import static de.tudarmstadt.ukp.clarin.webanno.support.JSONUtil.toPrettyJsonString;
-import static de.tudarmstadt.ukp.clarin.webanno.support.WebAnnoConst.CURATION_USER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_DOCUMENT_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_ITEM_LAYER;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.HEADER_X_EXCHANGE_SIGNATURE;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.INVITE_LINK_ENDPOINT;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.JOB_RESULTS_ENDPOINT;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_KEY_FEATURE;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_TYPE_DOCUMENT_CLASSIFICATION;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_TYPE_SPAN_SELECT;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.VALUE_FEATURE;
 import static io.github.reckart.inception.humanprotocol.SignatureUtils.generateHexSignature;
+import static io.github.reckart.inception.humanprotocol.model.DocumentLabel.DOCUMENT;
+import static io.github.reckart.inception.humanprotocol.model.JobState.COMPLETED;
+import static io.github.reckart.inception.humanprotocol.model.ResultsFormat.PROJECT_EXPORT;
+import static java.lang.Math.floorMod;
 import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.exists;
 import static java.nio.file.Files.newOutputStream;
+import static java.util.Collections.synchronizedMap;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
+import static org.apache.commons.codec.binary.Hex.encodeHexString;
+import static org.apache.commons.codec.digest.DigestUtils.getSha256Digest;
+import static org.apache.commons.codec.digest.DigestUtils.sha256Hex;
 import static org.apache.commons.io.FileUtils.deleteQuietly;
 import static org.apache.commons.io.IOUtils.copyLarge;
+import static org.apache.uima.fit.util.CasUtil.select;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.net.URI;
@@ -53,24 +68,60 @@ import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.DigestInputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
 
+import org.apache.commons.collections4.ListUtils;
 import org.apache.uima.UIMAException;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.fit.util.FSUtil;
+import org.apache.uima.resource.metadata.TypeSystemDescription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
 import de.tudarmstadt.ukp.clarin.webanno.api.ProjectService;
 import de.tudarmstadt.ukp.clarin.webanno.api.config.RepositoryProperties;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.AnnotationStateChangeEvent;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.BeforeProjectRemovedEvent;
 import de.tudarmstadt.ukp.clarin.webanno.api.event.ProjectStateChangedEvent;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.FullProjectExportRequest;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportException;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportTaskMonitor;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocument;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
 import de.tudarmstadt.ukp.clarin.webanno.model.ProjectState;
 import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
@@ -78,21 +129,27 @@ import de.tudarmstadt.ukp.clarin.webanno.security.model.User;
 import de.tudarmstadt.ukp.clarin.webanno.support.JSONUtil;
 import de.tudarmstadt.ukp.clarin.webanno.xmi.XmiFormatSupport;
 import de.tudarmstadt.ukp.inception.annotation.storage.CasStorageSession;
-import de.tudarmstadt.ukp.inception.curation.merge.strategy.ThresholdBasedMergeStrategy;
 import de.tudarmstadt.ukp.inception.curation.service.CurationDocumentService;
-import de.tudarmstadt.ukp.inception.curation.service.CurationMergeService;
 import de.tudarmstadt.ukp.inception.project.export.ProjectExportService;
 import de.tudarmstadt.ukp.inception.schema.AnnotationSchemaService;
 import de.tudarmstadt.ukp.inception.sharing.InviteService;
 import de.tudarmstadt.ukp.inception.sharing.model.ProjectInvite;
 import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
 import io.github.reckart.inception.humanprotocol.config.HumanProtocolProperties;
+import io.github.reckart.inception.humanprotocol.consensus.SpanVoteIndex;
+import io.github.reckart.inception.humanprotocol.curation.CurationFingerprintService;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataIngestionService;
+import io.github.reckart.inception.humanprotocol.labels.DocumentLabelAggregator;
+import io.github.reckart.inception.humanprotocol.labels.DocumentLabelService;
 import io.github.reckart.inception.humanprotocol.messages.InviteLinkNotification;
 import io.github.reckart.inception.humanprotocol.messages.JobRequest;
 import io.github.reckart.inception.humanprotocol.messages.JobResultSubmission;
+import io.github.reckart.inception.humanprotocol.model.HumanProtocolJob;
 import io.github.reckart.inception.humanprotocol.model.JobManifest;
 import io.github.reckart.inception.humanprotocol.model.PayoutItem;
 import io.github.reckart.inception.humanprotocol.model.Payouts;
+import io.github.reckart.inception.humanprotocol.registry.JobRegistryService;
+import io.github.reckart.inception.humanprotocol.results.TaskResultsExportService;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
@@ -104,8 +161,10 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
  * </p>
  */
 public class HumanProtocolServiceImpl
-    implements HumanProtocolService
+    implements HumanProtocolService, DisposableBean
 {
+    private static final int PROJECT_LOCK_STRIPES = 64;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     private final RepositoryProperties repositoryProperties;
@@ -116,14 +175,42 @@ public class HumanProtocolServiceImpl
     private final DocumentService documentService;
     private final AnnotationSchemaService annotationService;
     private final ProjectService projectService;
-    private final CurationMergeService curationMergeService;
     private final CurationDocumentService curationDocumentService;
+    private final TaskDataIngestionService ingestionService;
+    private final JobRegistryService jobRegistry;
+    private final DocumentLabelService labelService;
+    private final CurationFingerprintService fingerprintService;
+    private final TaskResultsExportService taskResultsExportService;
+
+    /*
+     * Parsed manifests and job requests by project ID. Projects which are not HUMAN Protocol
+     * projects are recorded with an empty entry, so they do not have to be looked up on disk again
+     * on every project state change.
+     */
+    private final Map<Long, Optional<JobManifest>> manifestCache;
+    private final Map<Long, Optional<JobRequest>> jobRequestCache;
+
+    /*
+     * The files of a project are guarded by one of a fixed set of locks picked by the project ID,
+     * so that jobs only contend if their projects happen to share a lock.
+     */
+    private final ReadWriteLock[] projectLocks;
+
+    private final ExecutorService curator;
+
+    /*
+     * Documents which are being curated ahead of the end of the annotation phase by source
+     * document ID.
+     */
+    private final Map<Long, IncrementalCuration> incrementalCurations;
 
     public HumanProtocolServiceImpl(ProjectExportService aProjectExportService,
             InviteService aInviteService, ProjectService aProjectService,
             DocumentService aDocumentService, AnnotationSchemaService aAnnotationService,
-            CurationMergeService aCurationMergeService,
             CurationDocumentService aCurationDocumentService,
+            TaskDataIngestionService aIngestionService, JobRegistryService aJobRegistry,
+            DocumentLabelService aLabelService, CurationFingerprintService aFingerprintService,
+            TaskResultsExportService aTaskResultsExportService,
             @Autowired(required = false) S3Client aS3Client,
             RepositoryProperties aRepositoryProperties, HumanProtocolProperties aHmtProperties)
     {
@@ -134,101 +221,240 @@ public class HumanProtocolServiceImpl
         hmtProperties = aHmtProperties;
         s3Client = aS3Client;
         projectExportService = aProjectExportService;
-        curationMergeService = aCurationMergeService;
         curationDocumentService = aCurationDocumentService;
         annotationService = aAnnotationService;
+        ingestionService = aIngestionService;
+        jobRegistry = aJobRegistry;
+        labelService = aLabelService;
+        fingerprintService = aFingerprintService;
+        taskResultsExportService = aTaskResultsExportService;
+        manifestCache = createCache(aHmtProperties.getJobManifestCacheSize());
+        jobRequestCache = createCache(aHmtProperties.getJobManifestCacheSize());
+        curator = Executors.newFixedThreadPool(aHmtProperties.getCurationThreads(),
+                new CustomizableThreadFactory("hmt-curation-"));
+        incrementalCurations = new ConcurrentHashMap<>();
+        projectLocks = new ReadWriteLock[PROJECT_LOCK_STRIPES];
+        for (int i = 0; i < projectLocks.length; i++) {
+            projectLocks[i] = new ReentrantReadWriteLock();
+        }
     }
 
-    @Override
-    public synchronized Optional<JobManifest> readJobManifest(Project aProject) throws IOException
+    private static <T> Map<Long, T> createCache(int aSize)
     {
-        Path manifestFile = getManifestFile(aProject);
+        return synchronizedMap(new LinkedHashMap<>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = -2934086163468462245L;
 
-        if (!exists(manifestFile)) {
-            return Optional.empty();
-        }
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, T> aEldest)
+            {
+                return size() > aSize;
+            }
+        });
+    }
 
-        return Optional.of(JobManifestUtils.loadManifest(manifestFile.toFile()));
+    private ReadWriteLock getProjectLock(Project aProject)
+    {
+        return projectLocks[floorMod(aProject.getId().hashCode(), projectLocks.length)];
     }
 
     @Override
-    public synchronized Optional<JobRequest> readJobRequest(Project aProject) throws IOException
+    public void destroy()
     {
-        Path jobRequstFile = getJobRequestFile(aProject);
+        curator.shutdownNow();
+    }
 
-        if (!exists(jobRequstFile)) {
-            return Optional.empty();
+    @Override
+    public Optional<JobManifest> readJobManifest(Project aProject) throws IOException
+    {
+        Optional<JobManifest> manifest = manifestCache.get(aProject.getId());
+        if (manifest != null) {
+            return manifest;
         }
 
-        try (InputStream is = Files.newInputStream(jobRequstFile)) {
-            return Optional.of(JSONUtil.fromJsonStream(JobRequest.class, is));
+        Lock lock = getProjectLock(aProject).readLock();
+        lock.lock();
+        try {
+            Path manifestFile = getManifestFile(aProject);
+
+            if (!exists(manifestFile)) {
+                manifest = Optional.empty();
+            }
+            else {
+                // The inline task data can be huge and is not needed once the job has been set up
+                manifest = Optional
+                        .of(JobManifestUtils.loadManifestWithoutTaskData(manifestFile.toFile()));
+            }
+
+            // Writers hold the write lock, so the file cannot have changed since it was read
+            manifestCache.put(aProject.getId(), manifest);
+            return manifest;
+        }
+        finally {
+            lock.unlock();
         }
     }
 
     @Override
-    public synchronized void writeJobRequest(Project aProject, JobRequest aJobRequest)
-        throws IOException
+    public Optional<byte[]> readJobManifestBytes(Project aProject) throws IOException
     {
-        Path jobRequstFile = getJobRequestFile(aProject);
+        Lock lock = getProjectLock(aProject).readLock();
+        lock.lock();
+        try {
+            Path manifestFile = getManifestFile(aProject);
+            if (!exists(manifestFile)) {
+                return Optional.empty();
+            }
 
-        if (!exists(jobRequstFile)) {
-            createDirectories(jobRequstFile.getParent());
+            return Optional.of(Files.readAllBytes(manifestFile));
         }
-
-        try (Writer out = Files.newBufferedWriter(jobRequstFile, UTF_8)) {
-            out.write(JSONUtil.toPrettyJsonString(aJobRequest));
+        finally {
+            lock.unlock();
         }
     }
 
     @Override
-    public synchronized void importJobManifest(Project aProject, InputStream aManifestSource)
-        throws IOException
+    public Optional<JobRequest> readJobRequest(Project aProject) throws IOException
     {
-        Path manifestFile = getManifestFile(aProject);
+        Optional<JobRequest> jobRequest = jobRequestCache.get(aProject.getId());
+        if (jobRequest != null) {
+            return jobRequest;
+        }
 
-        if (!exists(manifestFile)) {
-            createDirectories(manifestFile.getParent());
+        Lock lock = getProjectLock(aProject).readLock();
+        lock.lock();
+        try {
+            Path jobRequstFile = getJobRequestFile(aProject);
+
+            if (!exists(jobRequstFile)) {
+                jobRequest = Optional.empty();
+            }
+            else {
+                try (InputStream is = Files.newInputStream(jobRequstFile)) {
+                    jobRequest = Optional.of(JSONUtil.fromJsonStream(JobRequest.class, is));
+                }
+            }
+
+            jobRequestCache.put(aProject.getId(), jobRequest);
+            return jobRequest;
+        }
+        finally {
+            lock.unlock();
         }
+    }
+
+    @Override
+    public void writeJobRequest(Project aProject, JobRequest aJobRequest) throws IOException
+    {
+        Lock lock = getProjectLock(aProject).writeLock();
+        lock.lock();
+        try {
+            Path jobRequstFile = getJobRequestFile(aProject);
 
-        try (OutputStream os = newOutputStream(manifestFile)) {
-            copyLarge(aManifestSource, os);
+            if (!exists(jobRequstFile)) {
+                createDirectories(jobRequstFile.getParent());
+            }
+
+            // Drop the cached entry first so it does not survive a failed write
+            jobRequestCache.remove(aProject.getId());
+
+            try (Writer out = Files.newBufferedWriter(jobRequstFile, UTF_8)) {
+                out.write(JSONUtil.toPrettyJsonString(aJobRequest));
+            }
+
+            jobRegistry.registerJob(aProject, aJobRequest.getNetworkId(),
+                    aJobRequest.getJobAddress());
+        }
+        finally {
+            lock.unlock();
         }
     }
 
     @Override
-    public synchronized void writeJobManifest(Project aProject, JobManifest aManifest)
+    public void importJobManifest(Project aProject, InputStream aManifestSource)
         throws IOException
     {
-        Path jobManifestFile = getManifestFile(aProject);
+        Lock lock = getProjectLock(aProject).writeLock();
+        lock.lock();
+        try {
+            Path manifestFile = getManifestFile(aProject);
 
-        if (!exists(jobManifestFile)) {
-            createDirectories(jobManifestFile.getParent());
+            if (!exists(manifestFile)) {
+                createDirectories(manifestFile.getParent());
+            }
+
+            manifestCache.remove(aProject.getId());
+
+            DigestInputStream digestStream = new DigestInputStream(aManifestSource,
+                    getSha256Digest());
+            try (OutputStream os = newOutputStream(manifestFile)) {
+                copyLarge(digestStream, os);
+            }
+
+            jobRegistry.updateManifestDigest(aProject,
+                    encodeHexString(digestStream.getMessageDigest().digest()));
+        }
+        finally {
+            lock.unlock();
         }
+    }
+
+    @Override
+    public void writeJobManifest(Project aProject, JobManifest aManifest) throws IOException
+    {
+        Lock lock = getProjectLock(aProject).writeLock();
+        lock.lock();
+        try {
+            Path jobManifestFile = getManifestFile(aProject);
+
+            if (!exists(jobManifestFile)) {
+                createDirectories(jobManifestFile.getParent());
+            }
+
+            manifestCache.remove(aProject.getId());
 
-        try (Writer out = Files.newBufferedWriter(jobManifestFile, UTF_8)) {
-            out.write(JSONUtil.toPrettyJsonString(aManifest));
+            String manifestJson = JSONUtil.toPrettyJsonString(aManifest);
+            try (Writer out = Files.newBufferedWriter(jobManifestFile, UTF_8)) {
+                out.write(manifestJson);
+            }
+
+            jobRegistry.updateManifestDigest(aProject, sha256Hex(manifestJson.getBytes(UTF_8)));
+        }
+        finally {
+            lock.unlock();
         }
     }
 
     public Path getManifestFile(Project aProject)
     {
-        return repositoryProperties.getPath().toPath().resolve("hmt").resolve("job-manifest.json");
+        return getProjectFolder(aProject).resolve("job-manifest.json");
     }
 
     public Path getJobRequestFile(Project aProject)
     {
-        return repositoryProperties.getPath().toPath().resolve("hmt").resolve("job-request.json");
+        return getProjectFolder(aProject).resolve("job-request.json");
+    }
+
+    private Path getProjectFolder(Project aProject)
+    {
+        return repositoryProperties.getPath().toPath().resolve("project")
+                .resolve(String.valueOf(aProject.getId())).resolve("hmt");
     }
 
     private String getExportKey(JobRequest aJobRequest)
     {
-        return String.format("%s/%s", aJobRequest.getJobAddress(), RESULTS_KEY_SUFFIX);
+        String suffix = hmtProperties.getResultsFormat() == PROJECT_EXPORT ? RESULTS_KEY_SUFFIX
+                : TASK_RESULTS_KEY_SUFFIX;
+        return String.format("%s/%s", aJobRequest.getJobAddress(), suffix);
     }
 
-    public Payouts getPayouts(Project aProject)
+    public Payouts getPayouts(Project aProject) throws IOException
     {
         Payouts payouts = new Payouts();
 
+        // A packed document stands for all the task data items packed into it
+        Map<String, List<String>> packedTaskKeys = ingestionService.getPackedTaskKeys(aProject);
+
         List<User> annotators = projectService.listProjectUsersWithPermissions(aProject, ANNOTATOR);
         for (User annotator : annotators) {
             PayoutItem payoutItem = new PayoutItem();
@@ -237,6 +463,7 @@ public class HumanProtocolServiceImpl
             payoutItem.setTaskIds(documentService //
                     .listAnnotationDocumentsWithStateForUser(aProject, annotator, FINISHED).stream()
                     .map(ann -> ann.getDocument().getName()) //
+                    .flatMap(name -> packedTaskKeys.getOrDefault(name, List.of(name)).stream()) //
                     .collect(toList()));
 
             payouts.add(payoutItem);
@@ -245,47 +472,280 @@ public class HumanProtocolServiceImpl
         return payouts;
     }
 
+    /**
+     * Documents are curated in parallel. Each worker holds the CASes of one document (a batch of
+     * annotator CASes or the curation CAS) in memory at a time, so the number of workers is
+     * limited by the heap that is currently available and the memory budget per worker.
+     */
     private void autoCurateDocuments(Project aProject, JobManifest aJobManifest)
         throws IOException, UIMAException
     {
         var minRepeats = aJobManifest.getRequesterMinRepeats();
-        var confidenceThreshold = aJobManifest.requesterAccuracyTarget().orElseThrow(
-                () -> new IllegalArgumentException("Manifest does not define a target accuracy"));
-        var topRanks = 1;
-        var mergeStrategy = new ThresholdBasedMergeStrategy(minRepeats, confidenceThreshold,
-                topRanks);
+        var confidenceThreshold = getConfidenceThreshold(aJobManifest);
 
         var typeSystem = annotationService.getFullProjectTypeSystem(aProject);
 
         var documents = documentService.listSourceDocuments(aProject);
-        int i = 0;
-        for (SourceDocument doc : documents) {
-            i++;
-            log.trace("Auto-curating {} [{} of {}] using {}", doc, i, documents.size(),
-                    mergeStrategy);
 
-            var finishedAnnDocuments = documentService.listFinishedAnnotationDocuments(doc);
-            if (finishedAnnDocuments.isEmpty()) {
-                continue;
+        // Incremental curations must be complete before their fingerprints are looked at
+        for (var doc : documents) {
+            var incremental = incrementalCurations.remove(doc.getId());
+            if (incremental != null) {
+                incremental.await();
             }
+        }
 
-            try (var session = CasStorageSession.openNested()) {
-                var casByUser = documentService.readAllCasesSharedNoUpgrade(finishedAnnDocuments);
+        var fingerprints = fingerprintService.listFingerprints(aProject);
+
+        log.info("Auto-curating {} documents of {} ({} curated before) with min repeats {} and "
+                + "confidence threshold {}", documents.size(), aProject, fingerprints.size(),
+                minRepeats, confidenceThreshold);
+
+        runCuration(aProject, documents, doc -> autoCurateDocument(doc, typeSystem, minRepeats,
+                confidenceThreshold, fingerprints.get(doc.getId())));
+    }
+
+    /**
+     * Document classification jobs are curated from the labels stored when the annotators finished
+     * their documents, so no annotator CAS needs to be read. A packed document is curated per item.
+     */
+    private void autoCurateDocumentLabels(Project aProject, JobManifest aJobManifest)
+        throws IOException, UIMAException
+    {
+        var minRepeats = aJobManifest.getRequesterMinRepeats();
+        var confidenceThreshold = getConfidenceThreshold(aJobManifest);
+
+        var typeSystem = annotationService.getFullProjectTypeSystem(aProject);
+
+        var labels = labelService.listLabels(aProject);
+        var documents = new ArrayList<>(labels.keySet());
+        var fingerprints = fingerprintService.listFingerprints(aProject);
+
+        log.info("Auto-curating labels of {} documents of {}", documents.size(), aProject);
+
+        runCuration(aProject, documents, doc -> {
+            var docLabels = labels.get(doc);
+            var fingerprint = fingerprint(docLabels.entrySet().stream() //
+                    .flatMap(item -> item.getValue().entrySet().stream() //
+                            .map(e -> item.getKey() + "\t" + e.getKey() + "\t" + e.getValue())),
+                    minRepeats, confidenceThreshold);
+            // Same as for spans - the curation CAS is up to date if it has been created from the
+            // same labels
+            if (!fingerprint.equals(fingerprints.get(doc.getId()))) {
+                var curatedLabels = new LinkedHashMap<String, String>();
+                docLabels.forEach((item, itemLabels) -> DocumentLabelAggregator
+                        .chooseLabel(itemLabels.values(), minRepeats, confidenceThreshold)
+                        .ifPresent(label -> curatedLabels.put(item, label)));
+                writeCuratedLabels(doc, curatedLabels, typeSystem);
+                fingerprintService.updateFingerprint(doc, fingerprint);
+            }
+
+            return true;
+        });
+    }
+
+    /**
+     * Writes the given labels by item into the curation CAS. The item tags of a packed document
+     * are already part of its initial CAS, so they only need their values to be set.
+     */
+    private void writeCuratedLabels(SourceDocument aDocument, Map<String, String> aLabels,
+            TypeSystemDescription aTypeSystem)
+        throws IOException, UIMAException
+    {
+        try (var session = CasStorageSession.openNested()) {
+            var curationCas = documentService.createOrReadInitialCas(aDocument,
+                    AUTO_CAS_UPGRADE, UNMANAGED_ACCESS, aTypeSystem);
+
+            var itemTags = new HashMap<String, AnnotationFS>();
+            var itemType = curationCas.getTypeSystem().getType(CUSTOM_ITEM_LAYER);
+            if (itemType != null) {
+                for (var itemTag : select(curationCas, itemType)) {
+                    itemTags.putIfAbsent(
+                            FSUtil.getFeature(itemTag, TASK_KEY_FEATURE, String.class), itemTag);
+                }
+            }
 
-                var curationCas = documentService.createOrReadInitialCas(doc, FORCE_CAS_UPGRADE,
-                        UNMANAGED_ACCESS, typeSystem);
-                curationMergeService.mergeCasses(doc, CURATION_USER, curationCas, casByUser,
-                        mergeStrategy);
+            for (var label : aLabels.entrySet()) {
+                if (DOCUMENT.equals(label.getKey())) {
+                    var tagType = curationCas.getTypeSystem().getType(CUSTOM_DOCUMENT_LAYER);
+                    var tag = curationCas.createFS(tagType);
+                    FSUtil.setFeature(tag, VALUE_FEATURE, label.getValue());
+                    curationCas.addFsToIndexes(tag);
+                    continue;
+                }
 
-                curationDocumentService.writeCurationCas(curationCas, doc, false);
+                var itemTag = itemTags.get(label.getKey());
+                if (itemTag == null) {
+                    log.warn("{} has no item [{}] - not curating its label", aDocument,
+                            label.getKey());
+                    continue;
+                }
+
+                FSUtil.setFeature(itemTag, VALUE_FEATURE, label.getValue());
             }
 
-            documentService.setSourceDocumentState(doc, CURATION_FINISHED);
+            curationDocumentService.writeCurationCas(curationCas, aDocument, false);
+        }
+    }
+
+    /**
+     * Runs the given curation step on all the given documents and marks the project as curated
+     * once all documents have been curated. The step only writes the curation CAS of a document.
+     * The documents are marked as curated once all workers are done, so the database is not
+     * written from several threads at once.
+     */
+    private void runCuration(Project aProject, List<SourceDocument> aDocuments,
+            CurationStep aStep)
+        throws IOException, UIMAException
+    {
+        var curation = new Curation(aProject, aDocuments);
+        int workerCount = Math.min(getCurationParallelism(), aDocuments.size());
+        log.debug("Curating {} with {} workers", aProject, workerCount);
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(curator.submit(() -> curation.run(aStep)));
+        }
+
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        catch (InterruptedException e) {
+            workers.forEach(worker -> worker.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Auto-curation was interrupted");
+        }
+        catch (ExecutionException e) {
+            // Documents which fail are recorded by the curation, so this is something worse
+            workers.forEach(worker -> worker.cancel(true));
+            throw new IOException("Auto-curation failed", e.getCause());
+        }
+
+        for (SourceDocument doc : curation.curated) {
+            if (doc.getState() != CURATION_FINISHED) {
+                documentService.setSourceDocumentState(doc, CURATION_FINISHED);
+            }
+        }
+
+        Exception failure = curation.failure.get();
+        if (failure instanceof UIMAException) {
+            throw (UIMAException) failure;
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure != null) {
+            throw new IOException(failure);
         }
 
         projectService.setProjectState(aProject, ProjectState.CURATION_FINISHED);
     }
 
+    private boolean autoCurateDocument(SourceDocument aDocument,
+            TypeSystemDescription aTypeSystem, int aMinRepeats, double aConfidenceThreshold,
+            String aCuratedFingerprint)
+        throws IOException, UIMAException
+    {
+        var finishedAnnDocuments = documentService.listFinishedAnnotationDocuments(aDocument);
+        if (finishedAnnDocuments.isEmpty()) {
+            return false;
+        }
+
+        // The curation CAS is up to date if it has been created from the same annotations, e.g.
+        // by an incremental curation or a previous run before the project was reopened
+        var fingerprint = fingerprint(finishedAnnDocuments, aMinRepeats, aConfidenceThreshold);
+        if (!fingerprint.equals(aCuratedFingerprint)) {
+            mergeDocument(aDocument, finishedAnnDocuments, aTypeSystem, aMinRepeats,
+                    aConfidenceThreshold);
+            fingerprintService.updateFingerprint(aDocument, fingerprint);
+        }
+
+        return true;
+    }
+
+    /**
+     * The fingerprint of a span curation covers which annotators finished the document and when
+     * their annotations last changed.
+     */
+    private static String fingerprint(List<AnnotationDocument> aFinishedAnnDocuments,
+            int aMinRepeats, double aConfidenceThreshold)
+    {
+        return fingerprint(aFinishedAnnDocuments.stream() //
+                .map(annDoc -> annDoc.getUser() + "\t" + annDoc.getTimestamp() + "\t"
+                        + annDoc.getUpdated()),
+                aMinRepeats, aConfidenceThreshold);
+    }
+
+    private static String fingerprint(Stream<String> aInputs, int aMinRepeats,
+            double aConfidenceThreshold)
+    {
+        return sha256Hex(aMinRepeats + "\t" + aConfidenceThreshold + "\n"
+                + aInputs.sorted().collect(joining("\n")));
+    }
+
+    /**
+     * Writes the curation CAS of the given document. The state of the document is left alone, so
+     * this can be done while the project is still being annotated without affecting the state of
+     * the project. Only the spans are merged, which is all the annotators of a
+     * {@code span_select} job can create, so the votes are counted on a {@link SpanVoteIndex}
+     * instead of the generic CAS merge. The annotator CASes are read in batches and only their
+     * votes are kept, so the memory needed does not grow with the number of annotators.
+     */
+    private void mergeDocument(SourceDocument aDocument,
+            List<AnnotationDocument> aFinishedAnnDocuments, TypeSystemDescription aTypeSystem,
+            int aMinRepeats, double aConfidenceThreshold)
+        throws IOException, UIMAException
+    {
+        var votes = new SpanVoteIndex();
+        for (var batch : ListUtils.partition(aFinishedAnnDocuments,
+                hmtProperties.getCurationCasBatchSize())) {
+            try (var session = CasStorageSession.openNested()) {
+                documentService.readAllCasesSharedNoUpgrade(batch).values().forEach(votes::add);
+            }
+        }
+        var consensus = votes.vote(aMinRepeats, aConfidenceThreshold);
+
+        try (var session = CasStorageSession.openNested()) {
+            var curationCas = documentService.createOrReadInitialCas(aDocument,
+                    AUTO_CAS_UPGRADE, UNMANAGED_ACCESS, aTypeSystem);
+            consensus.writeTo(curationCas);
+
+            curationDocumentService.writeCurationCas(curationCas, aDocument, false);
+        }
+    }
+
+    private static double getConfidenceThreshold(JobManifest aJobManifest)
+    {
+        return aJobManifest.requesterAccuracyTarget().orElseThrow(
+                () -> new IllegalArgumentException("Manifest does not define a target accuracy"));
+    }
+
+    private static boolean isAutoCurated(JobManifest aJobManifest)
+    {
+        return TASK_TYPE_SPAN_SELECT.equals(aJobManifest.getRequestType())
+                && aJobManifest.requesterAccuracyTarget().isPresent();
+    }
+
+    private boolean isLabelCurated(Project aProject, JobManifest aJobManifest)
+    {
+        // Packed documents have item tags instead of a document tag
+        return TASK_TYPE_DOCUMENT_CLASSIFICATION.equals(aJobManifest.getRequestType())
+                && aJobManifest.requesterAccuracyTarget().isPresent()
+                && (annotationService.existsLayer(CUSTOM_DOCUMENT_LAYER, aProject)
+                        || annotationService.existsLayer(CUSTOM_ITEM_LAYER, aProject));
+    }
+
+    private int getCurationParallelism()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        long availableHeap = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        long budget = Math.max(1, hmtProperties.getCurationMemoryPerWorker().toBytes());
+        long affordable = Math.max(1, availableHeap / budget);
+        return (int) Math.min(affordable, hmtProperties.getCurationThreads());
+    }
+
     public void publishResults(Project aProject, JobRequest aJobRequest, JobManifest aJobManifest)
         throws ProjectExportException, IOException
     {
@@ -294,30 +754,29 @@ public class HumanProtocolServiceImpl
             return;
         }
 
-        File exportedProjectFile = null;
+        File resultsFile = null;
         String exportKey = getExportKey(aJobRequest);
 
         try {
-            ProjectExportTaskMonitor monitor = new ProjectExportTaskMonitor(aProject, null,
-                    "publish");
-            FullProjectExportRequest exportRequest = new FullProjectExportRequest(aProject,
-                    XmiFormatSupport.ID, true);
-            exportRequest.setFilenameTag("_project");
-
-            exportedProjectFile = projectExportService.exportProject(exportRequest, monitor);
+            if (hmtProperties.getResultsFormat() == PROJECT_EXPORT) {
+                resultsFile = exportProject(aProject);
+            }
+            else {
+                resultsFile = exportTaskResults(aProject);
+            }
 
             s3Client.putObject(PutObjectRequest.builder() //
                     .bucket(hmtProperties.getS3Bucket()) //
                     .key(exportKey)//
-                    .build(), RequestBody.fromFile(exportedProjectFile));
-            log.info("Published results to S3");
+                    .build(), RequestBody.fromFile(resultsFile));
+            log.info("Published results to S3 ({} bytes)", resultsFile.length());
         }
         catch (InterruptedException e) {
             log.warn("Sending results notification aborted: " + e.getMessage(), e);
             return;
         }
         finally {
-            deleteQuietly(exportedProjectFile);
+            deleteQuietly(resultsFile);
         }
 
         if (hmtProperties.getJobFlowUrl() == null) {
@@ -335,14 +794,40 @@ public class HumanProtocolServiceImpl
         resultNotification.setPayouts(getPayouts(aProject));
 
         postSignedMessageToHumanApi(JOB_RESULTS_ENDPOINT, resultNotification);
+        jobRegistry.markResultsPublished(aProject);
         log.info("Notified HUMAN Protocol Job Flow about the results");
     }
 
+    private File exportProject(Project aProject)
+        throws ProjectExportException, IOException, InterruptedException
+    {
+        ProjectExportTaskMonitor monitor = new ProjectExportTaskMonitor(aProject, null,
+                "publish");
+        FullProjectExportRequest exportRequest = new FullProjectExportRequest(aProject,
+                XmiFormatSupport.ID, true);
+        exportRequest.setFilenameTag("_project");
+
+        return projectExportService.exportProject(exportRequest, monitor);
+    }
+
+    private File exportTaskResults(Project aProject) throws IOException
+    {
+        File resultsFile = File.createTempFile("hmt-results-", ".jsonl");
+        try (OutputStream os = newOutputStream(resultsFile.toPath())) {
+            taskResultsExportService.exportTaskResults(aProject, os);
+        }
+        catch (IOException e) {
+            deleteQuietly(resultsFile);
+            throw e;
+        }
+        return resultsFile;
+    }
+
     @Override
     public void publishInviteLink(Project aProject) throws IOException
     {
-        Optional<JobRequest> optJobRequest = readJobRequest(aProject);
-        if (optJobRequest.isEmpty()) {
+        Optional<HumanProtocolJob> optJob = jobRegistry.getJob(aProject);
+        if (optJob.isEmpty()) {
             log.trace("{} is not a HMT project - not sending invite link", aProject);
             return;
         }
@@ -352,15 +837,15 @@ public class HumanProtocolServiceImpl
             return;
         }
 
-        JobRequest jobRequest = optJobRequest.get();
+        HumanProtocolJob job = optJob.get();
         ProjectInvite invite = inviteService.readProjectInvite(aProject);
         String inviteLinkUrl = inviteService.getFullInviteLinkUrl(invite);
 
         InviteLinkNotification msg = new InviteLinkNotification();
         msg.setInviteLink(inviteLinkUrl);
         msg.setExchangeId(hmtProperties.getExchangeId());
-        msg.setJobAddress(jobRequest.getJobAddress());
-        msg.setNetworkId(jobRequest.getNetworkId());
+        msg.setJobAddress(job.getJobAddress());
+        msg.setNetworkId(job.getNetworkId());
 
         postSignedMessageToHumanApi(INVITE_LINK_ENDPOINT, msg);
 
@@ -397,6 +882,145 @@ public class HumanProtocolServiceImpl
         }
     }
 
+    @Override
+    public void registerExistingJobs()
+    {
+        for (Project project : projectService.listProjects()) {
+            try {
+                if (jobRegistry.isJobProject(project)) {
+                    continue;
+                }
+
+                Optional<JobRequest> optJobRequest = readJobRequest(project);
+                if (optJobRequest.isEmpty()) {
+                    continue;
+                }
+
+                log.info("Registering job of existing {}", project);
+                JobRequest jobRequest = optJobRequest.get();
+                jobRegistry.registerJob(project, jobRequest.getNetworkId(),
+                        jobRequest.getJobAddress());
+                // How far the setup of the project got is tracked by the job intake, not by the
+                // project - a job which still needs to be resumed is updated when it is resumed
+                jobRegistry.updateState(project, COMPLETED);
+
+                Optional<byte[]> manifestBytes = readJobManifestBytes(project);
+                if (manifestBytes.isPresent()) {
+                    jobRegistry.updateManifestDigest(project, sha256Hex(manifestBytes.get()));
+                }
+            }
+            catch (Exception e) {
+                log.error("Unable to register job of {}", project, e);
+            }
+        }
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent aEvent)
+    {
+        registerExistingJobs();
+    }
+
+    @EventListener
+    public void onBeforeProjectRemoved(BeforeProjectRemovedEvent aEvent)
+    {
+        manifestCache.remove(aEvent.getProject().getId());
+        jobRequestCache.remove(aEvent.getProject().getId());
+        incrementalCurations.values()
+                .removeIf(curation -> curation.projectId == aEvent.getProject().getId());
+    }
+
+    /**
+     * Curates a document as soon as it has been finished by the minimum number of annotators, so
+     * that only the remaining documents need to be curated once the annotation phase is over. This
+     * runs after the transaction which finished the annotation document has been committed, so
+     * the curation sees the finished document.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnnotationStateChange(AnnotationStateChangeEvent aEvent)
+    {
+        if (aEvent.getNewState() != FINISHED) {
+            return;
+        }
+
+        try {
+            SourceDocument document = aEvent.getAnnotationDocument().getDocument();
+            Project project = document.getProject();
+
+            if (!jobRegistry.isJobProject(project)) {
+                return;
+            }
+
+            Optional<JobManifest> optManifest = readJobManifest(project);
+            if (optManifest.isEmpty() || !isAutoCurated(optManifest.get())) {
+                return;
+            }
+
+            JobManifest manifest = optManifest.get();
+            if (documentService.listFinishedAnnotationDocuments(document).size() < manifest
+                    .getRequesterMinRepeats()) {
+                return;
+            }
+
+            // A document which is finished by another annotator while it is being curated is
+            // curated again once the running curation is complete
+            incrementalCurations.compute(document.getId(),
+                    (id, previous) -> scheduleIncrementalCuration(document, manifest, previous));
+        }
+        catch (Exception e) {
+            log.error("Unable to schedule auto-curation", e);
+        }
+    }
+
+    private IncrementalCuration scheduleIncrementalCuration(SourceDocument aDocument,
+            JobManifest aJobManifest, IncrementalCuration aPrevious)
+    {
+        var securityContext = SecurityContextHolder.getContext();
+        var mdc = MDC.getCopyOfContextMap();
+
+        // The curation is chained to the previous one of the same document instead of waiting for
+        // it on a worker. A previous curation which failed does not hold up the next one.
+        CompletableFuture<?> predecessor = aPrevious != null
+                ? aPrevious.result.exceptionally(e -> null)
+                : CompletableFuture.completedFuture(null);
+
+        var result = predecessor.thenRunAsync(() -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                var minRepeats = aJobManifest.getRequesterMinRepeats();
+                var confidenceThreshold = getConfidenceThreshold(aJobManifest);
+                var finishedAnnDocuments = documentService
+                        .listFinishedAnnotationDocuments(aDocument);
+                var fingerprint = fingerprint(finishedAnnDocuments, minRepeats,
+                        confidenceThreshold);
+                if (fingerprintService.getFingerprint(aDocument)
+                        .filter(fingerprint::equals).isPresent()) {
+                    return;
+                }
+
+                var typeSystem = annotationService
+                        .getFullProjectTypeSystem(aDocument.getProject());
+                mergeDocument(aDocument, finishedAnnDocuments, typeSystem, minRepeats,
+                        confidenceThreshold);
+                fingerprintService.updateFingerprint(aDocument, fingerprint);
+                log.debug("Incrementally auto-curated {} from {} annotation documents",
+                        aDocument, finishedAnnDocuments.size());
+            }
+            catch (IOException | UIMAException e) {
+                throw new CompletionException(e);
+            }
+            finally {
+                SecurityContextHolder.clearContext();
+                MDC.clear();
+            }
+        }, curator);
+
+        return new IncrementalCuration(aDocument.getProject().getId(), result);
+    }
+
     @EventListener
     public void onProjectStateChange(ProjectStateChangedEvent aEvent)
     {
@@ -407,6 +1031,13 @@ public class HumanProtocolServiceImpl
         try {
             Project project = aEvent.getProject();
 
+            // Answered from the database, so projects of other kinds do not cause any file access
+            if (!jobRegistry.isJobProject(project)) {
+                log.trace("{} is not a HUMAN Protocol project - not triggering submission",
+                        project);
+                return;
+            }
+
             Optional<JobManifest> optManifest = readJobManifest(project);
             Optional<JobRequest> optJobRequest = readJobRequest(project);
 
@@ -418,10 +1049,12 @@ public class HumanProtocolServiceImpl
 
             JobManifest manifest = optManifest.get();
 
-            if (TASK_TYPE_SPAN_SELECT.equals(manifest.getRequestType())
-                    && manifest.requesterAccuracyTarget().isPresent()) {
+            if (isAutoCurated(manifest)) {
                 autoCurateDocuments(project, manifest);
             }
+            else if (isLabelCurated(project, manifest)) {
+                autoCurateDocumentLabels(project, manifest);
+            }
 
             publishResults(project, optJobRequest.get(), manifest);
         }
@@ -429,4 +1062,116 @@ public class HumanProtocolServiceImpl
             log.error("Unable to trigger submission", e);
         }
     }
+
+    /**
+     * The documents of a curation run are shared by its workers, each taking the next document
+     * once it is done with the previous one. The first failure stops all workers.
+     */
+    private class Curation
+    {
+        private static final long PROGRESS_INTERVAL = 10_000;
+
+        private final Project project;
+        private final Queue<SourceDocument> documents;
+        private final Queue<SourceDocument> curated = new ConcurrentLinkedQueue<>();
+        private final int total;
+        private final AtomicInteger done = new AtomicInteger();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private final long startTime = System.currentTimeMillis();
+        private final AtomicLong lastReport = new AtomicLong(startTime);
+        private final SecurityContext securityContext;
+        private final Map<String, String> mdc;
+
+        Curation(Project aProject, List<SourceDocument> aDocuments)
+        {
+            project = aProject;
+            documents = new ConcurrentLinkedQueue<>(aDocuments);
+            total = aDocuments.size();
+            securityContext = SecurityContextHolder.getContext();
+            mdc = MDC.getCopyOfContextMap();
+        }
+
+        void run(CurationStep aStep)
+        {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                SourceDocument doc;
+                while (failure.get() == null && (doc = documents.poll()) != null) {
+                    try {
+                        if (aStep.curate(doc)) {
+                            curated.add(doc);
+                        }
+                    }
+                    catch (Exception e) {
+                        if (failure.compareAndSet(null, e)) {
+                            log.error("Unable to auto-curate {} in {}", doc, project, e);
+                        }
+                        return;
+                    }
+                    reportProgress(done.incrementAndGet());
+                }
+            }
+            finally {
+                SecurityContextHolder.clearContext();
+                MDC.clear();
+            }
+        }
+
+        private void reportProgress(int aDone)
+        {
+            long now = System.currentTimeMillis();
+            long last = lastReport.get();
+            if (aDone < total
+                    && (now - last < PROGRESS_INTERVAL || !lastReport.compareAndSet(last, now))) {
+                return;
+            }
+
+            long elapsed = now - startTime;
+            Duration eta = Duration.ofMillis(elapsed * (total - aDone) / aDone);
+            log.info("Auto-curated {} of {} documents of {} in {}s - ETA {}s", aDone, total,
+                    project, elapsed / 1000, eta.toSeconds());
+        }
+    }
+
+    private class IncrementalCuration
+    {
+        private final long projectId;
+        private final CompletableFuture<?> result;
+
+        IncrementalCuration(long aProjectId, CompletableFuture<?> aResult)
+        {
+            projectId = aProjectId;
+            result = aResult;
+        }
+
+        /**
+         * Waits for the curation to complete. If it failed, its fingerprint has not been recorded
+         * and the document is simply curated again at the end of the annotation phase.
+         */
+        void await() throws InterruptedIOException
+        {
+            try {
+                result.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Auto-curation was interrupted");
+            }
+            catch (ExecutionException e) {
+                log.warn("Unable to auto-curate document incrementally", e.getCause());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface CurationStep
+    {
+        /**
+         * @return whether the document has been curated.
+         */
+        boolean curate(SourceDocument aDocument) throws IOException, UIMAException;
+    }
 }
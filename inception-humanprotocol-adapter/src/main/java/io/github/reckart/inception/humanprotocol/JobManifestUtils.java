@@ -16,6 +16,12 @@
  */
 package io.github.reckart.inception.humanprotocol;
 
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.VALID_URI_SCHEMES;
+import static java.lang.String.format;
+import static java.lang.String.join;
+import static java.util.Arrays.asList;
+
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -26,17 +32,58 @@ import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.file.Files;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectReader;
+
 import de.tudarmstadt.ukp.clarin.webanno.support.JSONUtil;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataReader;
 import io.github.reckart.inception.humanprotocol.model.JobManifest;
 import io.github.reckart.inception.humanprotocol.model.TaskData;
 
 public class JobManifestUtils
 {
+    // Derived from the mapper used for all other manifest parsing, so both parse alike
+    private static final ObjectReader MANIFEST_WITHOUT_TASK_DATA_READER = JSONUtil
+            .getObjectMapper().copy() //
+            .addMixIn(JobManifest.class, WithoutTaskData.class) //
+            .readerFor(JobManifest.class);
+
+    @JsonIgnoreProperties(value = "taskdata", ignoreUnknown = true)
+    private static abstract class WithoutTaskData
+    {
+        // Mix-in only
+    }
+
     public static JobManifest loadManifest(InputStream aInputStream) throws IOException
     {
         return JSONUtil.fromJsonStream(JobManifest.class, aInputStream);
     }
 
+    public static JobManifest loadManifest(byte[] aBytes) throws IOException
+    {
+        return loadManifest(new ByteArrayInputStream(aBytes));
+    }
+
+    /**
+     * Parses the manifest but skips over its inline task data without materializing it. Use
+     * {@link TaskDataReader#forManifest} to stream the task data from the same bytes.
+     */
+    public static JobManifest loadManifestWithoutTaskData(byte[] aBytes) throws IOException
+    {
+        return MANIFEST_WITHOUT_TASK_DATA_READER.readValue(aBytes);
+    }
+
+    /**
+     * Like {@link #loadManifestWithoutTaskData(byte[])} but streams the manifest from the given
+     * file.
+     */
+    public static JobManifest loadManifestWithoutTaskData(File aFile) throws IOException
+    {
+        try (InputStream is = Files.newInputStream(aFile.toPath())) {
+            return MANIFEST_WITHOUT_TASK_DATA_READER.readValue(is);
+        }
+    }
+
     public static JobManifest loadManifest(File aFile) throws IOException
     {
         try (InputStream is = Files.newInputStream(aFile.toPath())) {
@@ -49,6 +96,17 @@ public class JobManifestUtils
         return fetch(aUri, JobManifest.class);
     }
 
+    /**
+     * Reads the raw manifest from the given location. Unlike {@link #loadManifest(URI)}, this also
+     * supports {@code file:} URIs as used by manifests that were submitted directly.
+     */
+    public static byte[] readManifestBytes(URI aUri) throws IOException
+    {
+        try (InputStream is = aUri.toURL().openStream()) {
+            return is.readAllBytes();
+        }
+    }
+
     public static TaskData loadTaskData(InputStream aInputStream) throws IOException
     {
         return JSONUtil.fromJsonStream(TaskData.class, aInputStream);
@@ -66,6 +124,20 @@ public class JobManifestUtils
         return fetch(aUri, TaskData.class);
     }
 
+    public static boolean hasAcceptedUriScheme(URI aUri)
+    {
+        return asList(VALID_URI_SCHEMES).contains(aUri.getScheme());
+    }
+
+    public static void enforceAcceptedUriScheme(URI aUri) throws IOException
+    {
+        if (!hasAcceptedUriScheme(aUri)) {
+            throw new IOException(
+                    format("URI [%s] has the scheme [%s] which is not accepted. Only one of [%s] "
+                            + "are valid.", aUri, aUri.getScheme(), join(", ", VALID_URI_SCHEMES)));
+        }
+    }
+
     public static <R> R fetch(URI aUri, Class<R> aClass)  throws IOException {
         try {
             HttpClient client = HttpClient.newHttpClient();
@@ -0,0 +1,180 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol;
+
+import static com.fasterxml.jackson.databind.MapperFeature.SORT_PROPERTIES_ALPHABETICALLY;
+import static com.fasterxml.jackson.databind.SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+import static org.apache.commons.codec.digest.DigestUtils.sha256Hex;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationFeature;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.Tag;
+import de.tudarmstadt.ukp.clarin.webanno.model.TagSet;
+import de.tudarmstadt.ukp.clarin.webanno.support.JSONUtil;
+import io.github.reckart.inception.humanprotocol.model.InternationalizedStrings;
+import io.github.reckart.inception.humanprotocol.model.JobManifest;
+
+/**
+ * Project-independent annotation schema derived from a job manifest. All the interpretation of
+ * the manifest (request type, request configuration, answer set) happens when the template is
+ * built, so that instantiating it for a new project only needs to copy the prototypes. Templates
+ * are shared between all jobs whose manifests have the same {@link #fingerprint} and must not be
+ * modified once built.
+ */
+public class ProjectSchemaTemplate
+{
+    // Same settings as the application-wide mapper, but with a canonical order of map entries and
+    // properties so that equivalent manifests always produce the same fingerprint
+    private static final ObjectMapper FINGERPRINT_MAPPER = JSONUtil.getObjectMapper().copy() //
+            .configure(ORDER_MAP_ENTRIES_BY_KEYS, true) //
+            .configure(SORT_PROPERTIES_ALPHABETICALLY, true);
+
+    private final AnnotationLayer layer;
+    private final AnnotationFeature feature;
+    private final AnnotationFeature keyFeature;
+    private final List<Tag> tags;
+    private final String sidebarTab;
+
+    /**
+     * @param aLayer
+     *            prototype of the layer (not bound to a project).
+     * @param aFeature
+     *            prototype of the value feature (not bound to a project).
+     * @param aTags
+     *            prototypes of the tags in the order of their rank (not bound to a tagset).
+     * @param aSidebarTab
+     *            the sidebar tab to be opened by default (optional).
+     */
+    public ProjectSchemaTemplate(AnnotationLayer aLayer, AnnotationFeature aFeature,
+            List<Tag> aTags, String aSidebarTab)
+    {
+        this(aLayer, aFeature, null, aTags, aSidebarTab);
+    }
+
+    /**
+     * @param aLayer
+     *            prototype of the layer (not bound to a project).
+     * @param aFeature
+     *            prototype of the value feature (not bound to a project).
+     * @param aKeyFeature
+     *            prototype of a hidden feature identifying the task data item an annotation
+     *            belongs to (optional, not bound to a project).
+     * @param aTags
+     *            prototypes of the tags in the order of their rank (not bound to a tagset).
+     * @param aSidebarTab
+     *            the sidebar tab to be opened by default (optional).
+     */
+    public ProjectSchemaTemplate(AnnotationLayer aLayer, AnnotationFeature aFeature,
+            AnnotationFeature aKeyFeature, List<Tag> aTags, String aSidebarTab)
+    {
+        layer = aLayer;
+        feature = aFeature;
+        keyFeature = aKeyFeature;
+        tags = unmodifiableList(new ArrayList<>(aTags));
+        sidebarTab = aSidebarTab;
+    }
+
+    public AnnotationLayer createLayer(Project aProject)
+    {
+        AnnotationLayer result = new AnnotationLayer(layer.getName(), layer.getUiName(),
+                layer.getType(), aProject, false, layer.getAnchoringMode(),
+                layer.getOverlapMode());
+        result.setCrossSentence(layer.isCrossSentence());
+        result.setTraits(layer.getTraits());
+        return result;
+    }
+
+    public AnnotationFeature createFeature(Project aProject, AnnotationLayer aLayer,
+            Optional<TagSet> aTagset)
+    {
+        AnnotationFeature result = new AnnotationFeature(aProject, aLayer, feature.getName(),
+                feature.getUiName(), feature.getType());
+        aTagset.ifPresent(result::setTagset);
+        return result;
+    }
+
+    public Optional<AnnotationFeature> createKeyFeature(Project aProject, AnnotationLayer aLayer)
+    {
+        if (keyFeature == null) {
+            return Optional.empty();
+        }
+
+        AnnotationFeature result = new AnnotationFeature(aProject, aLayer, keyFeature.getName(),
+                keyFeature.getUiName(), keyFeature.getType());
+        result.setVisible(keyFeature.isVisible());
+        result.setReadonly(keyFeature.isReadonly());
+        return Optional.of(result);
+    }
+
+    public boolean hasTags()
+    {
+        return !tags.isEmpty();
+    }
+
+    public Tag[] createTags(TagSet aTagset)
+    {
+        Tag[] result = new Tag[tags.size()];
+        for (int i = 0; i < result.length; i++) {
+            Tag tag = tags.get(i);
+            result[i] = new Tag(aTagset, tag.getName());
+            result[i].setRank(i);
+            result[i].setDescription(tag.getDescription());
+        }
+        return result;
+    }
+
+    public Optional<String> getSidebarTab()
+    {
+        return Optional.ofNullable(sidebarTab);
+    }
+
+    /**
+     * Calculates a fingerprint over all the parts of a manifest that determine the schema. The
+     * order of the request configuration does not matter, but the order of the answer set does
+     * because it determines the order of the tags.
+     */
+    public static String fingerprint(JobManifest aManifest) throws IOException
+    {
+        List<Object> answers = new ArrayList<>();
+        if (aManifest.getRequesterRestrictedAnswerSet() != null) {
+            for (Entry<String, InternationalizedStrings> answer : aManifest
+                    .getRequesterRestrictedAnswerSet().entrySet()) {
+                answers.add(asList(answer.getKey(), answer.getValue()));
+            }
+        }
+
+        Map<String, Object> shape = new LinkedHashMap<>();
+        shape.put("request_type", aManifest.getRequestType());
+        shape.put("request_config", aManifest.getRequestConfig());
+        shape.put("answers", answers);
+
+        return sha256Hex(FINGERPRINT_MAPPER.writeValueAsBytes(shape));
+    }
+}
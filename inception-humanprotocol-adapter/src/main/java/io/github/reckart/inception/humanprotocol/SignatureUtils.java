@@ -21,6 +21,8 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import java.nio.ByteBuffer;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 import javax.crypto.Mac;
@@ -65,6 +67,29 @@ public class SignatureUtils
         return Hex.encodeHexString(mac.doFinal(aPayload));
     }
 
+    /**
+     * Requests without a body are signed over their method, path and parameters instead. Otherwise,
+     * they would all share the signature of the empty payload and a signature obtained for one of
+     * them could be used for any other. The parameters are sorted by name, so the signature does
+     * not depend on the order in which the client sends them.
+     * 
+     * @return the payload to sign for a request without a body.
+     */
+    public static String bodilessRequestPayload(String aMethod, String aPath,
+            Map<String, String[]> aParameters)
+    {
+        StringBuilder payload = new StringBuilder();
+        payload.append(aMethod).append(' ').append(aPath);
+        char separator = '?';
+        for (Map.Entry<String, String[]> param : new TreeMap<>(aParameters).entrySet()) {
+            for (String value : param.getValue()) {
+                payload.append(separator).append(param.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+        return payload.toString();
+    }
+
     public static byte[] uuidToBytes(UUID aKey)
     {
         ByteBuffer buf = ByteBuffer.wrap(new byte[16]);
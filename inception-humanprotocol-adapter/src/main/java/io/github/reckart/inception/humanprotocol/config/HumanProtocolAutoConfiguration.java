@@ -21,6 +21,8 @@ import static org.springframework.security.config.http.SessionCreationPolicy.STA
 
 import java.net.URI;
 
+import javax.persistence.EntityManager;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springdoc.core.GroupedOpenApi;
@@ -44,8 +46,9 @@ import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
 import de.tudarmstadt.ukp.clarin.webanno.api.ProjectService;
 import de.tudarmstadt.ukp.clarin.webanno.api.config.RepositoryProperties;
 import de.tudarmstadt.ukp.clarin.webanno.project.config.ProjectServiceAutoConfiguration;
+import de.tudarmstadt.ukp.clarin.webanno.project.initializers.SentenceLayerInitializer;
+import de.tudarmstadt.ukp.clarin.webanno.project.initializers.TokenLayerInitializer;
 import de.tudarmstadt.ukp.inception.curation.service.CurationDocumentService;
-import de.tudarmstadt.ukp.inception.curation.service.CurationMergeService;
 import de.tudarmstadt.ukp.inception.project.export.ProjectExportService;
 import de.tudarmstadt.ukp.inception.schema.AnnotationSchemaService;
 import de.tudarmstadt.ukp.inception.sharing.InviteService;
@@ -55,7 +58,24 @@ import io.github.reckart.inception.humanprotocol.HumanProtocolController;
 import io.github.reckart.inception.humanprotocol.HumanProtocolControllerImpl;
 import io.github.reckart.inception.humanprotocol.HumanProtocolService;
 import io.github.reckart.inception.humanprotocol.HumanProtocolServiceImpl;
+import io.github.reckart.inception.humanprotocol.curation.CurationFingerprintService;
+import io.github.reckart.inception.humanprotocol.curation.CurationFingerprintServiceImpl;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataIngestionService;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataIngestionServiceImpl;
+import io.github.reckart.inception.humanprotocol.intake.JobIntakeService;
+import io.github.reckart.inception.humanprotocol.intake.JobIntakeServiceImpl;
+import io.github.reckart.inception.humanprotocol.labels.DocumentLabelService;
+import io.github.reckart.inception.humanprotocol.labels.DocumentLabelServiceImpl;
+import io.github.reckart.inception.humanprotocol.pool.ProjectPoolService;
+import io.github.reckart.inception.humanprotocol.pool.ProjectPoolServiceImpl;
+import io.github.reckart.inception.humanprotocol.registry.JobRegistryService;
+import io.github.reckart.inception.humanprotocol.registry.JobRegistryServiceImpl;
+import io.github.reckart.inception.humanprotocol.results.TaskResultsExportService;
+import io.github.reckart.inception.humanprotocol.results.TaskResultsExportServiceImpl;
 import io.github.reckart.inception.humanprotocol.security.HumanSignatureValidationFilter;
+import io.github.reckart.inception.humanprotocol.workload.EarlyStoppingService;
+import io.github.reckart.inception.humanprotocol.workload.EarlyStoppingServiceImpl;
+import io.github.reckart.inception.humanprotocol.workload.EarlyStoppingWorkflowExtension;
 import io.swagger.v3.oas.models.info.Info;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
@@ -100,9 +120,85 @@ public class HumanProtocolAutoConfiguration
 
     @Bean
     public HumanProtocolController humanProtocolController(ApplicationContext aApplicationContext,
-            ProjectService aProjectService, HumanProtocolService aHmtService)
+            ProjectService aProjectService, HumanProtocolService aHmtService,
+            JobIntakeService aJobIntakeService, ProjectPoolService aProjectPoolService,
+            TaskDataIngestionService aIngestionService, JobRegistryService aJobRegistry,
+            HumanProtocolProperties aHmtProperties)
+    {
+        return new HumanProtocolControllerImpl(aApplicationContext, aProjectService, aHmtService,
+                aJobIntakeService, aProjectPoolService, aIngestionService, aJobRegistry,
+                aHmtProperties);
+    }
+
+    @Bean
+    public JobRegistryService jobRegistryService(EntityManager aEntityManager)
+    {
+        return new JobRegistryServiceImpl(aEntityManager);
+    }
+
+    @Bean
+    public DocumentLabelService documentLabelService(EntityManager aEntityManager,
+            DocumentService aDocumentService, AnnotationSchemaService aAnnotationService,
+            JobRegistryService aJobRegistry)
+    {
+        return new DocumentLabelServiceImpl(aEntityManager, aDocumentService, aAnnotationService,
+                aJobRegistry);
+    }
+
+    @Bean
+    public CurationFingerprintService curationFingerprintService(EntityManager aEntityManager)
+    {
+        return new CurationFingerprintServiceImpl(aEntityManager);
+    }
+
+    @Bean
+    public TaskResultsExportService taskResultsExportService(DocumentService aDocumentService,
+            ProjectService aProjectService, TaskDataIngestionService aIngestionService)
+    {
+        return new TaskResultsExportServiceImpl(aDocumentService, aProjectService,
+                aIngestionService);
+    }
+
+    @Bean
+    public EarlyStoppingService earlyStoppingService(DocumentService aDocumentService,
+            HumanProtocolService aHmtService, JobRegistryService aJobRegistry,
+            HumanProtocolProperties aHmtProperties)
+    {
+        return new EarlyStoppingServiceImpl(aDocumentService, aHmtService, aJobRegistry,
+                aHmtProperties);
+    }
+
+    @Bean
+    public EarlyStoppingWorkflowExtension earlyStoppingWorkflowExtension(
+            EarlyStoppingService aEarlyStoppingService)
+    {
+        return new EarlyStoppingWorkflowExtension(aEarlyStoppingService);
+    }
+
+    @Bean
+    public JobIntakeService jobIntakeService(RepositoryProperties aRepositoryProperties,
+            HumanProtocolProperties aHmtProperties)
+    {
+        return new JobIntakeServiceImpl(aRepositoryProperties, aHmtProperties);
+    }
+
+    @Bean
+    public ProjectPoolService projectPoolService(ProjectService aProjectService,
+            InviteService aInviteService, TokenLayerInitializer aTokenLayerInitializer,
+            SentenceLayerInitializer aSentenceLayerInitializer,
+            HumanProtocolProperties aHmtProperties)
+    {
+        return new ProjectPoolServiceImpl(aProjectService, aInviteService, aTokenLayerInitializer,
+                aSentenceLayerInitializer, aHmtProperties);
+    }
+
+    @Bean
+    public TaskDataIngestionService taskDataIngestionService(DocumentService aDocumentService,
+            AnnotationSchemaService aSchemaService, RepositoryProperties aRepositoryProperties,
+            HumanProtocolProperties aHmtProperties)
     {
-        return new HumanProtocolControllerImpl(aApplicationContext, aProjectService, aHmtService);
+        return new TaskDataIngestionServiceImpl(aDocumentService, aSchemaService,
+                aRepositoryProperties, aHmtProperties);
     }
 
     @Bean
@@ -137,13 +233,17 @@ public class HumanProtocolAutoConfiguration
     public HumanProtocolService humanProtocolService(RepositoryProperties aRepositoryProperties,
             ProjectExportService aProjectExportService, ProjectService aProjectService,
             DocumentService aDocumentService, AnnotationSchemaService aAnnotationService,
-            CurationMergeService aCurationMergeService,
             CurationDocumentService aCurationDocumentService, InviteService aInviteService,
-            HumanProtocolProperties aHmtProperties, @Autowired(required = false) S3Client aS3Client)
+            TaskDataIngestionService aIngestionService, JobRegistryService aJobRegistry,
+            DocumentLabelService aLabelService, CurationFingerprintService aFingerprintService,
+            TaskResultsExportService aTaskResultsExportService,
+            HumanProtocolProperties aHmtProperties,
+            @Autowired(required = false) S3Client aS3Client)
     {
         return new HumanProtocolServiceImpl(aProjectExportService, aInviteService, aProjectService,
-                aDocumentService, aAnnotationService, aCurationMergeService,
-                aCurationDocumentService, aS3Client, aRepositoryProperties, aHmtProperties);
+                aDocumentService, aAnnotationService, aCurationDocumentService, aIngestionService,
+                aJobRegistry, aLabelService, aFingerprintService, aTaskResultsExportService,
+                aS3Client, aRepositoryProperties, aHmtProperties);
     }
 
     @ConditionalOnMissingBean
@@ -0,0 +1,137 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.config;
+
+import static org.springframework.beans.factory.BeanFactoryUtils.beanNamesForTypeIncludingAncestors;
+
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.autoconfigure.data.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.autoconfigure.domain.EntityScanPackages;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
+
+import io.github.reckart.inception.humanprotocol.model.HumanProtocolJob;
+import liquibase.integration.spring.SpringLiquibase;
+
+/**
+ * Makes the entities of the Human Protocol adapter known to JPA and creates their tables using
+ * the changelog of the adapter. The changelog is run separately from the changelog of the host
+ * application, so the host application does not need to include it.
+ */
+@Configuration
+@AutoConfigureAfter({ DataSourceAutoConfiguration.class, LiquibaseAutoConfiguration.class })
+@Import(HumanProtocolPersistenceAutoConfiguration.EntityPackagesRegistrar.class)
+public class HumanProtocolPersistenceAutoConfiguration
+{
+    public static final String CHANGELOG = //
+            "classpath:/io/github/reckart/inception/humanprotocol/db-changelog.xml";
+
+    public static final String LIQUIBASE_BEAN = "humanProtocolLiquibase";
+
+    // This configuration must come after the LiquibaseAutoConfiguration, otherwise the
+    // SpringLiquibase bean of the host application is not created because there is already one
+    @ConditionalOnSingleCandidate(DataSource.class)
+    @ConditionalOnProperty(prefix = "spring.liquibase", name = "enabled", matchIfMissing = true)
+    @Bean(name = LIQUIBASE_BEAN)
+    public SpringLiquibase humanProtocolLiquibase(DataSource aDataSource,
+            ResourceLoader aResourceLoader)
+    {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(aDataSource);
+        liquibase.setResourceLoader(aResourceLoader);
+        liquibase.setChangeLog(CHANGELOG);
+        return liquibase;
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor humanProtocolLiquibaseDependency()
+    {
+        return new LiquibaseDependsOnPostProcessor();
+    }
+
+    /**
+     * The tables must exist before JPA starts up. The host application only does this for its own
+     * Liquibase bean and only if it has Liquibase enabled. The tables of the adapter refer to the
+     * tables of the host application, so the changelog of the adapter must run after the changelog
+     * of the host application.
+     */
+    static class LiquibaseDependsOnPostProcessor
+        extends EntityManagerFactoryDependsOnPostProcessor
+    {
+        LiquibaseDependsOnPostProcessor()
+        {
+            super(LIQUIBASE_BEAN);
+        }
+
+        @Override
+        public void postProcessBeanFactory(ConfigurableListableBeanFactory aBeanFactory)
+        {
+            // The Liquibase bean may have been disabled
+            if (!aBeanFactory.containsBeanDefinition(LIQUIBASE_BEAN)) {
+                return;
+            }
+
+            super.postProcessBeanFactory(aBeanFactory);
+
+            String[] hostLiquibaseBeans = Stream
+                    .of(beanNamesForTypeIncludingAncestors(aBeanFactory, SpringLiquibase.class,
+                            true, false)) //
+                    .filter(name -> !LIQUIBASE_BEAN.equals(name)) //
+                    .toArray(String[]::new);
+            BeanDefinition definition = aBeanFactory.getBeanDefinition(LIQUIBASE_BEAN);
+            definition.setDependsOn(
+                    ArrayUtils.addAll(definition.getDependsOn(), hostLiquibaseBeans));
+        }
+    }
+
+    static class EntityPackagesRegistrar
+        implements ImportBeanDefinitionRegistrar
+    {
+        @Override
+        public void registerBeanDefinitions(AnnotationMetadata aMetadata,
+                BeanDefinitionRegistry aRegistry)
+        {
+            String modelPackage = HumanProtocolJob.class.getPackageName();
+
+            // If the application uses @EntityScan, JPA only scans the packages listed there.
+            // Otherwise, it falls back to the auto-configuration packages.
+            if (aRegistry.containsBeanDefinition(EntityScanPackages.class.getName())) {
+                EntityScanPackages.register(aRegistry, modelPackage);
+            }
+            else {
+                AutoConfigurationPackages.register(aRegistry, modelPackage);
+            }
+        }
+    }
+}
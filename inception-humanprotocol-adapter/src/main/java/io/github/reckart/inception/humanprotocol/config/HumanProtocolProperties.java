@@ -16,6 +16,12 @@
  */
 package io.github.reckart.inception.humanprotocol.config;
 
+import java.time.Duration;
+
+import org.springframework.util.unit.DataSize;
+
+import io.github.reckart.inception.humanprotocol.model.ResultsFormat;
+
 public interface HumanProtocolProperties
 {
     String getExchangeKey();
@@ -39,4 +45,36 @@ public interface HumanProtocolProperties
     boolean isS3BucketInformationAvailable();
 
     String getInfuraId();
+
+    boolean isAsyncJobIntake();
+
+    int getJobIntakeThreads();
+
+    int getJobIntakeQueueCapacity();
+
+    int getJobResumeAttempts();
+
+    Duration getJobResumeDelay();
+
+    int getProjectPoolSize();
+
+    int getJobManifestCacheSize();
+
+    int getTaskDataDownloadThreads();
+
+    int getTaskDataConnectionsPerHost();
+
+    int getTaskDataPersistenceThreads();
+
+    int getTaskDataPersistenceQueueCapacity();
+
+    DataSize getTaskDataCacheSize();
+
+    int getCurationThreads();
+
+    DataSize getCurationMemoryPerWorker();
+
+    int getCurationCasBatchSize();
+
+    ResultsFormat getResultsFormat();
 }
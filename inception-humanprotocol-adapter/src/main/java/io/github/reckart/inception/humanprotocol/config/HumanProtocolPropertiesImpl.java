@@ -21,11 +21,17 @@ import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.U
 import static io.github.reckart.inception.humanprotocol.security.HumanSignatureValidationFilter.ANY_KEY;
 import static org.apache.commons.lang3.StringUtils.isNoneBlank;
 
+import java.time.Duration;
+
+import javax.validation.constraints.Min;
 import javax.validation.constraints.Pattern;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
+import io.github.reckart.inception.humanprotocol.model.ResultsFormat;
+
 @ConfigurationProperties("human-protocol")
 @Validated
 public class HumanProtocolPropertiesImpl
@@ -50,6 +56,49 @@ public class HumanProtocolPropertiesImpl
     @Pattern(regexp = INFURA_PATTERN, message = "Invalid Infura ID")
     private String infuraId;
 
+    private boolean asyncJobIntake = false;
+
+    @Min(1)
+    private int jobIntakeThreads = 2;
+
+    @Min(1)
+    private int jobIntakeQueueCapacity = 16;
+
+    @Min(0)
+    private int jobResumeAttempts = 3;
+
+    private Duration jobResumeDelay = Duration.ofMinutes(1);
+
+    @Min(0)
+    private int projectPoolSize = 0;
+
+    @Min(0)
+    private int jobManifestCacheSize = 1000;
+
+    @Min(1)
+    private int taskDataDownloadThreads = 8;
+
+    @Min(1)
+    private int taskDataConnectionsPerHost = 4;
+
+    @Min(1)
+    private int taskDataPersistenceThreads = 2;
+
+    @Min(1)
+    private int taskDataPersistenceQueueCapacity = 32;
+
+    private DataSize taskDataCacheSize = DataSize.ofBytes(0);
+
+    @Min(1)
+    private int curationThreads = 4;
+
+    private DataSize curationMemoryPerWorker = DataSize.ofMegabytes(512);
+
+    @Min(1)
+    private int curationCasBatchSize = 8;
+
+    private ResultsFormat resultsFormat = ResultsFormat.TASK_RESULTS;
+
     @Override
     public int getExchangeId()
     {
@@ -165,4 +214,180 @@ public class HumanProtocolPropertiesImpl
     {
         return infuraId;
     }
+
+    @Override
+    public boolean isAsyncJobIntake()
+    {
+        return asyncJobIntake;
+    }
+
+    public void setAsyncJobIntake(boolean aAsyncJobIntake)
+    {
+        asyncJobIntake = aAsyncJobIntake;
+    }
+
+    @Override
+    public int getJobIntakeThreads()
+    {
+        return jobIntakeThreads;
+    }
+
+    public void setJobIntakeThreads(int aJobIntakeThreads)
+    {
+        jobIntakeThreads = aJobIntakeThreads;
+    }
+
+    @Override
+    public int getJobIntakeQueueCapacity()
+    {
+        return jobIntakeQueueCapacity;
+    }
+
+    public void setJobIntakeQueueCapacity(int aJobIntakeQueueCapacity)
+    {
+        jobIntakeQueueCapacity = aJobIntakeQueueCapacity;
+    }
+
+    @Override
+    public int getJobResumeAttempts()
+    {
+        return jobResumeAttempts;
+    }
+
+    public void setJobResumeAttempts(int aJobResumeAttempts)
+    {
+        jobResumeAttempts = aJobResumeAttempts;
+    }
+
+    @Override
+    public Duration getJobResumeDelay()
+    {
+        return jobResumeDelay;
+    }
+
+    public void setJobResumeDelay(Duration aJobResumeDelay)
+    {
+        jobResumeDelay = aJobResumeDelay;
+    }
+
+    @Override
+    public int getProjectPoolSize()
+    {
+        return projectPoolSize;
+    }
+
+    public void setProjectPoolSize(int aProjectPoolSize)
+    {
+        projectPoolSize = aProjectPoolSize;
+    }
+
+    @Override
+    public int getJobManifestCacheSize()
+    {
+        return jobManifestCacheSize;
+    }
+
+    public void setJobManifestCacheSize(int aJobManifestCacheSize)
+    {
+        jobManifestCacheSize = aJobManifestCacheSize;
+    }
+
+    @Override
+    public int getTaskDataDownloadThreads()
+    {
+        return taskDataDownloadThreads;
+    }
+
+    public void setTaskDataDownloadThreads(int aTaskDataDownloadThreads)
+    {
+        taskDataDownloadThreads = aTaskDataDownloadThreads;
+    }
+
+    @Override
+    public int getTaskDataConnectionsPerHost()
+    {
+        return taskDataConnectionsPerHost;
+    }
+
+    public void setTaskDataConnectionsPerHost(int aTaskDataConnectionsPerHost)
+    {
+        taskDataConnectionsPerHost = aTaskDataConnectionsPerHost;
+    }
+
+    @Override
+    public int getTaskDataPersistenceThreads()
+    {
+        return taskDataPersistenceThreads;
+    }
+
+    public void setTaskDataPersistenceThreads(int aTaskDataPersistenceThreads)
+    {
+        taskDataPersistenceThreads = aTaskDataPersistenceThreads;
+    }
+
+    @Override
+    public int getTaskDataPersistenceQueueCapacity()
+    {
+        return taskDataPersistenceQueueCapacity;
+    }
+
+    public void setTaskDataPersistenceQueueCapacity(int aTaskDataPersistenceQueueCapacity)
+    {
+        taskDataPersistenceQueueCapacity = aTaskDataPersistenceQueueCapacity;
+    }
+
+    @Override
+    public DataSize getTaskDataCacheSize()
+    {
+        return taskDataCacheSize;
+    }
+
+    public void setTaskDataCacheSize(DataSize aTaskDataCacheSize)
+    {
+        taskDataCacheSize = aTaskDataCacheSize;
+    }
+
+    @Override
+    public int getCurationThreads()
+    {
+        return curationThreads;
+    }
+
+    public void setCurationThreads(int aCurationThreads)
+    {
+        curationThreads = aCurationThreads;
+    }
+
+    @Override
+    public DataSize getCurationMemoryPerWorker()
+    {
+        return curationMemoryPerWorker;
+    }
+
+    public void setCurationMemoryPerWorker(DataSize aCurationMemoryPerWorker)
+    {
+        curationMemoryPerWorker = aCurationMemoryPerWorker;
+    }
+
+    @Override
+    public int getCurationCasBatchSize()
+    {
+        return curationCasBatchSize;
+    }
+
+    public void setCurationCasBatchSize(int aCurationCasBatchSize)
+    {
+        curationCasBatchSize = aCurationCasBatchSize;
+    }
+
+    @Override
+    public ResultsFormat getResultsFormat()
+    {
+        return resultsFormat;
+    }
+
+    public void setResultsFormat(ResultsFormat aResultsFormat)
+    {
+        resultsFormat = aResultsFormat;
+    }
 }
@@ -0,0 +1,264 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.consensus;
+
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_SPAN_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.VALUE_FEATURE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.text.AnnotationFS;
+
+/**
+ * Computes the consensus of the annotators on the spans of a {@code span_select} job without going
+ * through the generic CAS merge. The spans of each annotator are packed into a sorted array of
+ * positions (begin and end in one {@code long}) and a parallel array of label IDs. The votes are
+ * then counted in a single sweep over all annotators, so the only feature structures created are
+ * the winning spans in the curation CAS.
+ * <p>
+ * A span is chosen if at least the min repeats annotators have annotated its position, its label
+ * has been chosen more often than any other label at that position and the share of annotators who
+ * chose it reaches the confidence threshold. Annotators who did not annotate the position count
+ * towards the total.
+ */
+public final class SpanVoteIndex
+{
+    private static final long[] NO_POSITIONS = {};
+    private static final int[] NO_LABELS = {};
+
+    private final Map<String, Integer> labelIds = new HashMap<>();
+    private final List<String> labels = new ArrayList<>();
+    private final List<long[]> positionsByAnnotator = new ArrayList<>();
+    private final List<int[]> labelsByAnnotator = new ArrayList<>();
+
+    /**
+     * Adds the spans of one annotator.
+     */
+    public void add(CAS aCas)
+    {
+        Type type = aCas.getTypeSystem().getType(CUSTOM_SPAN_LAYER);
+        if (type == null) {
+            positionsByAnnotator.add(NO_POSITIONS);
+            labelsByAnnotator.add(NO_LABELS);
+            return;
+        }
+
+        Feature valueFeature = type.getFeatureByBaseName(VALUE_FEATURE);
+        var index = aCas.<AnnotationFS> getAnnotationIndex(type);
+
+        long[] positions = new long[index.size()];
+        int[] labelIdsOfAnnotator = new int[index.size()];
+        int count = 0;
+        for (AnnotationFS span : index) {
+            String label = valueFeature != null ? span.getFeatureValueAsString(valueFeature) : null;
+            positions[count] = pack(span.getBegin(), span.getEnd());
+            labelIdsOfAnnotator[count] = labelId(label);
+            count++;
+        }
+
+        // The annotation index already returns the spans in the order of their positions, so
+        // this only has to order the labels of spans sharing a position
+        for (int i = 1; i < count; i++) {
+            long position = positions[i];
+            int label = labelIdsOfAnnotator[i];
+            int j = i - 1;
+            while (j >= 0 && (positions[j] > position
+                    || (positions[j] == position && labelIdsOfAnnotator[j] > label))) {
+                positions[j + 1] = positions[j];
+                labelIdsOfAnnotator[j + 1] = labelIdsOfAnnotator[j];
+                j--;
+            }
+            positions[j + 1] = position;
+            labelIdsOfAnnotator[j + 1] = label;
+        }
+
+        // An annotator votes for each label at a position only once
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (n > 0 && positions[n - 1] == positions[i]
+                    && labelIdsOfAnnotator[n - 1] == labelIdsOfAnnotator[i]) {
+                continue;
+            }
+            positions[n] = positions[i];
+            labelIdsOfAnnotator[n] = labelIdsOfAnnotator[i];
+            n++;
+        }
+
+        positionsByAnnotator.add(Arrays.copyOf(positions, n));
+        labelsByAnnotator.add(Arrays.copyOf(labelIdsOfAnnotator, n));
+    }
+
+    public int getAnnotatorCount()
+    {
+        return positionsByAnnotator.size();
+    }
+
+    public Consensus vote(int aMinRepeats, double aConfidenceThreshold)
+    {
+        int annotators = positionsByAnnotator.size();
+        int[] cursors = new int[annotators];
+        int[] votes = new int[labels.size()];
+        int[] touched = new int[labels.size()];
+
+        long[] winnerPositions = new long[16];
+        int[] winnerLabels = new int[16];
+        int winners = 0;
+
+        while (true) {
+            // The next position is the smallest one any annotator has not been swept past yet
+            long position = Long.MAX_VALUE;
+            for (int a = 0; a < annotators; a++) {
+                long[] positions = positionsByAnnotator.get(a);
+                if (cursors[a] < positions.length && positions[cursors[a]] < position) {
+                    position = positions[cursors[a]];
+                }
+            }
+
+            if (position == Long.MAX_VALUE) {
+                break;
+            }
+
+            int voters = 0;
+            int touchedCount = 0;
+            for (int a = 0; a < annotators; a++) {
+                long[] positions = positionsByAnnotator.get(a);
+                int[] labelIdsOfAnnotator = labelsByAnnotator.get(a);
+                if (cursors[a] >= positions.length || positions[cursors[a]] != position) {
+                    continue;
+                }
+
+                voters++;
+                while (cursors[a] < positions.length && positions[cursors[a]] == position) {
+                    int label = labelIdsOfAnnotator[cursors[a]];
+                    if (votes[label]++ == 0) {
+                        touched[touchedCount++] = label;
+                    }
+                    cursors[a]++;
+                }
+            }
+
+            int best = -1;
+            int bestVotes = 0;
+            int secondVotes = 0;
+            for (int t = 0; t < touchedCount; t++) {
+                int label = touched[t];
+                if (votes[label] > bestVotes) {
+                    secondVotes = bestVotes;
+                    bestVotes = votes[label];
+                    best = label;
+                }
+                else if (votes[label] > secondVotes) {
+                    secondVotes = votes[label];
+                }
+                votes[label] = 0;
+            }
+
+            if (voters >= aMinRepeats && bestVotes > secondVotes
+                    && (double) bestVotes / annotators >= aConfidenceThreshold) {
+                if (winners == winnerPositions.length) {
+                    winnerPositions = Arrays.copyOf(winnerPositions, winners * 2);
+                    winnerLabels = Arrays.copyOf(winnerLabels, winners * 2);
+                }
+                winnerPositions[winners] = position;
+                winnerLabels[winners] = best;
+                winners++;
+            }
+        }
+
+        return new Consensus(Arrays.copyOf(winnerPositions, winners),
+                Arrays.copyOf(winnerLabels, winners));
+    }
+
+    private int labelId(String aLabel)
+    {
+        return labelIds.computeIfAbsent(aLabel, label -> {
+            labels.add(label);
+            return labels.size() - 1;
+        });
+    }
+
+    /**
+     * Packs begin and end such that the positions are ordered like in the annotation index, i.e.
+     * by begin and then by descending end.
+     */
+    private static long pack(int aBegin, int aEnd)
+    {
+        return ((long) aBegin << 32) | (0xFFFFFFFFL - aEnd);
+    }
+
+    /**
+     * The winning spans, ordered by their position.
+     */
+    public final class Consensus
+    {
+        private final long[] positions;
+        private final int[] labelIdsOfWinners;
+
+        private Consensus(long[] aPositions, int[] aLabelIds)
+        {
+            positions = aPositions;
+            labelIdsOfWinners = aLabelIds;
+        }
+
+        public int size()
+        {
+            return positions.length;
+        }
+
+        public int getBegin(int aIndex)
+        {
+            return (int) (positions[aIndex] >>> 32);
+        }
+
+        public int getEnd(int aIndex)
+        {
+            return (int) (0xFFFFFFFFL - (positions[aIndex] & 0xFFFFFFFFL));
+        }
+
+        /**
+         * @return the label or {@code null} if the winning span has no label.
+         */
+        public String getLabel(int aIndex)
+        {
+            return labels.get(labelIdsOfWinners[aIndex]);
+        }
+
+        /**
+         * Adds the winning spans to the given CAS, which is usually the initial CAS of the
+         * document that becomes the curation CAS.
+         */
+        public void writeTo(CAS aCas)
+        {
+            Type type = aCas.getTypeSystem().getType(CUSTOM_SPAN_LAYER);
+            Feature valueFeature = type.getFeatureByBaseName(VALUE_FEATURE);
+            for (int i = 0; i < positions.length; i++) {
+                AnnotationFS span = aCas.createAnnotation(type, getBegin(i), getEnd(i));
+                if (getLabel(i) != null) {
+                    span.setFeatureValueFromString(valueFeature, getLabel(i));
+                }
+                aCas.addFsToIndexes(span);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.curation;
+
+import java.util.Map;
+import java.util.Optional;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+
+/**
+ * Remembers from which input the curation CAS of each document has been created. Curation compares
+ * the fingerprint of the current input with the stored one and skips documents which have not
+ * changed.
+ */
+public interface CurationFingerprintService
+{
+    Optional<String> getFingerprint(SourceDocument aDocument);
+
+    /**
+     * @return the fingerprints of all curated documents of the project by source document ID.
+     */
+    Map<Long, String> listFingerprints(Project aProject);
+
+    void updateFingerprint(SourceDocument aDocument, String aFingerprint);
+}
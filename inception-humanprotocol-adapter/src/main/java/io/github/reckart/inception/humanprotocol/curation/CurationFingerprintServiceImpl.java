@@ -0,0 +1,101 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.curation;
+
+import static java.util.stream.Collectors.toMap;
+
+import java.util.Map;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.event.BeforeProjectRemovedEvent;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
+import io.github.reckart.inception.humanprotocol.model.CurationFingerprint;
+
+/**
+ * <p>
+ * This class is exposed as a Spring Component via
+ * {@link HumanProtocolAutoConfiguration#curationFingerprintService}.
+ * </p>
+ */
+public class CurationFingerprintServiceImpl
+    implements CurationFingerprintService
+{
+    private final EntityManager entityManager;
+
+    public CurationFingerprintServiceImpl(EntityManager aEntityManager)
+    {
+        entityManager = aEntityManager;
+    }
+
+    @Override
+    @Transactional
+    public Optional<String> getFingerprint(SourceDocument aDocument)
+    {
+        return findFingerprint(aDocument).map(CurationFingerprint::getFingerprint);
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, String> listFingerprints(Project aProject)
+    {
+        String query = "FROM CurationFingerprint WHERE project = :project";
+        return entityManager.createQuery(query, CurationFingerprint.class) //
+                .setParameter("project", aProject) //
+                .getResultStream() //
+                .collect(toMap(fp -> fp.getDocument().getId(), //
+                        CurationFingerprint::getFingerprint));
+    }
+
+    @Override
+    @Transactional
+    public void updateFingerprint(SourceDocument aDocument, String aFingerprint)
+    {
+        Optional<CurationFingerprint> existing = findFingerprint(aDocument);
+        if (existing.isPresent()) {
+            existing.get().setFingerprint(aFingerprint);
+            entityManager.merge(existing.get());
+            return;
+        }
+
+        entityManager.persist(new CurationFingerprint(aDocument, aFingerprint));
+    }
+
+    private Optional<CurationFingerprint> findFingerprint(SourceDocument aDocument)
+    {
+        String query = "FROM CurationFingerprint WHERE document = :document";
+        return entityManager.createQuery(query, CurationFingerprint.class) //
+                .setParameter("document", aDocument) //
+                .getResultStream() //
+                .findFirst();
+    }
+
+    @EventListener
+    @Transactional
+    public void onBeforeProjectRemoved(BeforeProjectRemovedEvent aEvent)
+    {
+        entityManager.createQuery("DELETE FROM CurationFingerprint WHERE project = :project") //
+                .setParameter("project", aEvent.getProject()) //
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.ingest;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Comparator.comparing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.reckart.inception.humanprotocol.messages.DatapointCacheStatistics;
+
+/**
+ * Local content-addressed store of datapoints keyed by their SHA-256 hash. Only datapoints which
+ * have been verified against their hash are added to the cache. When the cache exceeds its disk
+ * budget, the least recently used datapoints are evicted. The recency of use is reflected in the
+ * modification time of the cached files so that it survives restarts.
+ */
+public class DatapointCache
+{
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Path folder;
+    private final Path tmpFolder;
+    private final LongSupplier budget;
+
+    /**
+     * Sizes of the cached datapoints by hash in order of their last use.
+     */
+    private final Map<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private long hits;
+    private long misses;
+    private long savedBytes;
+
+    /**
+     * @param aFolder
+     *            the folder to store the datapoints in.
+     * @param aBudget
+     *            the maximum size of the cache in bytes. It is consulted whenever a datapoint is
+     *            added, so changes take effect without restarting. A budget of {@code 0} disables
+     *            the cache.
+     */
+    public DatapointCache(Path aFolder, LongSupplier aBudget)
+    {
+        folder = aFolder;
+        tmpFolder = aFolder.resolve("tmp");
+        budget = aBudget;
+
+        loadIndex();
+    }
+
+    public boolean isEnabled()
+    {
+        return budget.getAsLong() > 0;
+    }
+
+    /**
+     * @return whether a datapoint with the given hash could be cached. Since hashes come from
+     *         the manifest, anything that does not look like a SHA-256 hash is not cached.
+     */
+    public boolean isCacheable(String aHash)
+    {
+        return isEnabled() && aHash != null && SHA256_HEX.matcher(aHash).matches();
+    }
+
+    /**
+     * @return a stream on the cached datapoint with the given hash if there is one.
+     */
+    public synchronized Optional<InputStream> open(String aHash) throws IOException
+    {
+        if (!isCacheable(aHash)) {
+            return Optional.empty();
+        }
+
+        Long entrySize = index.get(aHash);
+        if (entrySize == null) {
+            misses++;
+            return Optional.empty();
+        }
+
+        Path entry = getEntryFile(aHash);
+        try {
+            InputStream is = Files.newInputStream(entry);
+            entry.toFile().setLastModified(System.currentTimeMillis());
+            hits++;
+            savedBytes += entrySize;
+            return Optional.of(is);
+        }
+        catch (NoSuchFileException e) {
+            // Somebody cleaned up the cache folder behind our back
+            forget(aHash);
+            misses++;
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return a new temporary file which can be filled with a datapoint and then be handed to
+     *         {@link #put}.
+     */
+    public Path createTempFile() throws IOException
+    {
+        Files.createDirectories(tmpFolder);
+        return Files.createTempFile(tmpFolder, "datapoint", ".tmp");
+    }
+
+    /**
+     * Adds the given file as the datapoint with the given hash to the cache. The file is moved
+     * into the cache. The caller is responsible for having verified the hash.
+     */
+    public synchronized void put(String aHash, Path aFile) throws IOException
+    {
+        long entrySize = Files.size(aFile);
+        if (!isCacheable(aHash) || index.containsKey(aHash) || entrySize > budget.getAsLong()) {
+            Files.deleteIfExists(aFile);
+            return;
+        }
+
+        Path entry = getEntryFile(aHash);
+        Files.createDirectories(entry.getParent());
+        Files.move(aFile, entry, ATOMIC_MOVE, REPLACE_EXISTING);
+        index.put(aHash, entrySize);
+        size += entrySize;
+
+        evict();
+    }
+
+    /**
+     * Removes the datapoint with the given hash from the cache, e.g. because it turned out to be
+     * corrupt.
+     */
+    public synchronized void remove(String aHash)
+    {
+        if (forget(aHash)) {
+            delete(aHash);
+        }
+    }
+
+    public synchronized DatapointCacheStatistics getStatistics()
+    {
+        DatapointCacheStatistics statistics = new DatapointCacheStatistics();
+        statistics.setEntries(index.size());
+        statistics.setSize(size);
+        statistics.setBudget(budget.getAsLong());
+        statistics.setHits(hits);
+        statistics.setMisses(misses);
+        statistics.setSavedBytes(savedBytes);
+        return statistics;
+    }
+
+    private void evict()
+    {
+        long limit = budget.getAsLong();
+        Iterator<Map.Entry<String, Long>> i = index.entrySet().iterator();
+        while (size > limit && i.hasNext()) {
+            Map.Entry<String, Long> eldest = i.next();
+            i.remove();
+            size -= eldest.getValue();
+            delete(eldest.getKey());
+        }
+    }
+
+    private boolean forget(String aHash)
+    {
+        Long entrySize = index.remove(aHash);
+        if (entrySize == null) {
+            return false;
+        }
+
+        size -= entrySize;
+        return true;
+    }
+
+    private void delete(String aHash)
+    {
+        try {
+            Files.deleteIfExists(getEntryFile(aHash));
+        }
+        catch (IOException e) {
+            log.warn("Unable to delete cached datapoint [{}]", aHash, e);
+        }
+    }
+
+    private Path getEntryFile(String aHash)
+    {
+        return folder.resolve(aHash.substring(0, 2)).resolve(aHash);
+    }
+
+    private void loadIndex()
+    {
+        // Anything left in the temporary folder stems from downloads interrupted by a shutdown
+        FileUtils.deleteQuietly(tmpFolder.toFile());
+
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.walk(folder, 2)) {
+            for (File file : files //
+                    .map(Path::toFile) //
+                    .filter(File::isFile) //
+                    .filter(file -> SHA256_HEX.matcher(file.getName()).matches()) //
+                    .sorted(comparing(File::lastModified)) //
+                    .collect(Collectors.toList())) {
+                index.put(file.getName(), file.length());
+                size += file.length();
+            }
+        }
+        catch (IOException e) {
+            log.error("Unable to scan datapoint cache", e);
+        }
+
+        log.info("Datapoint cache contains {} datapoints ({} bytes)", index.size(), size);
+    }
+}
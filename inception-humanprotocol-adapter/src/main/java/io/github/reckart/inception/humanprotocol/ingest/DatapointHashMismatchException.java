@@ -0,0 +1,42 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.ingest;
+
+import static java.lang.String.format;
+
+import java.io.IOException;
+
+import io.github.reckart.inception.humanprotocol.model.TaskDataItem;
+
+/**
+ * Signals that a datapoint does not match the hash given in the task data. Fetching the datapoint
+ * again would not change that, so unlike a {@link PartialIngestionException}, this ends the
+ * ingestion for good.
+ */
+public class DatapointHashMismatchException
+    extends IOException
+{
+    private static final long serialVersionUID = -3187529040663911342L;
+
+    public DatapointHashMismatchException(TaskDataItem aItem, String aActualDatapointHash)
+    {
+        super(format(
+                "Actual data hash for task key [%s] does not "
+                        + "match expected hash. Expected: [%s] Actual: [%s]",
+                aItem.getTaskKey(), aItem.getDatapointHash(), aActualDatapointHash));
+    }
+}
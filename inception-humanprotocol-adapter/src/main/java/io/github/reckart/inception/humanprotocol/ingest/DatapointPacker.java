@@ -0,0 +1,193 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.ingest;
+
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_ITEM_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_KEY_FEATURE;
+import static org.apache.uima.fit.util.CasUtil.getType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.impl.XmiCasSerializer;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.fit.factory.CasFactory;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.metadata.TypeSystemDescription;
+import org.xml.sax.SAXException;
+
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import io.github.reckart.inception.humanprotocol.model.TaskDataItem;
+
+/**
+ * Collects small text datapoints into packs which are imported as one document each instead of
+ * one document per datapoint. Each datapoint becomes a classification unit in its pack: a
+ * sentence covering the text of the datapoint and an annotation on the item layer which carries
+ * the task key of the datapoint.
+ */
+class DatapointPacker
+{
+    static final String PACK_PREFIX = "pack-";
+
+    private final int packSize;
+    private int packCount;
+    private List<PackedDatapoint> current = new ArrayList<>();
+
+    /**
+     * @param aPackSize
+     *            the number of datapoints per pack.
+     * @param aExistingDocumentNames
+     *            the names of the documents already in the project. New packs are numbered after
+     *            the packs among these.
+     */
+    DatapointPacker(int aPackSize, Collection<String> aExistingDocumentNames)
+    {
+        packSize = aPackSize;
+        for (String name : aExistingDocumentNames) {
+            if (isPackName(name)) {
+                packCount = Math.max(packCount,
+                        Integer.parseInt(name.substring(PACK_PREFIX.length())));
+            }
+        }
+    }
+
+    static boolean isPackName(String aName)
+    {
+        return aName.startsWith(PACK_PREFIX)
+                && aName.substring(PACK_PREFIX.length()).matches("[0-9]{1,9}");
+    }
+
+    /**
+     * Adds a datapoint to the current pack.
+     * 
+     * @return the pack if it is full now.
+     */
+    Optional<Pack> add(TaskDataItem aItem, String aText)
+    {
+        current.add(new PackedDatapoint(aItem, aText));
+        if (current.size() < packSize) {
+            return Optional.empty();
+        }
+
+        return Optional.of(takeCurrent());
+    }
+
+    /**
+     * @return the pack of the datapoints which have been added since the last full pack, if any.
+     */
+    Optional<Pack> drain()
+    {
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(takeCurrent());
+    }
+
+    private Pack takeCurrent()
+    {
+        packCount++;
+        Pack pack = new Pack(String.format("%s%06d", PACK_PREFIX, packCount), current);
+        current = new ArrayList<>();
+        return pack;
+    }
+
+    static class Pack
+    {
+        private final String name;
+        private final List<PackedDatapoint> datapoints;
+
+        Pack(String aName, List<PackedDatapoint> aDatapoints)
+        {
+            name = aName;
+            datapoints = aDatapoints;
+        }
+
+        String getName()
+        {
+            return name;
+        }
+
+        List<PackedDatapoint> getDatapoints()
+        {
+            return datapoints;
+        }
+
+        /**
+         * Renders the pack as an XMI document. The datapoints are separated by an empty line.
+         */
+        byte[] toXmi(TypeSystemDescription aTypeSystem) throws IOException
+        {
+            try {
+                CAS cas = CasFactory.createCas(aTypeSystem);
+
+                StringBuilder text = new StringBuilder();
+                int[] begins = new int[datapoints.size()];
+                for (int i = 0; i < datapoints.size(); i++) {
+                    if (i > 0) {
+                        text.append("\n\n");
+                    }
+                    begins[i] = text.length();
+                    text.append(datapoints.get(i).text);
+                }
+                cas.setDocumentText(text.toString());
+
+                Type sentenceType = getType(cas, Sentence.class);
+                Type itemType = getType(cas, CUSTOM_ITEM_LAYER);
+                Feature taskKey = itemType.getFeatureByBaseName(TASK_KEY_FEATURE);
+                for (int i = 0; i < datapoints.size(); i++) {
+                    int end = begins[i] + datapoints.get(i).text.length();
+                    cas.addFsToIndexes(cas.createAnnotation(sentenceType, begins[i], end));
+                    AnnotationFS unit = cas.createAnnotation(itemType, begins[i], end);
+                    unit.setStringValue(taskKey, datapoints.get(i).item.getTaskKey());
+                    cas.addFsToIndexes(unit);
+                }
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                XmiCasSerializer.serialize(cas, out);
+                return out.toByteArray();
+            }
+            catch (ResourceInitializationException | SAXException e) {
+                throw new IOException("Unable to create document for " + name, e);
+            }
+        }
+    }
+
+    static class PackedDatapoint
+    {
+        private final TaskDataItem item;
+        private final String text;
+
+        PackedDatapoint(TaskDataItem aItem, String aText)
+        {
+            item = aItem;
+            text = aText;
+        }
+
+        TaskDataItem getItem()
+        {
+            return item;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.ingest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import io.github.reckart.inception.humanprotocol.model.TaskDataItem;
+
+/**
+ * Records which task data items have been ingested into a project. Each line of the checkpoint
+ * file holds the key of an item, the name of the document it was imported as and the hash of the
+ * datapoint. Lines are only appended once the datapoint has been verified, so anything not in the
+ * file has to be ingested (again) when the ingestion is resumed. Checkpoints written before the
+ * hash was recorded have no hash.
+ */
+class IngestionCheckpoints
+    implements Closeable
+{
+    private static final char SEPARATOR = '\t';
+
+    private final Path file;
+    private final Map<String, String> documentsByKey = new HashMap<>();
+    private final Map<String, String> hashesByKey = new HashMap<>();
+    private Writer out;
+
+    private IngestionCheckpoints(Path aFile)
+    {
+        file = aFile;
+    }
+
+    static IngestionCheckpoints open(Path aFile) throws IOException
+    {
+        IngestionCheckpoints checkpoints = new IngestionCheckpoints(aFile);
+
+        if (Files.exists(aFile)) {
+            try (BufferedReader in = Files.newBufferedReader(aFile, UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    int sep = line.indexOf(SEPARATOR);
+                    // A line without separator has been cut short by a crash
+                    if (sep > 0) {
+                        String key = line.substring(0, sep);
+                        int hashSep = line.indexOf(SEPARATOR, sep + 1);
+                        if (hashSep > 0) {
+                            checkpoints.documentsByKey.put(key,
+                                    line.substring(sep + 1, hashSep));
+                            checkpoints.hashesByKey.put(key, line.substring(hashSep + 1));
+                        }
+                        else {
+                            checkpoints.documentsByKey.put(key, line.substring(sep + 1));
+                            checkpoints.hashesByKey.remove(key);
+                        }
+                    }
+                }
+            }
+        }
+
+        return checkpoints;
+    }
+
+    /**
+     * @return the key under which the given item is checkpointed. Items should have a task key,
+     *         but if they do not, the datapoint URI is used instead.
+     */
+    static String getKey(String aTaskKey, String aDatapointUri)
+    {
+        return aTaskKey != null ? aTaskKey : aDatapointUri;
+    }
+
+    synchronized boolean contains(String aKey)
+    {
+        return documentsByKey.containsKey(aKey);
+    }
+
+    synchronized Set<String> getDocumentNames()
+    {
+        return new HashSet<>(documentsByKey.values());
+    }
+
+    /**
+     * Forgets the checkpoints of items whose document no longer exists so that they are ingested
+     * again. If such an item is recorded again, the new line supersedes the old one.
+     */
+    synchronized void retainDocuments(Set<String> aDocumentNames)
+    {
+        documentsByKey.values().retainAll(aDocumentNames);
+        hashesByKey.keySet().retainAll(documentsByKey.keySet());
+    }
+
+    /**
+     * @return the keys of the checkpointed items grouped by the name of the document they were
+     *         imported as, limited to the documents accepted by the given filter.
+     */
+    synchronized Map<String, List<String>> getKeysByDocument(Predicate<String> aDocumentFilter)
+    {
+        Map<String, List<String>> result = new HashMap<>();
+        documentsByKey.forEach((key, document) -> {
+            if (aDocumentFilter.test(document)) {
+                result.computeIfAbsent(document, d -> new ArrayList<>()).add(key);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return the checkpointed items grouped by the name of the document they were imported as.
+     *         The task key of an item is its checkpoint key.
+     */
+    synchronized Map<String, List<TaskDataItem>> getItemsByDocument()
+    {
+        Map<String, List<TaskDataItem>> result = new HashMap<>();
+        documentsByKey.forEach((key, document) -> {
+            TaskDataItem item = new TaskDataItem();
+            item.setTaskKey(key);
+            item.setDatapointHash(hashesByKey.get(key));
+            result.computeIfAbsent(document, d -> new ArrayList<>()).add(item);
+        });
+        return result;
+    }
+
+    synchronized int size()
+    {
+        return documentsByKey.size();
+    }
+
+    synchronized void record(String aKey, String aDocumentName, String aDatapointHash)
+        throws IOException
+    {
+        if (out == null) {
+            Files.createDirectories(file.getParent());
+            out = Files.newBufferedWriter(file, UTF_8, CREATE, APPEND);
+        }
+
+        out.write(aKey + SEPARATOR + aDocumentName + SEPARATOR + aDatapointHash + "\n");
+        out.flush();
+        documentsByKey.put(aKey, aDocumentName);
+        hashesByKey.put(aKey, aDatapointHash);
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.ingest;
+
+import java.io.IOException;
+
+/**
+ * Signals that a task data ingestion failed after some of the datapoints had been ingested. The
+ * ingested datapoints have been checkpointed and are kept, so the ingestion can be resumed.
+ */
+public class PartialIngestionException
+    extends IOException
+{
+    private static final long serialVersionUID = 2973407810373561522L;
+
+    private final int ingested;
+
+    public PartialIngestionException(int aIngested, Throwable aCause)
+    {
+        super("Task data ingestion stopped after " + aIngested + " datapoints: "
+                + (aCause.getMessage() != null ? aCause.getMessage() : aCause.toString()), aCause);
+        ingested = aIngested;
+    }
+
+    /**
+     * @return the number of datapoints which have been ingested so far, including those from
+     *         earlier attempts.
+     */
+    public int getIngested()
+    {
+        return ingested;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.ingest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.StringUtils.endsWithAny;
+import static org.apache.commons.lang3.StringUtils.removeStart;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.io.input.CloseShieldInputStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import de.tudarmstadt.ukp.clarin.webanno.support.JSONUtil;
+import io.github.reckart.inception.humanprotocol.model.TaskDataItem;
+
+/**
+ * A single file which bundles the task data of a job together with the datapoints themselves. A
+ * bundle is read sequentially in one go, so ingesting it takes a single request instead of one
+ * request per datapoint. Three kinds of bundles are supported, detected by the extension of the
+ * {@code taskdata_uri}:
+ * <ul>
+ * <li><b>JSONL</b> ({@code .jsonl}, {@code .ndjson}) - one task data item per line with the
+ * datapoint text in an additional {@code datapoint} field.</li>
+ * <li><b>ZIP</b> ({@code .zip}) and <b>TAR</b> ({@code .tar.gz}, {@code .tgz}) - the first entry
+ * is a {@code taskdata.json} holding the task data items. The {@code datapoint_uri} of each item is
+ * the path of the entry in the archive holding the datapoint.</li>
+ * </ul>
+ * The datapoints are verified against their {@code datapoint_hash} while they are ingested, just
+ * like datapoints which are downloaded individually.
+ */
+public abstract class TaskDataBundle
+    implements Closeable
+{
+    public static final String TASK_DATA_ENTRY = "taskdata.json";
+
+    private static final ObjectMapper MAPPER = JSONUtil.getObjectMapper();
+
+    /**
+     * @return whether the given task data location refers to a bundle instead of plain task
+     *         data.
+     */
+    public static boolean isBundle(URI aUri)
+    {
+        return getKind(aUri) != null;
+    }
+
+    /**
+     * Opens the bundle at the given location.
+     */
+    public static TaskDataBundle open(URI aUri) throws IOException
+    {
+        String kind = getKind(aUri);
+        if (kind == null) {
+            throw new IOException("Task data at [" + aUri + "] is not a bundle");
+        }
+
+        InputStream is;
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            HttpRequest request = HttpRequest.newBuilder().uri(aUri).build();
+            is = client.send(request, BodyHandlers.ofInputStream()).body();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching task data from [" + aUri + "]", e);
+        }
+
+        try {
+            switch (kind) {
+            case "jsonl":
+                return forJsonLines(is);
+            case "zip":
+                return forArchive(new ZipArchiveInputStream(is));
+            default:
+                return forArchive(new TarArchiveInputStream(new GZIPInputStream(is)));
+            }
+        }
+        catch (IOException e) {
+            is.close();
+            throw e;
+        }
+    }
+
+    private static String getKind(URI aUri)
+    {
+        String path = aUri.getPath();
+        if (path == null) {
+            return null;
+        }
+
+        path = path.toLowerCase(Locale.ROOT);
+        if (endsWithAny(path, ".jsonl", ".ndjson")) {
+            return "jsonl";
+        }
+        if (path.endsWith(".zip")) {
+            return "zip";
+        }
+        if (endsWithAny(path, ".tar.gz", ".tgz")) {
+            return "tar";
+        }
+        return null;
+    }
+
+    /**
+     * Reads a JSONL bundle from the given stream. The stream is closed when the bundle is closed.
+     */
+    public static TaskDataBundle forJsonLines(InputStream aInputStream) throws IOException
+    {
+        return new JsonLinesBundle(MAPPER.readerFor(ObjectNode.class).readValues(aInputStream));
+    }
+
+    /**
+     * Reads an archive bundle from the given stream. The stream is closed when the bundle is
+     * closed.
+     */
+    public static TaskDataBundle forArchive(ArchiveInputStream aArchive) throws IOException
+    {
+        try {
+            ArchiveEntry entry = nextFile(aArchive);
+            if (entry == null || !TASK_DATA_ENTRY.equals(normalize(entry.getName()))) {
+                throw new IOException("First entry of the task data bundle must be ["
+                        + TASK_DATA_ENTRY + "]");
+            }
+
+            Map<String, TaskDataItem> items = new HashMap<>();
+            try (TaskDataReader reader = TaskDataReader
+                    .forTaskData(CloseShieldInputStream.wrap(aArchive))) {
+                while (reader.hasNext()) {
+                    TaskDataItem item = reader.next();
+                    if (items.put(normalize(item.getDatapointUri()), item) != null) {
+                        throw new IOException("Duplicate datapoint [" + item.getDatapointUri()
+                                + "] in task data bundle");
+                    }
+                }
+            }
+
+            return new ArchiveBundle(aArchive, items);
+        }
+        catch (IOException e) {
+            aArchive.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of datapoints in the bundle or {@code -1} if this is not known before the
+     *         bundle has been read completely.
+     */
+    public abstract int size();
+
+    /**
+     * Advances to the next datapoint in the bundle. The content of the previous datapoint can no
+     * longer be read afterwards.
+     * 
+     * @return the next datapoint or {@code null} if the bundle has been read completely.
+     * @throws IOException
+     *             if the bundle cannot be read or if datapoints listed in the task data are
+     *             missing from the bundle.
+     */
+    public abstract BundledDatapoint next() throws IOException;
+
+    private static ArchiveEntry nextFile(ArchiveInputStream aArchive) throws IOException
+    {
+        ArchiveEntry entry;
+        do {
+            entry = aArchive.getNextEntry();
+        }
+        while (entry != null && entry.isDirectory());
+        return entry;
+    }
+
+    private static String normalize(String aPath)
+    {
+        return aPath != null ? removeStart(aPath, "./") : null;
+    }
+
+    public static class BundledDatapoint
+    {
+        private final TaskDataItem item;
+        private final InputStream content;
+
+        BundledDatapoint(TaskDataItem aItem, InputStream aContent)
+        {
+            item = aItem;
+            content = aContent;
+        }
+
+        public TaskDataItem getItem()
+        {
+            return item;
+        }
+
+        /**
+         * @return the content of the datapoint. The stream must not be closed.
+         */
+        public InputStream getContent()
+        {
+            return content;
+        }
+    }
+
+    private static class JsonLinesBundle
+        extends TaskDataBundle
+    {
+        private final MappingIterator<ObjectNode> lines;
+
+        JsonLinesBundle(MappingIterator<ObjectNode> aLines)
+        {
+            lines = aLines;
+        }
+
+        @Override
+        public int size()
+        {
+            return -1;
+        }
+
+        @Override
+        public BundledDatapoint next() throws IOException
+        {
+            if (!lines.hasNextValue()) {
+                return null;
+            }
+
+            ObjectNode line = lines.nextValue();
+            JsonNode datapoint = line.remove("datapoint");
+            TaskDataItem item = MAPPER.treeToValue(line, TaskDataItem.class);
+            if (datapoint == null || !datapoint.isTextual()) {
+                throw new IOException("Task data item [" + item.getTaskKey()
+                        + "] in bundle has no datapoint text");
+            }
+
+            return new BundledDatapoint(item,
+                    new ByteArrayInputStream(datapoint.textValue().getBytes(UTF_8)));
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            lines.close();
+        }
+    }
+
+    private static class ArchiveBundle
+        extends TaskDataBundle
+    {
+        private final ArchiveInputStream archive;
+        private final Map<String, TaskDataItem> pending;
+        private final int size;
+
+        ArchiveBundle(ArchiveInputStream aArchive, Map<String, TaskDataItem> aItems)
+        {
+            archive = aArchive;
+            pending = aItems;
+            size = aItems.size();
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        @Override
+        public BundledDatapoint next() throws IOException
+        {
+            ArchiveEntry entry;
+            while ((entry = nextFile(archive)) != null) {
+                // Entries not listed in the task data are not part of the job
+                TaskDataItem item = pending.remove(normalize(entry.getName()));
+                if (item != null) {
+                    return new BundledDatapoint(item, CloseShieldInputStream.wrap(archive));
+                }
+            }
+
+            if (!pending.isEmpty()) {
+                throw new IOException(pending.size() + " datapoints are missing from the task "
+                        + "data bundle, e.g. [" + pending.keySet().iterator().next() + "]");
+            }
+
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            archive.close();
+        }
+    }
+}
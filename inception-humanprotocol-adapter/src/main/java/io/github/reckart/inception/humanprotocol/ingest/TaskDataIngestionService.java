@@ -0,0 +1,118 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.ingest;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import io.github.reckart.inception.humanprotocol.intake.JobMonitor;
+import io.github.reckart.inception.humanprotocol.messages.DatapointCacheStatistics;
+import io.github.reckart.inception.humanprotocol.model.TaskDataItem;
+
+/**
+ * Fetches the datapoints referenced by the task data of a job and imports them as source documents
+ * into the job project. Datapoints are downloaded concurrently while the import into the project
+ * happens in a separate, bounded stage.
+ */
+public interface TaskDataIngestionService
+{
+    /**
+     * Imports the datapoints of the given task data items into the project. Every datapoint that
+     * has been imported and verified is checkpointed. If the items cannot be read or if any
+     * datapoint cannot be fetched or cannot be imported, the remaining work is cancelled and a
+     * {@link PartialIngestionException} is thrown. The documents imported so far remain in the
+     * project. Calling this method again with the same items resumes the ingestion: checkpointed
+     * items are skipped and documents of items that were not checkpointed are removed before
+     * ingestion starts. A datapoint which does not match its hash is not checkpointed and causes
+     * a {@link DatapointHashMismatchException} instead, since resuming would not help.
+     * 
+     * @param aProject
+     *            the project to import the datapoints into.
+     * @param aItems
+     *            the task data items. These are consumed lazily, so ingestion can start before
+     *            all items have been read.
+     * @param aFormat
+     *            the format of the datapoints.
+     * @param aPackSize
+     *            the number of datapoints to pack into a single document or {@code 0} to import
+     *            every datapoint as a document of its own. Packed datapoints must be plain text.
+     * @param aMonitor
+     *            a monitor which is notified about every imported datapoint.
+     * @throws PartialIngestionException
+     *             if any of the datapoints could not be ingested.
+     * @throws DatapointHashMismatchException
+     *             if any of the datapoints does not match its hash.
+     * @throws IOException
+     *             if the checkpoints could not be accessed.
+     */
+    void ingest(Project aProject, Iterator<TaskDataItem> aItems, String aFormat, int aPackSize,
+            JobMonitor aMonitor)
+        throws IOException;
+
+    /**
+     * Imports the datapoints contained in the given bundle into the project. The datapoints are
+     * verified, checkpointed and resumed in the same way as by
+     * {@link #ingest(Project, Iterator, String, int, JobMonitor)}.
+     * 
+     * @param aProject
+     *            the project to import the datapoints into.
+     * @param aBundle
+     *            the bundle containing the task data items and the datapoints.
+     * @param aFormat
+     *            the format of the datapoints.
+     * @param aPackSize
+     *            the number of datapoints to pack into a single document or {@code 0} to import
+     *            every datapoint as a document of its own. Packed datapoints must be plain text.
+     * @param aMonitor
+     *            a monitor which is notified about every imported datapoint.
+     * @throws PartialIngestionException
+     *             if any of the datapoints could not be ingested.
+     * @throws DatapointHashMismatchException
+     *             if any of the datapoints does not match its hash.
+     * @throws IOException
+     *             if the checkpoints could not be accessed.
+     */
+    void ingest(Project aProject, TaskDataBundle aBundle, String aFormat, int aPackSize,
+            JobMonitor aMonitor)
+        throws IOException;
+
+    /**
+     * @param aProject
+     *            the project.
+     * @return the task keys of the packed datapoints grouped by the name of the document they
+     *         were packed into.
+     * @throws IOException
+     *             if the checkpoints could not be accessed.
+     */
+    Map<String, List<String>> getPackedTaskKeys(Project aProject) throws IOException;
+
+    /**
+     * @param aProject
+     *            the project.
+     * @return the ingested task data items grouped by the name of the document they were imported
+     *         as. Only the task key and the datapoint hash of the items are known. Items which
+     *         were ingested by an older version do not have a datapoint hash.
+     * @throws IOException
+     *             if the checkpoints could not be accessed.
+     */
+    Map<String, List<TaskDataItem>> getTaskDataItems(Project aProject) throws IOException;
+
+    DatapointCacheStatistics getCacheStatistics();
+}
@@ -0,0 +1,770 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.ingest;
+
+import static io.github.reckart.inception.humanprotocol.JobManifestUtils.enforceAcceptedUriScheme;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.synchronizedMap;
+import static org.apache.commons.codec.binary.Hex.encodeHexString;
+import static org.apache.commons.codec.digest.DigestUtils.getSha256Digest;
+import static org.apache.commons.codec.digest.DigestUtils.sha256Hex;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.metadata.TypeSystemDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
+import de.tudarmstadt.ukp.clarin.webanno.api.config.RepositoryProperties;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import de.tudarmstadt.ukp.clarin.webanno.xmi.XmiFormatSupport;
+import de.tudarmstadt.ukp.inception.annotation.storage.CasStorageSession;
+import de.tudarmstadt.ukp.inception.schema.AnnotationSchemaService;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolProperties;
+import io.github.reckart.inception.humanprotocol.ingest.DatapointPacker.Pack;
+import io.github.reckart.inception.humanprotocol.ingest.DatapointPacker.PackedDatapoint;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataBundle.BundledDatapoint;
+import io.github.reckart.inception.humanprotocol.intake.JobMonitor;
+import io.github.reckart.inception.humanprotocol.messages.DatapointCacheStatistics;
+import io.github.reckart.inception.humanprotocol.model.TaskDataItem;
+
+/**
+ * <p>
+ * Datapoints are fetched by a pool of download threads. The number of concurrent downloads from the
+ * same host is additionally limited across all jobs. Each datapoint is streamed from the response
+ * straight into the project without being buffered in memory or on disk first. The number of
+ * datapoints being imported at the same time is limited separately from the downloads, and the
+ * number of datapoints a single ingestion may have queued is bounded as well.
+ * </p>
+ * <p>
+ * Every datapoint which has been ingested and verified is recorded in a per-project checkpoint
+ * file. Datapoints recorded there are skipped, so a failed ingestion can be resumed by ingesting
+ * the same task data again.
+ * </p>
+ * <p>
+ * Datapoints from a {@link TaskDataBundle} are read from the bundle one after the other instead.
+ * </p>
+ * <p>
+ * Datapoints are looked up in the {@link DatapointCache} by their hash before they are downloaded.
+ * Downloaded datapoints are added to the cache once they have been verified.
+ * </p>
+ * <p>
+ * This class is exposed as a Spring Component via
+ * {@link HumanProtocolAutoConfiguration#taskDataIngestionService}.
+ * </p>
+ */
+public class TaskDataIngestionServiceImpl
+    implements TaskDataIngestionService, DisposableBean
+{
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final DocumentService documentService;
+    private final AnnotationSchemaService schemaService;
+    private final RepositoryProperties repositoryProperties;
+    private final HumanProtocolProperties hmtProperties;
+
+    private final HttpClient client;
+    private final ExecutorService downloader;
+    private final Semaphore importPermits;
+    private final ConcurrentMap<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final DatapointCache cache;
+
+    public TaskDataIngestionServiceImpl(DocumentService aDocumentService,
+            AnnotationSchemaService aSchemaService, RepositoryProperties aRepositoryProperties,
+            HumanProtocolProperties aHmtProperties)
+    {
+        documentService = aDocumentService;
+        schemaService = aSchemaService;
+        repositoryProperties = aRepositoryProperties;
+        hmtProperties = aHmtProperties;
+
+        cache = new DatapointCache(aRepositoryProperties.getPath().toPath().resolve("hmt")
+                .resolve("datapoint-cache"), () -> aHmtProperties.getTaskDataCacheSize().toBytes());
+
+        client = HttpClient.newHttpClient();
+        downloader = Executors.newFixedThreadPool(aHmtProperties.getTaskDataDownloadThreads(),
+                new CustomizableThreadFactory("hmt-task-data-download-"));
+        importPermits = new Semaphore(aHmtProperties.getTaskDataPersistenceThreads());
+    }
+
+    @Override
+    public void destroy()
+    {
+        downloader.shutdownNow();
+    }
+
+    @Override
+    public DatapointCacheStatistics getCacheStatistics()
+    {
+        return cache.getStatistics();
+    }
+
+    @Override
+    public void ingest(Project aProject, Iterator<TaskDataItem> aItems, String aFormat,
+            int aPackSize, JobMonitor aMonitor)
+        throws IOException
+    {
+        try (IngestionCheckpoints checkpoints = IngestionCheckpoints
+                .open(getCheckpointFile(aProject))) {
+            reconcile(aProject, checkpoints);
+
+            int window = hmtProperties.getTaskDataDownloadThreads()
+                    + hmtProperties.getTaskDataPersistenceQueueCapacity();
+            Ingestion ingestion = new Ingestion(aProject, aFormat, aMonitor, checkpoints,
+                    createPacker(aPackSize, checkpoints), window);
+
+            try {
+                while (!ingestion.isFailed()) {
+                    TaskDataItem item;
+                    try {
+                        if (!aItems.hasNext()) {
+                            break;
+                        }
+                        item = aItems.next();
+                    }
+                    catch (UncheckedIOException e) {
+                        // Reading the task data failed - we still need to wait for the items that
+                        // are already in flight
+                        ingestion.fail(null, e.getCause());
+                        break;
+                    }
+
+                    if (checkpoints.contains(getCheckpointKey(item))) {
+                        // Ingested by an earlier attempt
+                        aMonitor.incrementProgress();
+                        continue;
+                    }
+
+                    ingestion.slots.acquire();
+                    if (ingestion.isFailed()) {
+                        ingestion.slots.release();
+                        break;
+                    }
+
+                    ingestion.expect(item);
+                    downloader.execute(() -> download(ingestion, item));
+
+                    try {
+                        packInOrder(ingestion, window);
+                    }
+                    catch (IOException e) {
+                        ingestion.fail(null, e);
+                        break;
+                    }
+                }
+
+                // Every datapoint returns its slot once it has been imported or has been given up
+                // on, so once we got all slots back, all work has been completed
+                ingestion.slots.acquire(window);
+
+                if (!ingestion.isFailed()) {
+                    try {
+                        packInOrder(ingestion, 0);
+                    }
+                    catch (IOException e) {
+                        ingestion.fail(null, e);
+                    }
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                ingestion.cancel();
+                // The checkpoints written so far remain valid, so the ingestion can be resumed
+                throw new InterruptedIOException("Task data ingestion was interrupted");
+            }
+
+            if (ingestion.isFailed()) {
+                Throwable failure = ingestion.failure.get();
+                if (failure instanceof DatapointHashMismatchException) {
+                    // Resuming would only run into the same datapoint again
+                    throw (DatapointHashMismatchException) failure;
+                }
+                throw new PartialIngestionException(checkpoints.size(), failure);
+            }
+
+            if (ingestion.packer != null) {
+                try {
+                    drainPacker(ingestion);
+                }
+                catch (IOException e) {
+                    throw new PartialIngestionException(checkpoints.size(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void ingest(Project aProject, TaskDataBundle aBundle, String aFormat, int aPackSize,
+            JobMonitor aMonitor)
+        throws IOException
+    {
+        try (IngestionCheckpoints checkpoints = IngestionCheckpoints
+                .open(getCheckpointFile(aProject))) {
+            reconcile(aProject, checkpoints);
+
+            aMonitor.setProgressMax(aBundle.size());
+
+            // The datapoints come in one sequential stream, so there is nothing to parallelize
+            try {
+                Ingestion ingestion = new Ingestion(aProject, aFormat, aMonitor, checkpoints,
+                        createPacker(aPackSize, checkpoints), 1);
+                BundledDatapoint datapoint;
+                while ((datapoint = aBundle.next()) != null) {
+                    TaskDataItem item = datapoint.getItem();
+                    if (!checkpoints.contains(getCheckpointKey(item))) {
+                        String documentName = FilenameUtils.getName(
+                                item.getDatapointUri() != null ? item.getDatapointUri()
+                                        : item.getTaskKey());
+                        ingestion.expect(item);
+                        String actualDatapointHash = receiveDatapoint(ingestion, item,
+                                documentName, datapoint.getContent());
+                        if (!actualDatapointHash.equals(item.getDatapointHash())) {
+                            throw new DatapointHashMismatchException(item, actualDatapointHash);
+                        }
+                        packInOrder(ingestion, 0);
+                    }
+                    aMonitor.incrementProgress();
+                }
+
+                if (ingestion.packer != null) {
+                    drainPacker(ingestion);
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Task data ingestion was interrupted");
+            }
+            catch (DatapointHashMismatchException e) {
+                throw e;
+            }
+            catch (IOException e) {
+                throw new PartialIngestionException(checkpoints.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Documents which are not covered by a checkpoint were being imported when an earlier attempt
+     * was interrupted. They may be incomplete and would clash with the documents imported when the
+     * ingestion is resumed, so they are removed. Conversely, checkpoints of documents which no
+     * longer exist are dropped so that these items are ingested again.
+     */
+    private void reconcile(Project aProject, IngestionCheckpoints aCheckpoints)
+        throws IOException
+    {
+        Set<String> checkpointed = aCheckpoints.getDocumentNames();
+        Set<String> existing = new HashSet<>();
+        for (SourceDocument doc : documentService.listSourceDocuments(aProject)) {
+            if (checkpointed.contains(doc.getName())) {
+                existing.add(doc.getName());
+            }
+            else {
+                log.info("Removing document {} left over by an interrupted ingestion", doc);
+                documentService.removeSourceDocument(doc);
+            }
+        }
+
+        aCheckpoints.retainDocuments(existing);
+    }
+
+    private void download(Ingestion aIngestion, TaskDataItem aItem)
+    {
+        aIngestion.enter();
+        try (CasStorageSession session = CasStorageSession.open()) {
+            if (aIngestion.isFailed()) {
+                return;
+            }
+
+            URI datapointUri = URI.create(aItem.getDatapointUri());
+            enforceAcceptedUriScheme(datapointUri);
+
+            String documentName = FilenameUtils.getName(datapointUri.getPath());
+            if (!importFromCache(aIngestion, aItem, documentName)) {
+                importFromNetwork(aIngestion, aItem, datapointUri, documentName);
+            }
+
+            aIngestion.monitor.incrementProgress();
+        }
+        catch (Exception e) {
+            aIngestion.fail(aItem, e);
+        }
+        finally {
+            aIngestion.abandon(aItem);
+            aIngestion.slots.release();
+            aIngestion.leave();
+        }
+    }
+
+    private boolean importFromCache(Ingestion aIngestion, TaskDataItem aItem,
+            String aDocumentName)
+        throws IOException, InterruptedException
+    {
+        Optional<InputStream> cached = cache.open(aItem.getDatapointHash());
+        if (cached.isEmpty()) {
+            return false;
+        }
+
+        String actualDatapointHash;
+        try (InputStream is = cached.get()) {
+            actualDatapointHash = receiveDatapoint(aIngestion, aItem, aDocumentName, is);
+        }
+
+        if (actualDatapointHash.equals(aItem.getDatapointHash())) {
+            return true;
+        }
+
+        log.warn("Cached datapoint for task key [{}] does not match its hash - fetching it again",
+                aItem.getTaskKey());
+        cache.remove(aItem.getDatapointHash());
+        return false;
+    }
+
+    private void importFromNetwork(Ingestion aIngestion, TaskDataItem aItem, URI aDatapointUri,
+            String aDocumentName)
+        throws IOException, InterruptedException
+    {
+        Semaphore hostPermit = hostPermits.computeIfAbsent(aDatapointUri.getAuthority(),
+                host -> new Semaphore(hmtProperties.getTaskDataConnectionsPerHost()));
+        hostPermit.acquire();
+        Path cacheFile = null;
+        try {
+            if (aIngestion.isFailed()) {
+                return;
+            }
+
+            HttpRequest request = HttpRequest.newBuilder().uri(aDatapointUri).build();
+            HttpResponse<InputStream> response = client.send(request,
+                    BodyHandlers.ofInputStream());
+
+            // An error page must not end up in the project, even if only until its hash has
+            // been checked
+            if (response.statusCode() / 100 != 2) {
+                response.body().close();
+                throw new IOException(format(
+                        "Unable to fetch datapoint for task key [%s] from [%s]: HTTP %d",
+                        aItem.getTaskKey(), aDatapointUri, response.statusCode()));
+            }
+
+            // While the datapoint is imported, a copy is written for the cache
+            InputStream body = response.body();
+            if (cache.isCacheable(aItem.getDatapointHash())) {
+                cacheFile = cache.createTempFile();
+                body = new TeeInputStream(body, Files.newOutputStream(cacheFile), true);
+            }
+
+            String actualDatapointHash;
+            try (InputStream is = body) {
+                actualDatapointHash = receiveDatapoint(aIngestion, aItem, aDocumentName, is);
+            }
+
+            if (!actualDatapointHash.equals(aItem.getDatapointHash())) {
+                throw new DatapointHashMismatchException(aItem, actualDatapointHash);
+            }
+
+            if (cacheFile != null) {
+                try {
+                    cache.put(aItem.getDatapointHash(), cacheFile);
+                }
+                catch (IOException e) {
+                    log.warn("Unable to cache datapoint for task key [{}]", aItem.getTaskKey(),
+                            e);
+                }
+            }
+        }
+        finally {
+            hostPermit.release();
+            if (cacheFile != null) {
+                Files.deleteIfExists(cacheFile);
+            }
+        }
+    }
+
+    /**
+     * Streams the datapoint into the project while computing its hash. The hash can only be
+     * verified once the datapoint has been read completely, so a document which turns out not to
+     * match its hash is removed again - as is a document which could not be imported completely.
+     * 
+     * @return the actual hash of the datapoint.
+     */
+    private String importDatapoint(Project aProject, String aFormat, TaskDataItem aItem,
+            String aDocumentName, InputStream aBody)
+        throws IOException, InterruptedException
+    {
+        importPermits.acquire();
+        try {
+            SourceDocument sourceDocument = new SourceDocument(aDocumentName, aProject,
+                    aFormat);
+            documentService.createSourceDocument(sourceDocument);
+
+            boolean keep = false;
+            try {
+                DigestInputStream digestStream = new DigestInputStream(aBody,
+                        getSha256Digest());
+                // The upload may close the stream before it is exhausted, but we need the rest of
+                // it to compute the hash
+                documentService.uploadSourceDocument(CloseShieldInputStream.wrap(digestStream),
+                        sourceDocument);
+                IOUtils.consume(digestStream);
+
+                String actualDatapointHash = encodeHexString(
+                        digestStream.getMessageDigest().digest());
+                keep = actualDatapointHash.equals(aItem.getDatapointHash());
+                return actualDatapointHash;
+            }
+            finally {
+                if (!keep) {
+                    removeQuietly(sourceDocument);
+                }
+            }
+        }
+        finally {
+            importPermits.release();
+        }
+    }
+
+    /**
+     * Imports the datapoint as its own document or hands it over to {@link #packInOrder} if
+     * datapoints are packed. The datapoint is checkpointed once it is part of a document.
+     * 
+     * @return the actual hash of the datapoint.
+     */
+    private String receiveDatapoint(Ingestion aIngestion, TaskDataItem aItem,
+            String aDocumentName, InputStream aBody)
+        throws IOException, InterruptedException
+    {
+        if (aIngestion.packer == null) {
+            String actualDatapointHash = importDatapoint(aIngestion.project, aIngestion.format,
+                    aItem, aDocumentName, aBody);
+            if (actualDatapointHash.equals(aItem.getDatapointHash())) {
+                aIngestion.checkpoints.record(getCheckpointKey(aItem), aDocumentName,
+                        actualDatapointHash);
+            }
+            return actualDatapointHash;
+        }
+
+        // Packed datapoints are small, so they can be held in memory until the pack is full
+        byte[] data = aBody.readAllBytes();
+        String actualDatapointHash = sha256Hex(data);
+        if (actualDatapointHash.equals(aItem.getDatapointHash())) {
+            aIngestion.packTexts.get(aItem).complete(new String(data, UTF_8));
+        }
+        return actualDatapointHash;
+    }
+
+    /**
+     * Adds the datapoints which have been received to the packer in the order in which they appear
+     * in the task data. This way, the packs do not depend on the order in which the downloads
+     * complete, and a resumed ingestion builds the same packs from the datapoints that were not
+     * checkpointed yet. While more than the given number of datapoints are pending, this waits for
+     * the oldest of them. Packing stops at the first datapoint which could not be received - the
+     * ingestion has failed in that case.
+     */
+    private void packInOrder(Ingestion aIngestion, int aMaxPending)
+        throws IOException, InterruptedException
+    {
+        if (aIngestion.packer == null) {
+            return;
+        }
+
+        while (!aIngestion.packOrder.isEmpty()) {
+            TaskDataItem item = aIngestion.packOrder.peek();
+            CompletableFuture<String> future = aIngestion.packTexts.get(item);
+            if (!future.isDone() && aIngestion.packOrder.size() <= aMaxPending) {
+                return;
+            }
+
+            String text;
+            try {
+                text = future.get();
+            }
+            catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+
+            if (text == null) {
+                return;
+            }
+
+            aIngestion.packOrder.remove();
+            aIngestion.packTexts.remove(item);
+            Optional<Pack> pack = aIngestion.packer.add(item, text);
+            if (pack.isPresent()) {
+                importPack(aIngestion, pack.get());
+            }
+        }
+    }
+
+    private DatapointPacker createPacker(int aPackSize, IngestionCheckpoints aCheckpoints)
+    {
+        if (aPackSize <= 0) {
+            return null;
+        }
+
+        return new DatapointPacker(aPackSize, aCheckpoints.getDocumentNames());
+    }
+
+    private void drainPacker(Ingestion aIngestion) throws IOException
+    {
+        Optional<Pack> pack = aIngestion.packer.drain();
+        if (pack.isEmpty()) {
+            return;
+        }
+
+        try {
+            importPack(aIngestion, pack.get());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Task data ingestion was interrupted");
+        }
+    }
+
+    private void importPack(Ingestion aIngestion, Pack aPack)
+        throws IOException, InterruptedException
+    {
+        TypeSystemDescription typeSystem = aIngestion.getTypeSystem();
+
+        importPermits.acquire();
+        try {
+            SourceDocument sourceDocument = new SourceDocument(aPack.getName(),
+                    aIngestion.project, XmiFormatSupport.ID);
+            documentService.createSourceDocument(sourceDocument);
+
+            boolean keep = false;
+            try {
+                documentService.uploadSourceDocument(
+                        new ByteArrayInputStream(aPack.toXmi(typeSystem)), sourceDocument);
+                for (PackedDatapoint datapoint : aPack.getDatapoints()) {
+                    aIngestion.checkpoints.record(getCheckpointKey(datapoint.getItem()),
+                            aPack.getName(), datapoint.getItem().getDatapointHash());
+                }
+                keep = true;
+            }
+            finally {
+                if (!keep) {
+                    removeQuietly(sourceDocument);
+                }
+            }
+        }
+        finally {
+            importPermits.release();
+        }
+    }
+
+    @Override
+    public Map<String, List<String>> getPackedTaskKeys(Project aProject) throws IOException
+    {
+        try (IngestionCheckpoints checkpoints = IngestionCheckpoints
+                .open(getCheckpointFile(aProject))) {
+            return checkpoints.getKeysByDocument(DatapointPacker::isPackName);
+        }
+    }
+
+    @Override
+    public Map<String, List<TaskDataItem>> getTaskDataItems(Project aProject) throws IOException
+    {
+        try (IngestionCheckpoints checkpoints = IngestionCheckpoints
+                .open(getCheckpointFile(aProject))) {
+            return checkpoints.getItemsByDocument();
+        }
+    }
+
+    private void removeQuietly(SourceDocument aDocument)
+    {
+        try {
+            documentService.removeSourceDocument(aDocument);
+        }
+        catch (Exception e) {
+            log.warn("Unable to remove incompletely ingested document {}", aDocument, e);
+        }
+    }
+
+    private Path getCheckpointFile(Project aProject)
+    {
+        return repositoryProperties.getPath().toPath().resolve("project")
+                .resolve(String.valueOf(aProject.getId())).resolve("hmt")
+                .resolve("task-data-checkpoints.tsv");
+    }
+
+    private static String getCheckpointKey(TaskDataItem aItem)
+    {
+        return IngestionCheckpoints.getKey(aItem.getTaskKey(), aItem.getDatapointUri());
+    }
+
+    /**
+     * State of a single {@link #ingest} call shared by its download and persistence tasks.
+     */
+    private class Ingestion
+    {
+        private final Project project;
+        private final String format;
+        private final JobMonitor monitor;
+        private final Semaphore slots;
+        private final SecurityContext securityContext;
+        private final Map<String, String> mdc;
+        private final IngestionCheckpoints checkpoints;
+        private final DatapointPacker packer;
+        // Texts of the datapoints to be packed - null if a datapoint could not be received - and
+        // the order of these datapoints in the task data
+        private final Map<TaskDataItem, CompletableFuture<String>> packTexts = synchronizedMap(
+                new IdentityHashMap<>());
+        private final Deque<TaskDataItem> packOrder = new ArrayDeque<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private TypeSystemDescription typeSystem;
+        private final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+
+        Ingestion(Project aProject, String aFormat, JobMonitor aMonitor,
+                IngestionCheckpoints aCheckpoints, DatapointPacker aPacker, int aWindow)
+        {
+            project = aProject;
+            format = aFormat;
+            monitor = aMonitor;
+            checkpoints = aCheckpoints;
+            packer = aPacker;
+            slots = new Semaphore(aWindow);
+            securityContext = SecurityContextHolder.getContext();
+            mdc = MDC.getCopyOfContextMap();
+        }
+
+        void enter()
+        {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            SecurityContextHolder.setContext(securityContext);
+            workers.add(Thread.currentThread());
+        }
+
+        void leave()
+        {
+            workers.remove(Thread.currentThread());
+            SecurityContextHolder.clearContext();
+            MDC.clear();
+        }
+
+        /**
+         * The type system is only needed to build packs, so it is resolved on first use.
+         */
+        synchronized TypeSystemDescription getTypeSystem() throws IOException
+        {
+            if (typeSystem == null) {
+                try {
+                    typeSystem = schemaService.getFullProjectTypeSystem(project);
+                }
+                catch (ResourceInitializationException e) {
+                    throw new IOException(e);
+                }
+            }
+            return typeSystem;
+        }
+
+        /**
+         * Registers a datapoint which is about to be received. Only called by the thread which
+         * runs the ingestion.
+         */
+        void expect(TaskDataItem aItem)
+        {
+            if (packer != null) {
+                packTexts.put(aItem, new CompletableFuture<>());
+                packOrder.add(aItem);
+            }
+        }
+
+        /**
+         * Marks a datapoint as not received unless its text has already been handed over.
+         */
+        void abandon(TaskDataItem aItem)
+        {
+            if (packer != null) {
+                packTexts.get(aItem).complete(null);
+            }
+        }
+
+        boolean isFailed()
+        {
+            return failure.get() != null;
+        }
+
+        void fail(TaskDataItem aItem, Exception aException)
+        {
+            if (!failure.compareAndSet(null, aException)) {
+                return;
+            }
+
+            if (aItem != null) {
+                log.error("Unable to ingest datapoint for task key [{}] in project {}",
+                        aItem.getTaskKey(), project, aException);
+            }
+            else {
+                log.error("Unable to ingest task data into project {}", project, aException);
+            }
+        }
+
+        /**
+         * Tasks which have not started yet skip their work once the ingestion has failed, so it is
+         * sufficient to interrupt those which are currently running.
+         */
+        void cancel()
+        {
+            failure.compareAndSet(null, new InterruptedIOException());
+            workers.forEach(Thread::interrupt);
+        }
+    }
+}
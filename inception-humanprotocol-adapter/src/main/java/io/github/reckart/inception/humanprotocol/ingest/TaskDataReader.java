@@ -0,0 +1,200 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.ingest;
+
+import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NULL;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tudarmstadt.ukp.clarin.webanno.support.JSONUtil;
+import io.github.reckart.inception.humanprotocol.model.TaskDataItem;
+
+/**
+ * Reads task data items one at a time from a JSON stream so that task data does not need to be
+ * held in memory as a whole. Errors reading the stream surface as {@link UncheckedIOException}s
+ * from {@link #hasNext()} and {@link #next()}.
+ */
+public class TaskDataReader
+    implements Iterator<TaskDataItem>, Closeable
+{
+    private static final ObjectMapper MAPPER = JSONUtil.getObjectMapper();
+
+    private final JsonParser parser;
+    private boolean exhausted;
+    private TaskDataItem next;
+    private int count;
+
+    private TaskDataReader(JsonParser aParser, boolean aExhausted)
+    {
+        parser = aParser;
+        exhausted = aExhausted;
+    }
+
+    /**
+     * Reads task data from the given stream which is expected to contain a JSON array of task
+     * data items. The stream is closed when the reader is closed.
+     */
+    public static TaskDataReader forTaskData(InputStream aInputStream) throws IOException
+    {
+        JsonParser parser = MAPPER.getFactory().createParser(aInputStream);
+        try {
+            JsonToken token = parser.nextToken();
+            if (token != START_ARRAY) {
+                throw new IOException("Task data must be an array but found " + token);
+            }
+            return new TaskDataReader(parser, false);
+        }
+        catch (IOException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the inline task data from the given stream which is expected to contain a job
+     * manifest. If the manifest does not contain inline task data, the reader is empty. The
+     * stream is closed when the reader is closed.
+     */
+    public static TaskDataReader forManifest(InputStream aInputStream) throws IOException
+    {
+        JsonParser parser = MAPPER.getFactory().createParser(aInputStream);
+        try {
+            if (parser.nextToken() != START_OBJECT) {
+                throw new IOException("Manifest must be an object");
+            }
+
+            while (parser.nextToken() == FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!"taskdata".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                if (value == VALUE_NULL) {
+                    break;
+                }
+
+                if (value != START_ARRAY) {
+                    throw new IOException("Task data must be an array but found " + value);
+                }
+
+                return new TaskDataReader(parser, false);
+            }
+
+            return new TaskDataReader(parser, true);
+        }
+        catch (IOException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads task data from the given location.
+     */
+    public static TaskDataReader open(URI aUri) throws IOException
+    {
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            HttpRequest request = HttpRequest.newBuilder().uri(aUri).build();
+            HttpResponse<InputStream> response = client.send(request,
+                    BodyHandlers.ofInputStream());
+            return forTaskData(response.body());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching task data from [" + aUri + "]", e);
+        }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (next != null) {
+            return true;
+        }
+
+        if (exhausted) {
+            return false;
+        }
+
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == END_ARRAY) {
+                exhausted = true;
+                return false;
+            }
+
+            if (token != START_OBJECT) {
+                throw new IOException("Task data item must be an object but found " + token);
+            }
+
+            next = parser.readValueAs(TaskDataItem.class);
+            return true;
+        }
+        catch (IOException e) {
+            exhausted = true;
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public TaskDataItem next()
+    {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        TaskDataItem item = next;
+        next = null;
+        count++;
+        return item;
+    }
+
+    /**
+     * @return the number of items which have been read so far.
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        parser.close();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.intake;
+
+/**
+ * Thrown when a job is submitted which has already been accepted before. Jobs are identified by
+ * their network ID and job address.
+ */
+public class JobAlreadySubmittedException
+    extends Exception
+{
+    private static final long serialVersionUID = -2213404531848419529L;
+
+    private final JobMonitor monitor;
+
+    public JobAlreadySubmittedException(JobMonitor aMonitor)
+    {
+        super("Job " + aMonitor + " has already been submitted");
+        monitor = aMonitor;
+    }
+
+    /**
+     * @return the monitor tracking the previously submitted job.
+     */
+    public JobMonitor getMonitor()
+    {
+        return monitor;
+    }
+}
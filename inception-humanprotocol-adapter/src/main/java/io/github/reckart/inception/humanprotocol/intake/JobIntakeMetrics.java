@@ -0,0 +1,135 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.intake;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.currentTimeMillis;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import io.github.reckart.inception.humanprotocol.messages.JobIntakeStatistics;
+
+/**
+ * Keeps track of the wait and processing times of the most recently finished jobs in order to
+ * estimate the intake throughput.
+ */
+class JobIntakeMetrics
+{
+    private static final int WINDOW_SIZE = 50;
+
+    static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(60);
+    static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(1);
+    static final Duration MAX_RETRY_AFTER = Duration.ofHours(1);
+
+    private final Deque<Sample> window = new ArrayDeque<>(WINDOW_SIZE);
+
+    private long completed;
+    private long failed;
+    private long rejected;
+
+    synchronized void recordFinished(long aWaitTime, long aProcessingTime, boolean aSuccess)
+    {
+        if (aSuccess) {
+            completed++;
+        }
+        else {
+            failed++;
+        }
+
+        if (window.size() == WINDOW_SIZE) {
+            window.removeFirst();
+        }
+        window.addLast(new Sample(currentTimeMillis(), aWaitTime, aProcessingTime));
+    }
+
+    synchronized void recordRejected()
+    {
+        rejected++;
+    }
+
+    /**
+     * Estimates how long it takes until the next slot in the queue becomes available. When all
+     * workers are busy, a slot is freed whenever a job finishes, so the estimate is the average
+     * interval between recently finished jobs. If there are not enough finished jobs to measure
+     * the interval yet, the average processing time spread over all workers is used.
+     */
+    synchronized Duration estimateRetryAfter(int aConcurrency)
+    {
+        long estimate;
+        if (window.size() >= 2 && getWindowSpan() > 0) {
+            estimate = getWindowSpan() / (window.size() - 1);
+        }
+        else if (!window.isEmpty()) {
+            estimate = getAverageProcessingTime() / max(1, aConcurrency);
+        }
+        else {
+            return DEFAULT_RETRY_AFTER;
+        }
+
+        estimate = max(MIN_RETRY_AFTER.toMillis(), min(MAX_RETRY_AFTER.toMillis(), estimate));
+        return Duration.ofMillis(estimate);
+    }
+
+    synchronized void fill(JobIntakeStatistics aStatistics, int aConcurrency)
+    {
+        aStatistics.setCompleted(completed);
+        aStatistics.setFailed(failed);
+        aStatistics.setRejected(rejected);
+        aStatistics.setAverageWaitTime((long) window.stream() //
+                .mapToLong(s -> s.waitTime).average().orElse(0));
+        aStatistics.setMaxWaitTime(window.stream() //
+                .mapToLong(s -> s.waitTime).max().orElse(0));
+        aStatistics.setAverageProcessingTime(getAverageProcessingTime());
+        long span = getWindowSpan();
+        if (window.size() >= 2 && span > 0) {
+            aStatistics.setThroughputPerHour(
+                    (window.size() - 1) * (double) Duration.ofHours(1).toMillis() / span);
+        }
+        aStatistics.setRetryAfter(estimateRetryAfter(aConcurrency).toSeconds());
+    }
+
+    private long getAverageProcessingTime()
+    {
+        return (long) window.stream().mapToLong(s -> s.processingTime).average().orElse(0);
+    }
+
+    private long getWindowSpan()
+    {
+        if (window.isEmpty()) {
+            return 0;
+        }
+
+        return window.getLast().finished - window.getFirst().finished;
+    }
+
+    private static class Sample
+    {
+        private final long finished;
+        private final long waitTime;
+        private final long processingTime;
+
+        Sample(long aFinished, long aWaitTime, long aProcessingTime)
+        {
+            finished = aFinished;
+            waitTime = aWaitTime;
+            processingTime = aProcessingTime;
+        }
+    }
+}
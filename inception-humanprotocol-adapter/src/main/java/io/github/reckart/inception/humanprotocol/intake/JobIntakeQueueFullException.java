@@ -0,0 +1,44 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.intake;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a job cannot be accepted because the intake queue is full.
+ */
+public class JobIntakeQueueFullException
+    extends Exception
+{
+    private static final long serialVersionUID = 4950176785532046153L;
+
+    private final Duration retryAfter;
+
+    public JobIntakeQueueFullException(int aCapacity, Duration aRetryAfter)
+    {
+        super("Job intake queue is full (capacity: " + aCapacity + ")");
+        retryAfter = aRetryAfter;
+    }
+
+    /**
+     * @return estimated time until a slot in the queue becomes available.
+     */
+    public Duration getRetryAfter()
+    {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.intake;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.Future;
+
+import io.github.reckart.inception.humanprotocol.messages.JobIntakeStatistics;
+import io.github.reckart.inception.humanprotocol.messages.JobRequest;
+
+/**
+ * Accepts job submissions and runs the project setup for them on a bounded background executor
+ * with a bounded queue in front of it. The status of each job is tracked by a {@link JobMonitor}.
+ * <p>
+ * Submissions are idempotent: a job is identified by its network ID and job address and is only
+ * accepted once unless it failed. Completed jobs are remembered across restarts. Jobs whose task
+ * data could only be partially ingested keep their project and can be resumed.
+ */
+public interface JobIntakeService
+{
+    /**
+     * Runs the given job and waits for it to finish. The job counts against the concurrency limit
+     * and the queue capacity of the intake like any asynchronously submitted job.
+     * 
+     * @return the monitor tracking the job.
+     * @throws JobIntakeQueueFullException
+     *             if the intake queue is full.
+     * @throws JobAlreadySubmittedException
+     *             if the job has already been submitted and did not fail.
+     * @throws Exception
+     *             if the handler failed. The monitor is marked as failed in this case.
+     */
+    JobMonitor process(JobRequest aJobRequest, JobHandler aHandler) throws Exception;
+
+    /**
+     * Schedules the given job like {@link #process} but without waiting for it to finish. Unlike
+     * {@link #submit}, the job is not persisted and is not recovered after a restart.
+     * 
+     * @return a future which yields the monitor once the job has finished or which fails with the
+     *         exception thrown by the handler.
+     * @throws JobIntakeQueueFullException
+     *             if the intake queue is full.
+     * @throws JobAlreadySubmittedException
+     *             if the job has already been submitted and did not fail.
+     */
+    Future<JobMonitor> schedule(JobRequest aJobRequest, JobHandler aHandler)
+        throws JobIntakeQueueFullException, JobAlreadySubmittedException;
+
+    /**
+     * Persists the job and schedules it for processing on the intake executor. Persisted jobs that
+     * have not been completed survive a restart and are picked up again via
+     * {@link #recoverPendingJobs}.
+     * 
+     * @param aJobRequest
+     *            the job request.
+     * @param aManifest
+     *            the raw job manifest if it was submitted directly instead of being referenced by
+     *            the job request (optional).
+     * @param aHandler
+     *            the handler setting up the project.
+     * @return the monitor tracking the job.
+     * @throws JobIntakeQueueFullException
+     *             if the intake queue is full.
+     * @throws JobAlreadySubmittedException
+     *             if the job has already been submitted and did not fail.
+     */
+    JobMonitor submit(JobRequest aJobRequest, byte[] aManifest, JobHandler aHandler)
+        throws IOException, JobIntakeQueueFullException, JobAlreadySubmittedException;
+
+    /**
+     * Puts a job whose task data was only partially ingested back into the queue. The handler is
+     * called again with the monitor of the job and is expected to resume the ingestion. Partially
+     * ingested jobs are also resumed automatically a configurable number of times and when they
+     * are recovered after a restart.
+     * 
+     * @return the monitor tracking the job or nothing if the job is not known.
+     * @throws JobNotResumableException
+     *             if the job has not been partially ingested.
+     * @throws JobIntakeQueueFullException
+     *             if the intake queue is full.
+     */
+    Optional<JobMonitor> resume(int aNetworkId, String aJobAddress, JobHandler aHandler)
+        throws IOException, JobIntakeQueueFullException, JobNotResumableException;
+
+    Optional<JobMonitor> getMonitor(int aNetworkId, String aJobAddress);
+
+    JobIntakeStatistics getStatistics();
+
+    /**
+     * Re-schedules all jobs that were persisted but not completed before the last shutdown.
+     */
+    void recoverPendingJobs(JobHandler aHandler);
+
+    @FunctionalInterface
+    interface JobHandler
+    {
+        void handle(JobRequest aJobRequest, JobMonitor aMonitor) throws Exception;
+    }
+}
@@ -0,0 +1,590 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.intake;
+
+import static io.github.reckart.inception.humanprotocol.model.JobState.COMPLETED;
+import static io.github.reckart.inception.humanprotocol.model.JobState.FAILED;
+import static io.github.reckart.inception.humanprotocol.model.JobState.PARTIALLY_INGESTED;
+import static io.github.reckart.inception.humanprotocol.security.SecurityContextUtils.createHumanProtocolSecurityContext;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.exists;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.config.RepositoryProperties;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.BeforeProjectRemovedEvent;
+import de.tudarmstadt.ukp.clarin.webanno.support.JSONUtil;
+import de.tudarmstadt.ukp.inception.annotation.storage.CasStorageSession;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolProperties;
+import io.github.reckart.inception.humanprotocol.ingest.PartialIngestionException;
+import io.github.reckart.inception.humanprotocol.messages.JobIntakeStatistics;
+import io.github.reckart.inception.humanprotocol.messages.JobRequest;
+import io.github.reckart.inception.humanprotocol.messages.JobStatus;
+
+/**
+ * <p>
+ * This class is exposed as a Spring Component via
+ * {@link HumanProtocolAutoConfiguration#jobIntakeService}.
+ * </p>
+ */
+public class JobIntakeServiceImpl
+    implements JobIntakeService, DisposableBean
+{
+    private static final String JOB_REQUEST_FILE = "job-request.json";
+    private static final String JOB_MANIFEST_FILE = "job-manifest.json";
+    private static final String JOB_STATUS_FILE = "job-status.json";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final RepositoryProperties repositoryProperties;
+    private final HumanProtocolProperties hmtProperties;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService resumer;
+    private final int concurrency;
+    private final int queueCapacity;
+    private final Map<String, JobMonitor> monitors = new ConcurrentHashMap<>();
+    private final JobIntakeMetrics metrics = new JobIntakeMetrics();
+
+    /**
+     * Jobs recovered on startup which did not fit into the queue. They are moved to the queue as
+     * slots become available.
+     */
+    private final Deque<Runnable> recoveryBacklog = new ConcurrentLinkedDeque<>();
+
+    public JobIntakeServiceImpl(RepositoryProperties aRepositoryProperties,
+            HumanProtocolProperties aHmtProperties)
+    {
+        repositoryProperties = aRepositoryProperties;
+        hmtProperties = aHmtProperties;
+        concurrency = Math.max(1, aHmtProperties.getJobIntakeThreads());
+        queueCapacity = Math.max(1, aHmtProperties.getJobIntakeQueueCapacity());
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("hmt-job-intake-"));
+        resumer = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("hmt-job-resume-"));
+
+        loadJobIndex();
+    }
+
+    @Override
+    public void destroy()
+    {
+        resumer.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Override
+    public JobMonitor process(JobRequest aJobRequest, JobHandler aHandler) throws Exception
+    {
+        // Synchronous jobs go through the queue as well so that they count against the
+        // concurrency limit - the caller simply waits for the job to finish
+        try {
+            return schedule(aJobRequest, aHandler).get();
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Future<JobMonitor> schedule(JobRequest aJobRequest, JobHandler aHandler)
+        throws JobIntakeQueueFullException, JobAlreadySubmittedException
+    {
+        JobMonitor monitor = new JobMonitor(aJobRequest);
+        monitor.setCheckpointListener(this::writeStatus);
+        reserve(aJobRequest, monitor);
+
+        try {
+            return enqueue(aJobRequest, monitor, aHandler);
+        }
+        catch (JobIntakeQueueFullException e) {
+            release(aJobRequest, monitor);
+            throw e;
+        }
+    }
+
+    @Override
+    public JobMonitor submit(JobRequest aJobRequest, byte[] aManifest, JobHandler aHandler)
+        throws IOException, JobIntakeQueueFullException, JobAlreadySubmittedException
+    {
+        if (executor.getQueue().remainingCapacity() == 0) {
+            // Fail early before persisting anything
+            throw rejected();
+        }
+
+        JobMonitor monitor = new JobMonitor(aJobRequest);
+        monitor.setCheckpointListener(this::writeStatus);
+        reserve(aJobRequest, monitor);
+
+        Path jobFolder = getJobFolder(aJobRequest);
+        try {
+            createDirectories(jobFolder);
+
+            if (aManifest != null) {
+                Path manifestFile = jobFolder.resolve(JOB_MANIFEST_FILE);
+                // Store the manifest as submitted - no need to parse and re-serialize it here
+                Files.write(manifestFile, aManifest);
+                aJobRequest.setJobManifest(manifestFile.toUri());
+            }
+
+            writeJson(jobFolder.resolve(JOB_REQUEST_FILE), aJobRequest);
+            enqueue(aJobRequest, monitor, aHandler);
+        }
+        catch (IOException | JobIntakeQueueFullException e) {
+            // Another submission may have taken the last slot in the meantime - in any case, the
+            // job was not accepted and may be submitted again
+            deleteQuietly(jobFolder.toFile());
+            release(aJobRequest, monitor);
+            throw e;
+        }
+
+        return monitor;
+    }
+
+    @Override
+    public Optional<JobMonitor> resume(int aNetworkId, String aJobAddress, JobHandler aHandler)
+        throws IOException, JobIntakeQueueFullException, JobNotResumableException
+    {
+        JobMonitor monitor = monitors.get(getJobKey(aNetworkId, aJobAddress));
+        if (monitor == null) {
+            return Optional.empty();
+        }
+
+        requeue(monitor, aHandler);
+        return Optional.of(monitor);
+    }
+
+    @Override
+    public JobIntakeStatistics getStatistics()
+    {
+        JobIntakeStatistics statistics = new JobIntakeStatistics();
+        statistics.setConcurrency(concurrency);
+        statistics.setQueueCapacity(queueCapacity);
+        statistics.setQueueDepth(executor.getQueue().size() + recoveryBacklog.size());
+        statistics.setRunning(executor.getActiveCount());
+        metrics.fill(statistics, concurrency);
+        return statistics;
+    }
+
+    @Override
+    public Optional<JobMonitor> getMonitor(int aNetworkId, String aJobAddress)
+    {
+        return Optional.ofNullable(monitors.get(getJobKey(aNetworkId, aJobAddress)));
+    }
+
+    @Override
+    public void recoverPendingJobs(JobHandler aHandler)
+    {
+        Path jobsFolder = getJobsFolder();
+        if (!exists(jobsFolder)) {
+            return;
+        }
+
+        try (Stream<Path> jobFolders = Files.list(jobsFolder)) {
+            jobFolders.filter(folder -> exists(folder.resolve(JOB_REQUEST_FILE)))
+                    .forEach(folder -> recoverPendingJob(folder, aHandler));
+        }
+        catch (IOException e) {
+            log.error("Unable to scan for pending jobs", e);
+        }
+
+        drainRecoveryBacklog();
+    }
+
+    private void recoverPendingJob(Path aJobFolder, JobHandler aHandler)
+    {
+        try {
+            JobRequest jobRequest = readJson(aJobFolder.resolve(JOB_REQUEST_FILE),
+                    JobRequest.class);
+
+            JobMonitor monitor;
+            Path statusFile = aJobFolder.resolve(JOB_STATUS_FILE);
+            if (exists(statusFile)) {
+                // Restore the monitor so the handler can clean up after an interrupted attempt -
+                // or continue in the existing project if the job was partially ingested
+                monitor = new JobMonitor(readJson(statusFile, JobStatus.class));
+                monitor.requeue();
+            }
+            else {
+                monitor = new JobMonitor(jobRequest);
+            }
+
+            log.info("Recovering pending job {}", monitor);
+            monitor.setCheckpointListener(this::writeStatus);
+            monitors.put(getJobKey(jobRequest), monitor);
+            recoveryBacklog.add(new FutureTask<>(createTask(jobRequest, monitor, aHandler)));
+        }
+        catch (IOException e) {
+            log.error("Unable to recover pending job from [{}]", aJobFolder, e);
+        }
+    }
+
+    /**
+     * Registers the monitor for the given job unless the job is already known. Jobs that failed
+     * may be submitted again.
+     */
+    private void reserve(JobRequest aJobRequest, JobMonitor aMonitor)
+        throws JobAlreadySubmittedException
+    {
+        JobMonitor current = monitors.merge(getJobKey(aJobRequest), aMonitor,
+                (existing, fresh) -> existing.getState() == FAILED ? fresh : existing);
+
+        if (current != aMonitor) {
+            throw new JobAlreadySubmittedException(current);
+        }
+    }
+
+    private void release(JobRequest aJobRequest, JobMonitor aMonitor)
+    {
+        monitors.remove(getJobKey(aJobRequest), aMonitor);
+    }
+
+    private Future<JobMonitor> enqueue(JobRequest aJobRequest, JobMonitor aMonitor, JobHandler aHandler)
+        throws JobIntakeQueueFullException
+    {
+        try {
+            return executor.submit(createTask(aJobRequest, aMonitor, aHandler));
+        }
+        catch (RejectedExecutionException e) {
+            throw rejected();
+        }
+    }
+
+    private void requeue(JobMonitor aMonitor, JobHandler aHandler)
+        throws IOException, JobIntakeQueueFullException, JobNotResumableException
+    {
+        if (aMonitor.getState() != PARTIALLY_INGESTED) {
+            throw new JobNotResumableException(aMonitor);
+        }
+
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw rejected();
+        }
+
+        // Partially ingested jobs are always persisted, see persistForResume()
+        JobRequest jobRequest = readJson(getJobFolder(aMonitor.getNetworkId(),
+                aMonitor.getJobAddress()).resolve(JOB_REQUEST_FILE), JobRequest.class);
+
+        if (!aMonitor.requeue()) {
+            throw new JobNotResumableException(aMonitor);
+        }
+
+        try {
+            enqueue(jobRequest, aMonitor, aHandler);
+        }
+        catch (JobIntakeQueueFullException e) {
+            aMonitor.partiallyIngested(e);
+            throw e;
+        }
+    }
+
+    private void scheduleAutomaticResume(JobMonitor aMonitor, JobHandler aHandler)
+    {
+        if (aMonitor.getResumeAttempts() >= hmtProperties.getJobResumeAttempts()) {
+            log.warn("Job {} has been resumed automatically {} times - it needs to be resumed "
+                    + "manually now", aMonitor, aMonitor.getResumeAttempts());
+            return;
+        }
+
+        aMonitor.incrementResumeAttempts();
+        resumer.schedule(() -> resumeAutomatically(aMonitor, aHandler),
+                hmtProperties.getJobResumeDelay().toMillis(), MILLISECONDS);
+    }
+
+    private void resumeAutomatically(JobMonitor aMonitor, JobHandler aHandler)
+    {
+        // The job may have been forgotten in the meantime because its project was removed
+        String key = getJobKey(aMonitor.getNetworkId(), aMonitor.getJobAddress());
+        if (monitors.get(key) != aMonitor) {
+            return;
+        }
+
+        try {
+            log.info("Resuming job {} (automatic attempt {})", aMonitor,
+                    aMonitor.getResumeAttempts());
+            requeue(aMonitor, aHandler);
+        }
+        catch (JobNotResumableException e) {
+            // Resumed manually in the meantime
+        }
+        catch (JobIntakeQueueFullException e) {
+            // Does not count as an attempt - simply try again later
+            resumer.schedule(() -> resumeAutomatically(aMonitor, aHandler),
+                    e.getRetryAfter().toMillis(), MILLISECONDS);
+        }
+        catch (IOException e) {
+            log.error("Unable to resume job {}", aMonitor, e);
+        }
+    }
+
+    /**
+     * Jobs that were processed synchronously are not persisted on submission. If they were
+     * partially ingested, they need to be persisted so they can be resumed - also after a
+     * restart.
+     */
+    private void persistForResume(JobRequest aJobRequest)
+    {
+        Path requestFile = getJobFolder(aJobRequest).resolve(JOB_REQUEST_FILE);
+        try {
+            if (!exists(requestFile)) {
+                createDirectories(requestFile.getParent());
+                writeJson(requestFile, aJobRequest);
+            }
+        }
+        catch (IOException e) {
+            log.error("Unable to persist partially ingested job [{}/{}]",
+                    aJobRequest.getNetworkId(), aJobRequest.getJobAddress(), e);
+        }
+    }
+
+    private JobIntakeQueueFullException rejected()
+    {
+        metrics.recordRejected();
+        return new JobIntakeQueueFullException(queueCapacity,
+                metrics.estimateRetryAfter(concurrency));
+    }
+
+    private void drainRecoveryBacklog()
+    {
+        Runnable task;
+        while ((task = recoveryBacklog.poll()) != null) {
+            try {
+                executor.execute(task);
+            }
+            catch (RejectedExecutionException e) {
+                recoveryBacklog.addFirst(task);
+                return;
+            }
+        }
+    }
+
+    private Callable<JobMonitor> createTask(JobRequest aJobRequest, JobMonitor aMonitor,
+            JobHandler aHandler)
+    {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        long enqueued = currentTimeMillis();
+
+        return () -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+
+            SecurityContextHolder.setContext(createHumanProtocolSecurityContext());
+
+            long started = currentTimeMillis();
+            boolean success = false;
+            try (CasStorageSession session = CasStorageSession.open()) {
+                aMonitor.started();
+                aHandler.handle(aJobRequest, aMonitor);
+                aMonitor.completed();
+                success = true;
+                log.info("Job {} completed", aMonitor);
+                return aMonitor;
+            }
+            catch (PartialIngestionException e) {
+                persistForResume(aJobRequest);
+                aMonitor.partiallyIngested(e);
+                log.warn("Job {} was only partially ingested", aMonitor, e);
+                scheduleAutomaticResume(aMonitor, aHandler);
+                throw e;
+            }
+            catch (Exception e) {
+                aMonitor.failed(e);
+                log.error("Job {} failed", aMonitor, e);
+                throw e;
+            }
+            finally {
+                metrics.recordFinished(started - enqueued, currentTimeMillis() - started, success);
+
+                SecurityContextHolder.clearContext();
+                MDC.clear();
+
+                drainRecoveryBacklog();
+            }
+        };
+    }
+
+    private void writeStatus(JobMonitor aMonitor)
+    {
+        Path jobFolder = getJobFolder(aMonitor.getNetworkId(), aMonitor.getJobAddress());
+        try {
+            switch (aMonitor.getState()) {
+            case COMPLETED:
+                // Only the status remains as an entry in the job index. It is written before the
+                // request is removed so that a completed job is never recovered and run again.
+                createDirectories(jobFolder);
+                writeJson(jobFolder.resolve(JOB_STATUS_FILE), aMonitor.getStatus());
+                Files.deleteIfExists(jobFolder.resolve(JOB_REQUEST_FILE));
+                Files.deleteIfExists(jobFolder.resolve(JOB_MANIFEST_FILE));
+                break;
+            case FAILED:
+                // Failed jobs may be submitted again, so there is nothing to keep. This is done
+                // atomically with respect to reserve() so we do not clean up after a resubmission.
+                monitors.computeIfPresent(getJobKey(aMonitor.getNetworkId(),
+                        aMonitor.getJobAddress()), (key, current) -> {
+                            if (current == aMonitor) {
+                                deleteQuietly(jobFolder.toFile());
+                            }
+                            return current;
+                        });
+                break;
+            default:
+                // Only jobs which have been persisted on submission can be recovered
+                if (exists(jobFolder.resolve(JOB_REQUEST_FILE))) {
+                    writeJson(jobFolder.resolve(JOB_STATUS_FILE), aMonitor.getStatus());
+                }
+                break;
+            }
+        }
+        catch (IOException e) {
+            log.error("Unable to persist status of job {}", aMonitor, e);
+        }
+    }
+
+    /**
+     * Loads the completed jobs into the job index so that they are recognized if they are
+     * submitted again. Pending jobs are picked up by {@link #recoverPendingJobs}.
+     */
+    private void loadJobIndex()
+    {
+        Path jobsFolder = getJobsFolder();
+        if (!exists(jobsFolder)) {
+            return;
+        }
+
+        try (Stream<Path> jobFolders = Files.list(jobsFolder)) {
+            jobFolders.filter(folder -> exists(folder.resolve(JOB_STATUS_FILE)))
+                    .forEach(this::loadJobIndexEntry);
+        }
+        catch (IOException e) {
+            log.error("Unable to load job index", e);
+        }
+    }
+
+    private void loadJobIndexEntry(Path aJobFolder)
+    {
+        try {
+            JobStatus status = readJson(aJobFolder.resolve(JOB_STATUS_FILE), JobStatus.class);
+            if (status.getState() != COMPLETED) {
+                return;
+            }
+
+            monitors.put(getJobKey(status.getNetworkId(), status.getJobAddress()),
+                    new JobMonitor(status));
+
+            // The job may have completed right before a shutdown
+            Files.deleteIfExists(aJobFolder.resolve(JOB_REQUEST_FILE));
+            Files.deleteIfExists(aJobFolder.resolve(JOB_MANIFEST_FILE));
+        }
+        catch (IOException e) {
+            log.error("Unable to load job index entry from [{}]", aJobFolder, e);
+        }
+    }
+
+    /**
+     * If the project created for a job is deleted, the job is forgotten and may be submitted
+     * again. This includes jobs which have only been partially ingested.
+     */
+    @EventListener
+    public void onBeforeProjectRemoved(BeforeProjectRemovedEvent aEvent)
+    {
+        Long projectId = aEvent.getProject().getId();
+        monitors.forEach((key, monitor) -> {
+            if ((monitor.getState() == COMPLETED || monitor.getState() == PARTIALLY_INGESTED)
+                    && projectId.equals(monitor.getProjectId())
+                    && monitors.remove(key, monitor)) {
+                deleteQuietly(getJobsFolder().resolve(key).toFile());
+            }
+        });
+    }
+
+    private Path getJobsFolder()
+    {
+        return repositoryProperties.getPath().toPath().resolve("hmt").resolve("jobs");
+    }
+
+    private Path getJobFolder(JobRequest aJobRequest)
+    {
+        return getJobFolder(aJobRequest.getNetworkId(), aJobRequest.getJobAddress());
+    }
+
+    private Path getJobFolder(int aNetworkId, String aJobAddress)
+    {
+        return getJobsFolder().resolve(getJobKey(aNetworkId, aJobAddress));
+    }
+
+    private static String getJobKey(JobRequest aJobRequest)
+    {
+        return getJobKey(aJobRequest.getNetworkId(), aJobRequest.getJobAddress());
+    }
+
+    static String getJobKey(int aNetworkId, String aJobAddress)
+    {
+        // The key is used as a folder name, so we need to make sure it is safe to use
+        return aNetworkId + "-" + String.valueOf(aJobAddress).replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+
+    private static void writeJson(Path aFile, Object aObject) throws IOException
+    {
+        try (Writer out = Files.newBufferedWriter(aFile, UTF_8)) {
+            out.write(JSONUtil.toPrettyJsonString(aObject));
+        }
+    }
+
+    private static <T> T readJson(Path aFile, Class<T> aClass) throws IOException
+    {
+        try (InputStream is = Files.newInputStream(aFile)) {
+            return JSONUtil.fromJsonStream(aClass, is);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.intake;
+
+import static java.lang.System.currentTimeMillis;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import io.github.reckart.inception.humanprotocol.messages.JobRequest;
+import io.github.reckart.inception.humanprotocol.messages.JobStatus;
+import io.github.reckart.inception.humanprotocol.model.JobPhase;
+import io.github.reckart.inception.humanprotocol.model.JobState;
+
+/**
+ * Tracks the state and progress of a single job while its project is being set up. Instances are
+ * safe to be updated from the intake worker while the status resource reads them.
+ */
+public class JobMonitor
+{
+    private final int networkId;
+    private final String jobAddress;
+
+    private final AtomicLong progress = new AtomicLong();
+    private volatile long progressMax = -1;
+
+    private volatile JobState state = JobState.QUEUED;
+    private volatile JobPhase phase;
+    private volatile Long projectId;
+    private volatile String project;
+    private volatile String message;
+    private volatile long submitted;
+    private volatile long started;
+    private volatile long finished;
+    private volatile int resumeAttempts;
+    private volatile boolean resumed;
+
+    private Consumer<JobMonitor> checkpointListener;
+
+    public JobMonitor(JobRequest aJobRequest)
+    {
+        networkId = aJobRequest.getNetworkId();
+        jobAddress = aJobRequest.getJobAddress();
+        submitted = currentTimeMillis();
+    }
+
+    public JobMonitor(JobStatus aStatus)
+    {
+        networkId = aStatus.getNetworkId();
+        jobAddress = aStatus.getJobAddress();
+        state = aStatus.getState();
+        phase = aStatus.getPhase();
+        projectId = aStatus.getProjectId();
+        project = aStatus.getProject();
+        message = aStatus.getMessage();
+        submitted = aStatus.getSubmitted();
+        started = aStatus.getStarted();
+        finished = aStatus.getFinished();
+    }
+
+    /**
+     * A monitor which is not attached to any job, e.g. when a project initializer is run outside of
+     * the job intake.
+     */
+    public static JobMonitor detached()
+    {
+        JobRequest request = new JobRequest();
+        return new JobMonitor(request);
+    }
+
+    public int getNetworkId()
+    {
+        return networkId;
+    }
+
+    public String getJobAddress()
+    {
+        return jobAddress;
+    }
+
+    public JobState getState()
+    {
+        return state;
+    }
+
+    public JobPhase getPhase()
+    {
+        return phase;
+    }
+
+    public Long getProjectId()
+    {
+        return projectId;
+    }
+
+    public String getProjectSlug()
+    {
+        return project;
+    }
+
+    /**
+     * Sets a listener which is notified whenever the monitor reaches a state that should survive a
+     * restart, i.e. on state transitions and when the project has been created - but not on every
+     * progress update.
+     */
+    void setCheckpointListener(Consumer<JobMonitor> aListener)
+    {
+        checkpointListener = aListener;
+    }
+
+    public void started()
+    {
+        started = currentTimeMillis();
+        state = JobState.RUNNING;
+        checkpoint();
+    }
+
+    public void completed()
+    {
+        finished = currentTimeMillis();
+        phase = null;
+        state = JobState.COMPLETED;
+        checkpoint();
+    }
+
+    public void failed(Throwable aCause)
+    {
+        finished = currentTimeMillis();
+        message = aCause.getMessage() != null ? aCause.getMessage() : aCause.toString();
+        state = JobState.FAILED;
+        checkpoint();
+    }
+
+    /**
+     * Marks the job as partially ingested. Unlike a failed job, the project is kept so that the
+     * job can be {@link #requeue() resumed}.
+     */
+    public synchronized void partiallyIngested(Throwable aCause)
+    {
+        finished = currentTimeMillis();
+        message = aCause.getMessage() != null ? aCause.getMessage() : aCause.toString();
+        state = JobState.PARTIALLY_INGESTED;
+        checkpoint();
+    }
+
+    /**
+     * Puts a partially ingested job back into the queue. Only one of several concurrent attempts
+     * to resume the job succeeds.
+     * 
+     * @return whether the job was partially ingested and has been re-queued.
+     */
+    synchronized boolean requeue()
+    {
+        if (state != JobState.PARTIALLY_INGESTED) {
+            return false;
+        }
+
+        finished = 0;
+        state = JobState.QUEUED;
+        resumed = true;
+        checkpoint();
+        return true;
+    }
+
+    /**
+     * @return whether the job has been re-queued after it had been partially ingested, i.e.
+     *         whether its project and the datapoints ingested so far are to be re-used.
+     */
+    public boolean isResumed()
+    {
+        return resumed;
+    }
+
+    /**
+     * @return the number of times the job has been resumed automatically.
+     */
+    int getResumeAttempts()
+    {
+        return resumeAttempts;
+    }
+
+    void incrementResumeAttempts()
+    {
+        resumeAttempts++;
+    }
+
+    public void setProject(Project aProject)
+    {
+        projectId = aProject.getId();
+        project = aProject.getSlug();
+        checkpoint();
+    }
+
+    /**
+     * Enters the given phase and resets the progress counters.
+     */
+    public void setPhase(JobPhase aPhase)
+    {
+        phase = aPhase;
+        progress.set(0);
+        progressMax = -1;
+    }
+
+    /**
+     * @param aProgressMax
+     *            total number of units of work in the current phase or {@code -1} if unknown
+     */
+    public void setProgressMax(long aProgressMax)
+    {
+        progressMax = aProgressMax;
+    }
+
+    public void incrementProgress()
+    {
+        progress.incrementAndGet();
+    }
+
+    public JobStatus getStatus()
+    {
+        JobStatus status = new JobStatus();
+        status.setNetworkId(networkId);
+        status.setJobAddress(jobAddress);
+        status.setState(state);
+        status.setPhase(phase);
+        status.setProgress(progress.get());
+        status.setProgressMax(progressMax);
+        status.setProjectId(projectId);
+        status.setProject(project);
+        status.setMessage(message);
+        status.setSubmitted(submitted);
+        status.setStarted(started);
+        status.setFinished(finished);
+        return status;
+    }
+
+    private void checkpoint()
+    {
+        if (checkpointListener != null) {
+            checkpointListener.accept(this);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[" + networkId + "/" + jobAddress + "] " + state
+                + (phase != null ? " (" + phase + ")" : "");
+    }
+}
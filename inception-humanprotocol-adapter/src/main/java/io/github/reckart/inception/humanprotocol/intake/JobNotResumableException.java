@@ -0,0 +1,43 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.intake;
+
+/**
+ * Thrown when a job is to be resumed which has not been partially ingested, e.g. because it
+ * is still running or has already been resumed.
+ */
+public class JobNotResumableException
+    extends Exception
+{
+    private static final long serialVersionUID = 6054871321570931472L;
+
+    private final JobMonitor monitor;
+
+    public JobNotResumableException(JobMonitor aMonitor)
+    {
+        super("Job " + aMonitor + " cannot be resumed");
+        monitor = aMonitor;
+    }
+
+    /**
+     * @return the monitor tracking the job.
+     */
+    public JobMonitor getMonitor()
+    {
+        return monitor;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.labels;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Chooses the label of a document from the labels of its annotators, following the same rules as
+ * the threshold-based merge used for spans. A label is chosen if at least the min repeats
+ * annotators have labelled the document, the label has been chosen more often than any other label
+ * and the share of annotators who chose it reaches the confidence threshold.
+ */
+public final class DocumentLabelAggregator
+{
+    private DocumentLabelAggregator()
+    {
+        // No instances
+    }
+
+    /**
+     * @param aLabels
+     *            the labels of the annotators. {@code null} stands for an annotator who did not
+     *            label the document.
+     * @return the label chosen by most annotators or nothing if there are no labels or if there is
+     *         a tie.
+     */
+    public static Optional<String> majorityLabel(Collection<String> aLabels)
+    {
+        return chooseLabel(aLabels, 1, 0.0d);
+    }
+
+    /**
+     * @param aLabels
+     *            the labels of the annotators. {@code null} stands for an annotator who did not
+     *            label the document.
+     * @param aMinRepeats
+     *            the number of annotators who must have labelled the document.
+     * @param aConfidenceThreshold
+     *            the share of annotators who must have chosen the label.
+     * @return the chosen label, if any.
+     */
+    public static Optional<String> chooseLabel(Collection<String> aLabels, int aMinRepeats,
+            double aConfidenceThreshold)
+    {
+        Map<String, Integer> votes = new HashMap<>();
+        int labelled = 0;
+        for (String label : aLabels) {
+            if (label != null) {
+                votes.merge(label, 1, Integer::sum);
+                labelled++;
+            }
+        }
+
+        if (labelled == 0 || labelled < aMinRepeats) {
+            return Optional.empty();
+        }
+
+        String best = null;
+        int bestVotes = 0;
+        int secondVotes = 0;
+        for (var entry : votes.entrySet()) {
+            if (entry.getValue() > bestVotes) {
+                secondVotes = bestVotes;
+                bestVotes = entry.getValue();
+                best = entry.getKey();
+            }
+            else if (entry.getValue() > secondVotes) {
+                secondVotes = entry.getValue();
+            }
+        }
+
+        if (bestVotes == secondVotes
+                || (double) bestVotes / aLabels.size() < aConfidenceThreshold) {
+            return Optional.empty();
+        }
+
+        return Optional.of(Objects.requireNonNull(best));
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.labels;
+
+import java.io.IOException;
+import java.util.Map;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocument;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import io.github.reckart.inception.humanprotocol.model.DocumentLabel;
+
+/**
+ * Keeps the labels of {@code document_classification} jobs in the database. The labels of an
+ * annotator are extracted from the annotations of the annotator once when the annotator finishes a
+ * document, so aggregating the labels of a project does not require reading any CAS. A document is
+ * either labelled as a whole or, if several datapoints have been packed into it, per item.
+ */
+public interface DocumentLabelService
+{
+    /**
+     * Extracts the labels from the annotations of the given annotation document and stores them,
+     * replacing any labels stored for it before.
+     */
+    void recordLabels(AnnotationDocument aAnnotationDocument) throws IOException;
+
+    /**
+     * @return the labels of all finished annotation documents of the project by document, item
+     *         and annotator. The label of a document which is labelled as a whole is found under
+     *         the item {@link DocumentLabel#DOCUMENT}, the labels of a packed document under the
+     *         task keys of its items. Labels of documents finished before labels were stored are
+     *         extracted from the annotations and stored on the way. An annotator who did not label
+     *         a document or item is mapped to {@code null}.
+     */
+    Map<SourceDocument, Map<String, Map<String, String>>> listLabels(Project aProject)
+        throws IOException;
+}
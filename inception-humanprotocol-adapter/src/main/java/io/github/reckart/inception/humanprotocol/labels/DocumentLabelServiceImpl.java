@@ -0,0 +1,261 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.labels;
+
+import static de.tudarmstadt.ukp.clarin.webanno.api.CasUpgradeMode.NO_CAS_UPGRADE;
+import static de.tudarmstadt.ukp.clarin.webanno.api.casstorage.CasAccessMode.SHARED_READ_ONLY_ACCESS;
+import static de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocumentState.FINISHED;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_DOCUMENT_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_ITEM_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_KEY_FEATURE;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.VALUE_FEATURE;
+import static io.github.reckart.inception.humanprotocol.model.DocumentLabel.DOCUMENT;
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.groupingBy;
+import static org.apache.uima.fit.util.CasUtil.select;
+import static org.apache.uima.fit.util.CasUtil.selectFS;
+import static org.springframework.transaction.annotation.Propagation.REQUIRES_NEW;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.persistence.EntityManager;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.FeatureStructure;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.fit.util.FSUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.AnnotationStateChangeEvent;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.BeforeProjectRemovedEvent;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocument;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import de.tudarmstadt.ukp.inception.annotation.storage.CasStorageSession;
+import de.tudarmstadt.ukp.inception.schema.AnnotationSchemaService;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
+import io.github.reckart.inception.humanprotocol.model.DocumentLabel;
+import io.github.reckart.inception.humanprotocol.registry.JobRegistryService;
+
+/**
+ * <p>
+ * This class is exposed as a Spring Component via
+ * {@link HumanProtocolAutoConfiguration#documentLabelService}.
+ * </p>
+ */
+public class DocumentLabelServiceImpl
+    implements DocumentLabelService
+{
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final EntityManager entityManager;
+    private final DocumentService documentService;
+    private final AnnotationSchemaService annotationService;
+    private final JobRegistryService jobRegistry;
+
+    public DocumentLabelServiceImpl(EntityManager aEntityManager,
+            DocumentService aDocumentService, AnnotationSchemaService aAnnotationService,
+            JobRegistryService aJobRegistry)
+    {
+        entityManager = aEntityManager;
+        documentService = aDocumentService;
+        annotationService = aAnnotationService;
+        jobRegistry = aJobRegistry;
+    }
+
+    /**
+     * Runs after the transaction which finished the annotation document has been committed, so it
+     * needs a transaction of its own.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = REQUIRES_NEW)
+    public void onAnnotationStateChange(AnnotationStateChangeEvent aEvent)
+    {
+        if (aEvent.getNewState() != FINISHED) {
+            return;
+        }
+
+        AnnotationDocument annDoc = aEvent.getAnnotationDocument();
+        Project project = annDoc.getProject();
+
+        try {
+            if (!jobRegistry.isJobProject(project)
+                    || !(annotationService.existsLayer(CUSTOM_DOCUMENT_LAYER, project)
+                            || annotationService.existsLayer(CUSTOM_ITEM_LAYER, project))) {
+                return;
+            }
+
+            recordLabels(annDoc);
+        }
+        catch (Exception e) {
+            log.error("Unable to record document labels of {}", annDoc, e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordLabels(AnnotationDocument aAnnotationDocument) throws IOException
+    {
+        storeLabels(aAnnotationDocument.getDocument(), aAnnotationDocument.getUser(),
+                extractLabels(aAnnotationDocument));
+    }
+
+    @Override
+    @Transactional
+    public Map<SourceDocument, Map<String, Map<String, String>>> listLabels(Project aProject)
+        throws IOException
+    {
+        String query = "FROM DocumentLabel WHERE project = :project ORDER BY id";
+        Map<Pair<Long, String>, List<DocumentLabel>> stored = entityManager
+                .createQuery(query, DocumentLabel.class) //
+                .setParameter("project", aProject) //
+                .getResultStream() //
+                .collect(groupingBy(label -> Pair.of(label.getDocument().getId(),
+                        label.getAnnotator())));
+
+        Map<SourceDocument, Map<String, Map<String, String>>> labels = new LinkedHashMap<>();
+        List<AnnotationDocument> finishedAnnDocuments = documentService
+                .listFinishedAnnotationDocuments(aProject);
+        int extracted = 0;
+        for (AnnotationDocument annDoc : finishedAnnDocuments) {
+            List<DocumentLabel> annLabels = stored
+                    .get(Pair.of(annDoc.getDocument().getId(), annDoc.getUser()));
+            if (annLabels == null) {
+                annLabels = storeLabels(annDoc.getDocument(), annDoc.getUser(),
+                        extractLabels(annDoc));
+                extracted++;
+            }
+
+            Map<String, Map<String, String>> docLabels = labels
+                    .computeIfAbsent(annDoc.getDocument(), doc -> new LinkedHashMap<>());
+            for (DocumentLabel label : annLabels) {
+                docLabels.computeIfAbsent(label.getItem(), item -> new LinkedHashMap<>())
+                        .put(annDoc.getUser(), label.getLabel());
+            }
+        }
+
+        if (extracted > 0) {
+            log.info("Extracted {} of {} document labels of {} from the annotations", extracted,
+                    finishedAnnDocuments.size(), aProject);
+        }
+
+        return labels;
+    }
+
+    private List<DocumentLabel> storeLabels(SourceDocument aDocument, String aAnnotator,
+            Map<String, String> aLabels)
+    {
+        // A bulk delete is executed right away, so the new labels do not collide with the old
+        // ones when the persistence context is flushed
+        entityManager.createQuery(
+                "DELETE FROM DocumentLabel WHERE document = :document AND annotator = :annotator")
+                .setParameter("document", aDocument) //
+                .setParameter("annotator", aAnnotator) //
+                .executeUpdate();
+
+        List<DocumentLabel> labels = new ArrayList<>();
+        for (Entry<String, String> e : aLabels.entrySet()) {
+            DocumentLabel label = new DocumentLabel(aDocument, aAnnotator, e.getKey(),
+                    e.getValue());
+            entityManager.persist(label);
+            labels.add(label);
+        }
+        return labels;
+    }
+
+    /**
+     * Projects the annotations of the annotation document down to the values of its item tags or,
+     * if it has none, to the value of its document tag.
+     */
+    private Map<String, String> extractLabels(AnnotationDocument aAnnotationDocument)
+        throws IOException
+    {
+        try (var session = CasStorageSession.openNested()) {
+            CAS cas = documentService.readAnnotationCas(aAnnotationDocument.getDocument(),
+                    aAnnotationDocument.getUser(), NO_CAS_UPGRADE, SHARED_READ_ONLY_ACCESS);
+
+            Map<String, String> itemLabels = extractItemLabels(cas);
+            if (!itemLabels.isEmpty()) {
+                return itemLabels;
+            }
+
+            return singletonMap(DOCUMENT, extractDocumentLabel(cas));
+        }
+    }
+
+    private static Map<String, String> extractItemLabels(CAS aCas)
+    {
+        Map<String, String> labels = new LinkedHashMap<>();
+
+        Type type = aCas.getTypeSystem().getType(CUSTOM_ITEM_LAYER);
+        if (type == null) {
+            return labels;
+        }
+
+        for (AnnotationFS tag : select(aCas, type)) {
+            String taskKey = FSUtil.getFeature(tag, TASK_KEY_FEATURE, String.class);
+            if (taskKey == null) {
+                continue;
+            }
+
+            // Keep the first value if there happen to be several tags for the same item
+            if (labels.get(taskKey) == null) {
+                labels.put(taskKey, FSUtil.getFeature(tag, VALUE_FEATURE, String.class));
+            }
+        }
+
+        return labels;
+    }
+
+    private static String extractDocumentLabel(CAS aCas)
+    {
+        Type type = aCas.getTypeSystem().getType(CUSTOM_DOCUMENT_LAYER);
+        if (type == null) {
+            return null;
+        }
+
+        for (FeatureStructure tag : selectFS(aCas, type)) {
+            String label = FSUtil.getFeature(tag, VALUE_FEATURE, String.class);
+            if (label != null) {
+                return label;
+            }
+        }
+
+        return null;
+    }
+
+    @EventListener
+    @Transactional
+    public void onBeforeProjectRemoved(BeforeProjectRemovedEvent aEvent)
+    {
+        entityManager.createQuery("DELETE FROM DocumentLabel WHERE project = :project") //
+                .setParameter("project", aEvent.getProject()) //
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.messages;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Statistics about the local cache of datapoints. Sizes are given in bytes.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class DatapointCacheStatistics
+{
+    private int entries;
+    private long size;
+    private long budget;
+    private long hits;
+    private long misses;
+    private long savedBytes;
+
+    public int getEntries()
+    {
+        return entries;
+    }
+
+    public void setEntries(int aEntries)
+    {
+        entries = aEntries;
+    }
+
+    public long getSize()
+    {
+        return size;
+    }
+
+    public void setSize(long aSize)
+    {
+        size = aSize;
+    }
+
+    public long getBudget()
+    {
+        return budget;
+    }
+
+    public void setBudget(long aBudget)
+    {
+        budget = aBudget;
+    }
+
+    public long getHits()
+    {
+        return hits;
+    }
+
+    public void setHits(long aHits)
+    {
+        hits = aHits;
+    }
+
+    public long getMisses()
+    {
+        return misses;
+    }
+
+    public void setMisses(long aMisses)
+    {
+        misses = aMisses;
+    }
+
+    public long getSavedBytes()
+    {
+        return savedBytes;
+    }
+
+    /**
+     * @param aSavedBytes
+     *            the number of bytes which did not have to be downloaded because they were served
+     *            from the cache
+     */
+    public void setSavedBytes(long aSavedBytes)
+    {
+        savedBytes = aSavedBytes;
+    }
+}
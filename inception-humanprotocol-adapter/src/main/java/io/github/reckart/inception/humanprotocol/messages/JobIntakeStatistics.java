@@ -0,0 +1,179 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.messages;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Statistics about the job intake queue which help sizing nodes. Times are given in milliseconds
+ * and are computed over the most recently finished jobs.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class JobIntakeStatistics
+{
+    private int concurrency;
+    private int queueCapacity;
+    private int queueDepth;
+    private int running;
+    private long completed;
+    private long failed;
+    private long rejected;
+    private long averageWaitTime;
+    private long maxWaitTime;
+    private long averageProcessingTime;
+    private double throughputPerHour;
+    private long retryAfter;
+    private DatapointCacheStatistics datapointCache;
+
+    public int getConcurrency()
+    {
+        return concurrency;
+    }
+
+    public void setConcurrency(int aConcurrency)
+    {
+        concurrency = aConcurrency;
+    }
+
+    public int getQueueCapacity()
+    {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int aQueueCapacity)
+    {
+        queueCapacity = aQueueCapacity;
+    }
+
+    public int getQueueDepth()
+    {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int aQueueDepth)
+    {
+        queueDepth = aQueueDepth;
+    }
+
+    public int getRunning()
+    {
+        return running;
+    }
+
+    public void setRunning(int aRunning)
+    {
+        running = aRunning;
+    }
+
+    public long getCompleted()
+    {
+        return completed;
+    }
+
+    public void setCompleted(long aCompleted)
+    {
+        completed = aCompleted;
+    }
+
+    public long getFailed()
+    {
+        return failed;
+    }
+
+    public void setFailed(long aFailed)
+    {
+        failed = aFailed;
+    }
+
+    public long getRejected()
+    {
+        return rejected;
+    }
+
+    public void setRejected(long aRejected)
+    {
+        rejected = aRejected;
+    }
+
+    public long getAverageWaitTime()
+    {
+        return averageWaitTime;
+    }
+
+    public void setAverageWaitTime(long aAverageWaitTime)
+    {
+        averageWaitTime = aAverageWaitTime;
+    }
+
+    public long getMaxWaitTime()
+    {
+        return maxWaitTime;
+    }
+
+    public void setMaxWaitTime(long aMaxWaitTime)
+    {
+        maxWaitTime = aMaxWaitTime;
+    }
+
+    public long getAverageProcessingTime()
+    {
+        return averageProcessingTime;
+    }
+
+    public void setAverageProcessingTime(long aAverageProcessingTime)
+    {
+        averageProcessingTime = aAverageProcessingTime;
+    }
+
+    public double getThroughputPerHour()
+    {
+        return throughputPerHour;
+    }
+
+    public void setThroughputPerHour(double aThroughputPerHour)
+    {
+        throughputPerHour = aThroughputPerHour;
+    }
+
+    public long getRetryAfter()
+    {
+        return retryAfter;
+    }
+
+    /**
+     * @param aRetryAfter
+     *            the delay (in seconds) a client would currently be asked to wait if the queue was
+     *            full
+     */
+    public void setRetryAfter(long aRetryAfter)
+    {
+        retryAfter = aRetryAfter;
+    }
+
+    public DatapointCacheStatistics getDatapointCache()
+    {
+        return datapointCache;
+    }
+
+    public void setDatapointCache(DatapointCacheStatistics aDatapointCache)
+    {
+        datapointCache = aDatapointCache;
+    }
+}
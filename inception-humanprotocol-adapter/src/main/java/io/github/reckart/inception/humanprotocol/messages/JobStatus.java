@@ -0,0 +1,184 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.messages;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import io.github.reckart.inception.humanprotocol.model.JobPhase;
+import io.github.reckart.inception.humanprotocol.model.JobState;
+
+/**
+ * Status of a job submission as reported by the job status resource.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(Include.NON_NULL)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class JobStatus
+{
+    private int networkId;
+    private String jobAddress;
+    private JobState state;
+    private JobPhase phase;
+    private long progress;
+    private long progressMax;
+    private Long projectId;
+    private String project;
+    private String message;
+    private long submitted;
+    private long started;
+    private long finished;
+
+    public int getNetworkId()
+    {
+        return networkId;
+    }
+
+    public void setNetworkId(int aNetworkId)
+    {
+        networkId = aNetworkId;
+    }
+
+    public String getJobAddress()
+    {
+        return jobAddress;
+    }
+
+    public void setJobAddress(String aJobAddress)
+    {
+        jobAddress = aJobAddress;
+    }
+
+    public JobState getState()
+    {
+        return state;
+    }
+
+    public void setState(JobState aState)
+    {
+        state = aState;
+    }
+
+    public JobPhase getPhase()
+    {
+        return phase;
+    }
+
+    public void setPhase(JobPhase aPhase)
+    {
+        phase = aPhase;
+    }
+
+    public long getProgress()
+    {
+        return progress;
+    }
+
+    /**
+     * @param aProgress
+     *            number of units of work completed in the current phase
+     */
+    public void setProgress(long aProgress)
+    {
+        progress = aProgress;
+    }
+
+    public long getProgressMax()
+    {
+        return progressMax;
+    }
+
+    /**
+     * @param aProgressMax
+     *            total number of units of work in the current phase or {@code -1} if unknown
+     */
+    public void setProgressMax(long aProgressMax)
+    {
+        progressMax = aProgressMax;
+    }
+
+    public Long getProjectId()
+    {
+        return projectId;
+    }
+
+    public void setProjectId(Long aProjectId)
+    {
+        projectId = aProjectId;
+    }
+
+    public String getProject()
+    {
+        return project;
+    }
+
+    /**
+     * @param aProject
+     *            slug of the project created for the job
+     */
+    public void setProject(String aProject)
+    {
+        project = aProject;
+    }
+
+    public String getMessage()
+    {
+        return message;
+    }
+
+    public void setMessage(String aMessage)
+    {
+        message = aMessage;
+    }
+
+    public long getSubmitted()
+    {
+        return submitted;
+    }
+
+    /**
+     * @param aSubmitted
+     *            time the job was accepted (milliseconds, UTC epoch time)
+     */
+    public void setSubmitted(long aSubmitted)
+    {
+        submitted = aSubmitted;
+    }
+
+    public long getStarted()
+    {
+        return started;
+    }
+
+    public void setStarted(long aStarted)
+    {
+        started = aStarted;
+    }
+
+    public long getFinished()
+    {
+        return finished;
+    }
+
+    public void setFinished(long aFinished)
+    {
+        finished = aFinished;
+    }
+}
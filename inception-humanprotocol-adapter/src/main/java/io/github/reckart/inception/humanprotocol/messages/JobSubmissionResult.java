@@ -0,0 +1,103 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.messages;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Result for a single job of a batch submission. The {@code status} is the HTTP status code the
+ * job would have been answered with if it had been submitted on its own.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(Include.NON_NULL)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class JobSubmissionResult
+{
+    private int networkId;
+    private String jobAddress;
+    private int status;
+    private String message;
+    private Long retryAfter;
+    private JobStatus job;
+
+    public int getNetworkId()
+    {
+        return networkId;
+    }
+
+    public void setNetworkId(int aNetworkId)
+    {
+        networkId = aNetworkId;
+    }
+
+    public String getJobAddress()
+    {
+        return jobAddress;
+    }
+
+    public void setJobAddress(String aJobAddress)
+    {
+        jobAddress = aJobAddress;
+    }
+
+    public int getStatus()
+    {
+        return status;
+    }
+
+    public void setStatus(int aStatus)
+    {
+        status = aStatus;
+    }
+
+    public String getMessage()
+    {
+        return message;
+    }
+
+    public void setMessage(String aMessage)
+    {
+        message = aMessage;
+    }
+
+    /**
+     * @return the number of seconds after which a rejected job should be submitted again.
+     */
+    public Long getRetryAfter()
+    {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Long aRetryAfter)
+    {
+        retryAfter = aRetryAfter;
+    }
+
+    public JobStatus getJob()
+    {
+        return job;
+    }
+
+    public void setJob(JobStatus aJob)
+    {
+        job = aJob;
+    }
+}
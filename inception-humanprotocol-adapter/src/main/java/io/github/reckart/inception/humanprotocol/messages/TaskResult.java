@@ -0,0 +1,258 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.messages;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * The result of a single task as published in the task results file. The file holds one such
+ * record per line. The label is only present for jobs which label documents or items and the spans
+ * only for jobs which select spans. Span offsets are relative to the datapoint of the task. If the
+ * task has not been curated, the label and spans of each annotator who finished it are given as
+ * answers instead.
+ * 
+ * <pre>
+ * <code>
+ * {
+ *   "task_key": <string>,
+ *   "datapoint_hash": <string>,
+ *   "curated": <boolean>,
+ *   "label": <string>,
+ *   "spans": [
+ *     {
+ *       "begin": <int>,
+ *       "end": <int>,
+ *       "label": <string>
+ *     }
+ *     ...
+ *   ],
+ *   "answers": [
+ *     {
+ *       "wallet": <string>,
+ *       "label": <string>,
+ *       "spans": [ ... ]
+ *     }
+ *     ...
+ *   ],
+ *   "wallets": ['<string:wallet>']
+ * }
+ * </code>
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@JsonInclude(Include.NON_NULL)
+public class TaskResult
+{
+    private String taskKey;
+    private String datapointHash;
+    private boolean curated;
+    private String label;
+    private List<Span> spans;
+    private List<Answer> answers;
+    private List<String> wallets;
+
+    public String getTaskKey()
+    {
+        return taskKey;
+    }
+
+    public void setTaskKey(String aTaskKey)
+    {
+        taskKey = aTaskKey;
+    }
+
+    public String getDatapointHash()
+    {
+        return datapointHash;
+    }
+
+    public void setDatapointHash(String aDatapointHash)
+    {
+        datapointHash = aDatapointHash;
+    }
+
+    /**
+     * @return whether the task has been curated. The label and spans of a task which has not been
+     *         curated are absent, its answers are present instead.
+     */
+    public boolean isCurated()
+    {
+        return curated;
+    }
+
+    public void setCurated(boolean aCurated)
+    {
+        curated = aCurated;
+    }
+
+    public String getLabel()
+    {
+        return label;
+    }
+
+    public void setLabel(String aLabel)
+    {
+        label = aLabel;
+    }
+
+    public List<Span> getSpans()
+    {
+        return spans;
+    }
+
+    public void setSpans(List<Span> aSpans)
+    {
+        spans = aSpans;
+    }
+
+    /**
+     * @return the label and spans of each annotator who finished the task if the task has not been
+     *         curated.
+     */
+    public List<Answer> getAnswers()
+    {
+        return answers;
+    }
+
+    public void setAnswers(List<Answer> aAnswers)
+    {
+        answers = aAnswers;
+    }
+
+    /**
+     * @return the wallets of the annotators who finished the task.
+     */
+    public List<String> getWallets()
+    {
+        return wallets;
+    }
+
+    public void setWallets(List<String> aWallets)
+    {
+        wallets = aWallets;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    @JsonInclude(Include.NON_NULL)
+    public static class Answer
+    {
+        private String wallet;
+        private String label;
+        private List<Span> spans;
+
+        public Answer()
+        {
+            // Nothing to do
+        }
+
+        public Answer(String aWallet, String aLabel, List<Span> aSpans)
+        {
+            wallet = aWallet;
+            label = aLabel;
+            spans = aSpans;
+        }
+
+        public String getWallet()
+        {
+            return wallet;
+        }
+
+        public void setWallet(String aWallet)
+        {
+            wallet = aWallet;
+        }
+
+        public String getLabel()
+        {
+            return label;
+        }
+
+        public void setLabel(String aLabel)
+        {
+            label = aLabel;
+        }
+
+        public List<Span> getSpans()
+        {
+            return spans;
+        }
+
+        public void setSpans(List<Span> aSpans)
+        {
+            spans = aSpans;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public static class Span
+    {
+        private int begin;
+        private int end;
+        private String label;
+
+        public Span()
+        {
+            // Nothing to do
+        }
+
+        public Span(int aBegin, int aEnd, String aLabel)
+        {
+            begin = aBegin;
+            end = aEnd;
+            label = aLabel;
+        }
+
+        public int getBegin()
+        {
+            return begin;
+        }
+
+        public void setBegin(int aBegin)
+        {
+            begin = aBegin;
+        }
+
+        public int getEnd()
+        {
+            return end;
+        }
+
+        public void setEnd(int aEnd)
+        {
+            end = aEnd;
+        }
+
+        public String getLabel()
+        {
+            return label;
+        }
+
+        public void setLabel(String aLabel)
+        {
+            label = aLabel;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.model;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+
+/**
+ * The digest of everything the curation CAS of a document has been created from, so curation can
+ * be skipped if nothing has changed since.
+ */
+@Entity
+@Table(name = "hmt_curation_fingerprint", //
+        uniqueConstraints = { //
+                @UniqueConstraint(columnNames = { "document" }) }, //
+        indexes = { //
+                @Index(name = "idx_hmt_curation_fingerprint_project", columnList = "project") })
+public class CurationFingerprint
+    implements Serializable
+{
+    private static final long serialVersionUID = -1843266425109582254L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "project", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Project project;
+
+    @ManyToOne
+    @JoinColumn(name = "document", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private SourceDocument document;
+
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "updated", nullable = false)
+    private Date updated;
+
+    public CurationFingerprint()
+    {
+        // Required by JPA
+    }
+
+    public CurationFingerprint(SourceDocument aDocument, String aFingerprint)
+    {
+        project = aDocument.getProject();
+        document = aDocument;
+        fingerprint = aFingerprint;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate()
+    {
+        updated = new Date();
+    }
+
+    public Long getId()
+    {
+        return id;
+    }
+
+    public Project getProject()
+    {
+        return project;
+    }
+
+    public SourceDocument getDocument()
+    {
+        return document;
+    }
+
+    /**
+     * @return the SHA-256 digest of the curation input.
+     */
+    public String getFingerprint()
+    {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String aFingerprint)
+    {
+        fingerprint = aFingerprint;
+    }
+
+    public Date getUpdated()
+    {
+        return updated;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE) //
+                .append("document", document) //
+                .append("fingerprint", fingerprint) //
+                .toString();
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.model;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+
+/**
+ * The label an annotator has assigned to a document of a {@code document_classification} job,
+ * extracted from the annotations of the annotator when the annotator finished the document. A
+ * packed document has one label per item, identified by the task key of the item.
+ */
+@Entity
+@Table(name = "hmt_document_label", //
+        uniqueConstraints = { //
+                @UniqueConstraint(columnNames = { "document", "annotator", "item" }) }, //
+        indexes = { //
+                @Index(name = "idx_hmt_document_label_project", columnList = "project") })
+public class DocumentLabel
+    implements Serializable
+{
+    private static final long serialVersionUID = 2748515395932416610L;
+
+    /**
+     * The item under which the label of a document which is labelled as a whole is stored.
+     */
+    public static final String DOCUMENT = "";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "project", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Project project;
+
+    @ManyToOne
+    @JoinColumn(name = "document", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private SourceDocument document;
+
+    @Column(name = "annotator", nullable = false)
+    private String annotator;
+
+    @Column(name = "item", nullable = false)
+    private String item;
+
+    @Column(name = "label")
+    private String label;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "updated", nullable = false)
+    private Date updated;
+
+    public DocumentLabel()
+    {
+        // Required by JPA
+    }
+
+    public DocumentLabel(SourceDocument aDocument, String aAnnotator, String aItem, String aLabel)
+    {
+        project = aDocument.getProject();
+        document = aDocument;
+        annotator = aAnnotator;
+        item = aItem;
+        label = aLabel;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate()
+    {
+        updated = new Date();
+    }
+
+    public Long getId()
+    {
+        return id;
+    }
+
+    public Project getProject()
+    {
+        return project;
+    }
+
+    public SourceDocument getDocument()
+    {
+        return document;
+    }
+
+    public String getAnnotator()
+    {
+        return annotator;
+    }
+
+    /**
+     * @return the task key of the item or {@link #DOCUMENT} if the document is labelled as a
+     *         whole.
+     */
+    public String getItem()
+    {
+        return item;
+    }
+
+    /**
+     * @return the label or {@code null} if the annotator did not label the document or item.
+     */
+    public String getLabel()
+    {
+        return label;
+    }
+
+    public void setLabel(String aLabel)
+    {
+        label = aLabel;
+    }
+
+    public Date getUpdated()
+    {
+        return updated;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE) //
+                .append("document", document) //
+                .append("annotator", annotator) //
+                .append("item", item) //
+                .append("label", label) //
+                .toString();
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.model;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+
+/**
+ * Links a project to the HUMAN Protocol job it has been created for. A job whose project could not
+ * be set up has no project.
+ */
+@Entity
+@Table(name = "hmt_job", //
+        uniqueConstraints = { //
+                @UniqueConstraint(columnNames = { "network_id", "job_address" }), //
+                @UniqueConstraint(columnNames = { "project" }) }, //
+        indexes = { //
+                @Index(name = "idx_hmt_job_state", columnList = "state") })
+public class HumanProtocolJob
+    implements Serializable
+{
+    private static final long serialVersionUID = -4526410918257004339L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "project")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Project project;
+
+    @Column(name = "network_id", nullable = false)
+    private int networkId;
+
+    @Column(name = "job_address", nullable = false)
+    private String jobAddress;
+
+    @Column(name = "manifest_digest", length = 64)
+    private String manifestDigest;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 32)
+    private JobState state;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "results_published")
+    private Date resultsPublished;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created", nullable = false)
+    private Date created;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "updated", nullable = false)
+    private Date updated;
+
+    public HumanProtocolJob()
+    {
+        // Required by JPA
+    }
+
+    public HumanProtocolJob(Project aProject, int aNetworkId, String aJobAddress)
+    {
+        project = aProject;
+        networkId = aNetworkId;
+        jobAddress = aJobAddress;
+        state = JobState.RUNNING;
+    }
+
+    @PrePersist
+    protected void onCreate()
+    {
+        created = new Date();
+        updated = created;
+    }
+
+    @PreUpdate
+    protected void onUpdate()
+    {
+        updated = new Date();
+    }
+
+    public Long getId()
+    {
+        return id;
+    }
+
+    public Project getProject()
+    {
+        return project;
+    }
+
+    public void setProject(Project aProject)
+    {
+        project = aProject;
+    }
+
+    public int getNetworkId()
+    {
+        return networkId;
+    }
+
+    public String getJobAddress()
+    {
+        return jobAddress;
+    }
+
+    /**
+     * @return the SHA-256 digest of the job manifest as stored with the project.
+     */
+    public String getManifestDigest()
+    {
+        return manifestDigest;
+    }
+
+    public void setManifestDigest(String aManifestDigest)
+    {
+        manifestDigest = aManifestDigest;
+    }
+
+    public JobState getState()
+    {
+        return state;
+    }
+
+    public void setState(JobState aState)
+    {
+        state = aState;
+    }
+
+    /**
+     * @return when the results of the job have been published or {@code null} if they have not
+     *         been published yet.
+     */
+    public Date getResultsPublished()
+    {
+        return resultsPublished;
+    }
+
+    public void setResultsPublished(Date aResultsPublished)
+    {
+        resultsPublished = aResultsPublished;
+    }
+
+    public Date getCreated()
+    {
+        return created;
+    }
+
+    public Date getUpdated()
+    {
+        return updated;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE) //
+                .append("networkId", networkId) //
+                .append("jobAddress", jobAddress) //
+                .append("state", state) //
+                .toString();
+    }
+}
@@ -131,6 +131,21 @@ public class JobManifest
         return OptionalDouble.of(requesterAccuracyTarget);
     }
 
+    /**
+     * @return the number of annotators a task is assigned to at most. Without an accuracy target,
+     *         every task is assigned to exactly the min repeats annotators. With an accuracy
+     *         target, a task is assigned to further annotators up to the max repeats until its
+     *         annotators agree.
+     */
+    public int maxRepeats()
+    {
+        if (requesterAccuracyTarget == null) {
+            return requesterMinRepeats;
+        }
+
+        return Math.max(requesterMinRepeats, requesterMaxRepeats);
+    }
+
     /**
      * @param aRequesterAccuracyTarget
      *            0-1 - stop asking when min repeats is met and task accuracy exceeds this target.
@@ -0,0 +1,43 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.model;
+
+/**
+ * Phases a job goes through while its project is being set up.
+ */
+public enum JobPhase
+{
+    /**
+     * Fetching, storing and parsing the job manifest.
+     */
+    MANIFEST,
+
+    /**
+     * Creating the annotation schema and workload configuration.
+     */
+    SCHEMA,
+
+    /**
+     * Fetching and importing the task data.
+     */
+    TASK_DATA,
+
+    /**
+     * Generating the invite link and notifying the Job Flow.
+     */
+    INVITE
+}
@@ -0,0 +1,54 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.model;
+
+/**
+ * Lifecycle state of a job submitted to the exchange.
+ */
+public enum JobState
+{
+    /**
+     * The job has been accepted and is waiting for a free intake worker.
+     */
+    QUEUED,
+
+    /**
+     * The project for the job is being set up.
+     */
+    RUNNING,
+
+    /**
+     * Some of the task data could not be ingested. The project and the datapoints ingested so far
+     * have been kept and the job can be resumed.
+     */
+    PARTIALLY_INGESTED,
+
+    /**
+     * The project has been set up and the invite link has been published.
+     */
+    COMPLETED,
+
+    /**
+     * Setting up the project failed.
+     */
+    FAILED;
+
+    public boolean isTerminal()
+    {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.model;
+
+/**
+ * Formats in which the results of a job are published.
+ */
+public enum ResultsFormat
+{
+    /**
+     * One JSON record per task holding the curated result of the task and the annotators who
+     * contributed to it.
+     */
+    TASK_RESULTS,
+
+    /**
+     * A full project export including all annotations in UIMA CAS XMI format.
+     */
+    PROJECT_EXPORT
+}
@@ -0,0 +1,49 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.pool;
+
+import java.util.Optional;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+
+/**
+ * Keeps a number of blank projects around which have already been created and initialized with
+ * everything that does not depend on a particular job. This reduces the time it takes to get a
+ * new job ready for annotators.
+ */
+public interface ProjectPoolService
+{
+    String POOL_SLUG_PREFIX = "hmt-pool-";
+
+    /**
+     * Takes a project from the pool. The project then belongs to the caller who is expected to
+     * rename it. The pool is refilled in the background.
+     * 
+     * @return a pre-initialized project or nothing if the pool is disabled or empty.
+     */
+    Optional<Project> claim();
+
+    /**
+     * @return the number of projects currently available in the pool.
+     */
+    int getAvailable();
+
+    /**
+     * Creates projects until the pool has reached its target size.
+     */
+    void refill();
+}
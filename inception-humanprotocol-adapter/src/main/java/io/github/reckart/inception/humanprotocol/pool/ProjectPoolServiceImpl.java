@@ -0,0 +1,189 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.pool;
+
+import static io.github.reckart.inception.humanprotocol.security.SecurityContextUtils.createHumanProtocolSecurityContext;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.persistence.NoResultException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.ProjectService;
+import de.tudarmstadt.ukp.clarin.webanno.api.project.ProjectInitializer;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.project.initializers.SentenceLayerInitializer;
+import de.tudarmstadt.ukp.clarin.webanno.project.initializers.TokenLayerInitializer;
+import de.tudarmstadt.ukp.inception.annotation.storage.CasStorageSession;
+import de.tudarmstadt.ukp.inception.sharing.InviteService;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolProperties;
+
+/**
+ * <p>
+ * This class is exposed as a Spring Component via
+ * {@link HumanProtocolAutoConfiguration#projectPoolService}.
+ * </p>
+ */
+public class ProjectPoolServiceImpl
+    implements ProjectPoolService, DisposableBean
+{
+    private static final String POOL_PROJECT_NAME = "HUMAN Protocol project pool";
+    private static final long REFILL_INTERVAL_SECONDS = 60;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ProjectService projectService;
+    private final InviteService inviteService;
+    private final HumanProtocolProperties hmtProperties;
+    private final List<ProjectInitializer> initializers;
+
+    private final Deque<Long> available = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean refillRequested = new AtomicBoolean();
+    private final ScheduledExecutorService refiller;
+
+    public ProjectPoolServiceImpl(ProjectService aProjectService, InviteService aInviteService,
+            TokenLayerInitializer aTokenLayerInitializer,
+            SentenceLayerInitializer aSentenceLayerInitializer,
+            HumanProtocolProperties aHmtProperties)
+    {
+        projectService = aProjectService;
+        inviteService = aInviteService;
+        hmtProperties = aHmtProperties;
+        initializers = asList(aTokenLayerInitializer, aSentenceLayerInitializer);
+        refiller = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("hmt-project-pool-"));
+    }
+
+    @Override
+    public void destroy()
+    {
+        refiller.shutdownNow();
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent aEvent)
+    {
+        // Adopt the projects which were left in the pool before the last shutdown
+        projectService.listProjects().stream() //
+                .filter(project -> project.getSlug().startsWith(POOL_SLUG_PREFIX)) //
+                .forEach(project -> available.add(project.getId()));
+
+        refiller.scheduleWithFixedDelay(this::refill, 0, REFILL_INTERVAL_SECONDS, SECONDS);
+    }
+
+    @Override
+    public Optional<Project> claim()
+    {
+        if (hmtProperties.getProjectPoolSize() == 0) {
+            return Optional.empty();
+        }
+
+        try {
+            Long projectId;
+            while ((projectId = available.poll()) != null) {
+                try {
+                    return Optional.of(projectService.getProject(projectId));
+                }
+                catch (NoResultException e) {
+                    // The project has been deleted while it was in the pool - try the next one
+                }
+            }
+
+            log.debug("Project pool is empty");
+            return Optional.empty();
+        }
+        finally {
+            requestRefill();
+        }
+    }
+
+    @Override
+    public int getAvailable()
+    {
+        return available.size();
+    }
+
+    private void requestRefill()
+    {
+        // Claims in quick succession only trigger a single refill
+        if (refillRequested.compareAndSet(false, true)) {
+            refiller.execute(() -> {
+                refillRequested.set(false);
+                refill();
+            });
+        }
+    }
+
+    @Override
+    public synchronized void refill()
+    {
+        SecurityContext callerContext = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(createHumanProtocolSecurityContext());
+        try (CasStorageSession session = CasStorageSession.open()) {
+            while (available.size() < hmtProperties.getProjectPoolSize()) {
+                available.add(createPooledProject().getId());
+            }
+        }
+        catch (Exception e) {
+            log.error("Unable to refill project pool", e);
+        }
+        finally {
+            SecurityContextHolder.setContext(callerContext);
+        }
+    }
+
+    private Project createPooledProject() throws Exception
+    {
+        Project project = new Project();
+        project.setSlug(projectService.deriveUniqueSlug(POOL_SLUG_PREFIX + "project"));
+        project.setName(POOL_PROJECT_NAME);
+        projectService.createProject(project);
+
+        try {
+            projectService.initializeProject(project, initializers);
+
+            // The invite cannot be used before the project has been claimed because it is
+            // already expired. The actual expiration date is set when the job is set up.
+            inviteService.generateInviteWithExpirationDate(project, new Date());
+        }
+        catch (Exception e) {
+            projectService.removeProject(project);
+            throw e;
+        }
+
+        log.info("Added project {} to the project pool", project.getSlug());
+        return project;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.registry;
+
+import java.util.Optional;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import io.github.reckart.inception.humanprotocol.model.HumanProtocolJob;
+import io.github.reckart.inception.humanprotocol.model.JobState;
+
+/**
+ * Keeps track of which project has been created for which HUMAN Protocol job. All lookups are
+ * answered from the database, so checking whether a project belongs to a job does not require
+ * access to the files stored with the project.
+ */
+public interface JobRegistryService
+{
+    /**
+     * Registers the project as the project of the given job. If the job has been registered
+     * before, e.g. because its earlier project could not be set up completely, it is moved to the
+     * given project.
+     */
+    HumanProtocolJob registerJob(Project aProject, int aNetworkId, String aJobAddress);
+
+    void updateManifestDigest(Project aProject, String aManifestDigest);
+
+    void updateState(Project aProject, JobState aState);
+
+    void markResultsPublished(Project aProject);
+
+    /**
+     * Marks the job of the project as failed and detaches it from the project, which is about to
+     * be removed. The job remains registered until it is submitted again.
+     */
+    void markFailed(Project aProject);
+
+    Optional<HumanProtocolJob> getJob(Project aProject);
+
+    boolean isJobProject(Project aProject);
+}
@@ -0,0 +1,155 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.registry;
+
+import java.util.Date;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.event.BeforeProjectRemovedEvent;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
+import io.github.reckart.inception.humanprotocol.model.HumanProtocolJob;
+import io.github.reckart.inception.humanprotocol.model.JobState;
+
+/**
+ * <p>
+ * This class is exposed as a Spring Component via
+ * {@link HumanProtocolAutoConfiguration#jobRegistryService}.
+ * </p>
+ */
+public class JobRegistryServiceImpl
+    implements JobRegistryService
+{
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final EntityManager entityManager;
+
+    public JobRegistryServiceImpl(EntityManager aEntityManager)
+    {
+        entityManager = aEntityManager;
+    }
+
+    @Override
+    @Transactional
+    public HumanProtocolJob registerJob(Project aProject, int aNetworkId, String aJobAddress)
+    {
+        Optional<HumanProtocolJob> existing = findJob(aNetworkId, aJobAddress);
+        if (existing.isPresent()) {
+            HumanProtocolJob job = existing.get();
+            if (!aProject.equals(job.getProject())) {
+                log.info("Moving job {} from {} to {}", job, job.getProject(), aProject);
+                job.setProject(aProject);
+                job.setState(JobState.RUNNING);
+            }
+            return entityManager.merge(job);
+        }
+
+        HumanProtocolJob job = new HumanProtocolJob(aProject, aNetworkId, aJobAddress);
+        entityManager.persist(job);
+        return job;
+    }
+
+    @Override
+    @Transactional
+    public void updateManifestDigest(Project aProject, String aManifestDigest)
+    {
+        getJob(aProject).ifPresent(job -> {
+            job.setManifestDigest(aManifestDigest);
+            entityManager.merge(job);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void updateState(Project aProject, JobState aState)
+    {
+        getJob(aProject).ifPresent(job -> {
+            job.setState(aState);
+            entityManager.merge(job);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void markResultsPublished(Project aProject)
+    {
+        getJob(aProject).ifPresent(job -> {
+            job.setResultsPublished(new Date());
+            entityManager.merge(job);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void markFailed(Project aProject)
+    {
+        getJob(aProject).ifPresent(job -> {
+            job.setState(JobState.FAILED);
+            job.setProject(null);
+            entityManager.merge(job);
+        });
+    }
+
+    @Override
+    @Transactional
+    public Optional<HumanProtocolJob> getJob(Project aProject)
+    {
+        String query = "FROM HumanProtocolJob WHERE project = :project";
+        return entityManager.createQuery(query, HumanProtocolJob.class) //
+                .setParameter("project", aProject) //
+                .getResultStream() //
+                .findFirst();
+    }
+
+    private Optional<HumanProtocolJob> findJob(int aNetworkId, String aJobAddress)
+    {
+        String query = String.join("\n", //
+                "FROM HumanProtocolJob", //
+                "WHERE networkId = :networkId AND jobAddress = :jobAddress");
+        return entityManager.createQuery(query, HumanProtocolJob.class) //
+                .setParameter("networkId", aNetworkId) //
+                .setParameter("jobAddress", aJobAddress) //
+                .getResultStream() //
+                .findFirst();
+    }
+
+    @Override
+    @Transactional
+    public boolean isJobProject(Project aProject)
+    {
+        String query = "SELECT COUNT(*) FROM HumanProtocolJob WHERE project = :project";
+        return entityManager.createQuery(query, Long.class) //
+                .setParameter("project", aProject) //
+                .getSingleResult() > 0;
+    }
+
+    @EventListener
+    @Transactional
+    public void onBeforeProjectRemoved(BeforeProjectRemovedEvent aEvent)
+    {
+        entityManager.createQuery("DELETE FROM HumanProtocolJob WHERE project = :project") //
+                .setParameter("project", aEvent.getProject()) //
+                .executeUpdate();
+    }
+}
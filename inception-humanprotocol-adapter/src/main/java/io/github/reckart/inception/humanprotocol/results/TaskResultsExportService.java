@@ -0,0 +1,44 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.results;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import io.github.reckart.inception.humanprotocol.messages.TaskResult;
+
+/**
+ * Exports the curated results of a job as one compact {@link TaskResult} per task instead of a
+ * full project export.
+ */
+public interface TaskResultsExportService
+{
+    /**
+     * Writes the result of every task of the project as a JSON record on a line of its own. The
+     * documents are processed one at a time, so the memory needed does not grow with the size of
+     * the project.
+     * 
+     * @param aProject
+     *            the project.
+     * @param aOut
+     *            the stream to write to. It is flushed but not closed.
+     * @throws IOException
+     *             if the results could not be read or written.
+     */
+    void exportTaskResults(Project aProject, OutputStream aOut) throws IOException;
+}
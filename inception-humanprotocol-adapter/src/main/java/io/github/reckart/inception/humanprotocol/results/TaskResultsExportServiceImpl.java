@@ -0,0 +1,297 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.results;
+
+import static de.tudarmstadt.ukp.clarin.webanno.api.CasUpgradeMode.NO_CAS_UPGRADE;
+import static de.tudarmstadt.ukp.clarin.webanno.api.casstorage.CasAccessMode.SHARED_READ_ONLY_ACCESS;
+import static de.tudarmstadt.ukp.clarin.webanno.model.PermissionLevel.ANNOTATOR;
+import static de.tudarmstadt.ukp.clarin.webanno.support.WebAnnoConst.CURATION_USER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_DOCUMENT_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_ITEM_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_SPAN_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_KEY_FEATURE;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.VALUE_FEATURE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.comparing;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static org.apache.uima.fit.util.CasUtil.select;
+import static org.apache.uima.fit.util.CasUtil.selectCovered;
+import static org.apache.uima.fit.util.CasUtil.selectFS;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.FeatureStructure;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.fit.util.FSUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
+import de.tudarmstadt.ukp.clarin.webanno.api.ProjectService;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocument;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import de.tudarmstadt.ukp.clarin.webanno.security.model.User;
+import de.tudarmstadt.ukp.inception.annotation.storage.CasStorageSession;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataIngestionService;
+import io.github.reckart.inception.humanprotocol.messages.TaskResult;
+import io.github.reckart.inception.humanprotocol.model.TaskDataItem;
+
+/**
+ * Builds the task results from the curation CAS of each document. A document which has been
+ * imported from a single datapoint yields one result. A document into which several datapoints
+ * have been packed yields one result per item. Documents which have not been curated yield results
+ * with the answers of each annotator who finished them, read from the annotations of the
+ * annotators.
+ * <p>
+ * This class is exposed as a Spring Component via
+ * {@link HumanProtocolAutoConfiguration#taskResultsExportService}.
+ * </p>
+ */
+public class TaskResultsExportServiceImpl
+    implements TaskResultsExportService
+{
+    private static final ObjectWriter WRITER = new ObjectMapper().writerFor(TaskResult.class);
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final DocumentService documentService;
+    private final ProjectService projectService;
+    private final TaskDataIngestionService ingestionService;
+
+    public TaskResultsExportServiceImpl(DocumentService aDocumentService,
+            ProjectService aProjectService, TaskDataIngestionService aIngestionService)
+    {
+        documentService = aDocumentService;
+        projectService = aProjectService;
+        ingestionService = aIngestionService;
+    }
+
+    @Override
+    public void exportTaskResults(Project aProject, OutputStream aOut) throws IOException
+    {
+        Map<String, List<TaskDataItem>> items = ingestionService.getTaskDataItems(aProject);
+        Map<String, String> walletsByUser = listWalletsByUser(aProject);
+        Map<String, List<AnnotationDocument>> finishedAnnDocuments = documentService
+                .listFinishedAnnotationDocuments(aProject).stream() //
+                .sorted(comparing(AnnotationDocument::getUser)) //
+                .collect(groupingBy(AnnotationDocument::getName));
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(aOut, UTF_8));
+        int count = 0;
+        for (SourceDocument doc : documentService.listSourceDocuments(aProject)) {
+            List<AnnotationDocument> docAnnDocuments = finishedAnnDocuments
+                    .getOrDefault(doc.getName(), List.of());
+            List<String> wallets = docAnnDocuments.stream() //
+                    .map(annDoc -> walletsByUser.getOrDefault(annDoc.getUser(),
+                            annDoc.getUser())) //
+                    .collect(toList());
+
+            for (TaskResult result : getResults(doc, items.get(doc.getName()), docAnnDocuments,
+                    walletsByUser)) {
+                result.setWallets(wallets);
+                out.write(WRITER.writeValueAsString(result));
+                out.write('\n');
+                count++;
+            }
+        }
+        out.flush();
+
+        log.info("Exported results of {} tasks of {}", count, aProject);
+    }
+
+    private List<TaskResult> getResults(SourceDocument aDocument, List<TaskDataItem> aItems,
+            List<AnnotationDocument> aFinishedAnnDocuments, Map<String, String> aWalletsByUser)
+        throws IOException
+    {
+        if (documentService.existsCas(aDocument, CURATION_USER)) {
+            try (var session = CasStorageSession.openNested()) {
+                CAS cas = documentService.readAnnotationCas(aDocument, CURATION_USER,
+                        NO_CAS_UPGRADE, SHARED_READ_ONLY_ACCESS);
+
+                List<TaskResult> results = new ArrayList<>();
+                for (TaskAnnotations task : getTaskAnnotations(aDocument, cas, aItems)) {
+                    TaskResult result = newResult(task.item, true);
+                    result.setLabel(task.label);
+                    result.setSpans(task.spans);
+                    results.add(result);
+                }
+                return results;
+            }
+        }
+
+        // Without curation, the answers of the annotators are all there is to publish
+        Map<String, TaskResult> results = new LinkedHashMap<>();
+        if (aItems != null) {
+            aItems.forEach(item -> results.put(item.getTaskKey(), newResult(item, false)));
+        }
+
+        for (AnnotationDocument annDoc : aFinishedAnnDocuments) {
+            String wallet = aWalletsByUser.getOrDefault(annDoc.getUser(), annDoc.getUser());
+            try (var session = CasStorageSession.openNested()) {
+                CAS cas = documentService.readAnnotationCas(aDocument, annDoc.getUser(),
+                        NO_CAS_UPGRADE, SHARED_READ_ONLY_ACCESS);
+
+                for (TaskAnnotations task : getTaskAnnotations(aDocument, cas, aItems)) {
+                    results.computeIfAbsent(task.item.getTaskKey(),
+                            key -> newResult(task.item, false)) //
+                            .getAnswers().add(new TaskResult.Answer(wallet, task.label,
+                                    task.spans));
+                }
+            }
+        }
+
+        if (results.isEmpty()) {
+            TaskDataItem item = unknownItem(aDocument);
+            results.put(item.getTaskKey(), newResult(item, false));
+        }
+
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * @return the label and spans of each task in the given CAS of the document.
+     */
+    private static List<TaskAnnotations> getTaskAnnotations(SourceDocument aDocument, CAS aCas,
+            List<TaskDataItem> aItems)
+    {
+        Type itemType = aCas.getTypeSystem().getType(CUSTOM_ITEM_LAYER);
+        if (itemType == null || select(aCas, itemType).isEmpty()) {
+            // Documents ingested before checkpoints were recorded are keyed by their name
+            TaskDataItem item = aItems != null && !aItems.isEmpty() ? aItems.get(0)
+                    : unknownItem(aDocument);
+            return List.of(new TaskAnnotations(item, getDocumentLabel(aCas),
+                    getSpans(aCas, null)));
+        }
+
+        Map<String, TaskDataItem> itemsByKey = aItems == null ? Map.of()
+                : aItems.stream().collect(toMap(TaskDataItem::getTaskKey, identity()));
+        List<TaskAnnotations> tasks = new ArrayList<>();
+        for (AnnotationFS itemTag : select(aCas, itemType)) {
+            String taskKey = FSUtil.getFeature(itemTag, TASK_KEY_FEATURE, String.class);
+            TaskDataItem item = itemsByKey.get(taskKey);
+            if (item == null) {
+                item = new TaskDataItem();
+                item.setTaskKey(taskKey);
+            }
+
+            tasks.add(new TaskAnnotations(item,
+                    FSUtil.getFeature(itemTag, VALUE_FEATURE, String.class),
+                    getSpans(aCas, itemTag)));
+        }
+        return tasks;
+    }
+
+    private static TaskResult newResult(TaskDataItem aItem, boolean aCurated)
+    {
+        TaskResult result = new TaskResult();
+        result.setTaskKey(aItem.getTaskKey());
+        result.setDatapointHash(aItem.getDatapointHash());
+        result.setCurated(aCurated);
+        if (!aCurated) {
+            result.setAnswers(new ArrayList<>());
+        }
+        return result;
+    }
+
+    private static String getDocumentLabel(CAS aCas)
+    {
+        Type tagType = aCas.getTypeSystem().getType(CUSTOM_DOCUMENT_LAYER);
+        if (tagType == null) {
+            return null;
+        }
+
+        for (FeatureStructure tag : selectFS(aCas, tagType)) {
+            String label = FSUtil.getFeature(tag, VALUE_FEATURE, String.class);
+            if (label != null) {
+                return label;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the spans within the given item with offsets relative to the item or all the spans
+     *         of the CAS if no item is given. Nothing is returned if the job does not select
+     *         spans.
+     */
+    private static List<TaskResult.Span> getSpans(CAS aCas, AnnotationFS aItem)
+    {
+        Type spanType = aCas.getTypeSystem().getType(CUSTOM_SPAN_LAYER);
+        if (spanType == null) {
+            return null;
+        }
+
+        int offset = aItem != null ? aItem.getBegin() : 0;
+        Collection<AnnotationFS> spans = aItem != null ? selectCovered(aCas, spanType, aItem)
+                : select(aCas, spanType);
+        return spans.stream() //
+                .map(span -> new TaskResult.Span(span.getBegin() - offset,
+                        span.getEnd() - offset,
+                        FSUtil.getFeature(span, VALUE_FEATURE, String.class)))
+                .collect(toList());
+    }
+
+    private static TaskDataItem unknownItem(SourceDocument aDocument)
+    {
+        TaskDataItem item = new TaskDataItem();
+        item.setTaskKey(aDocument.getName());
+        return item;
+    }
+
+    /**
+     * @return the wallets of the annotators of the project by user name.
+     */
+    private Map<String, String> listWalletsByUser(Project aProject)
+    {
+        return projectService.listProjectUsersWithPermissions(aProject, ANNOTATOR).stream()
+                .collect(toMap(User::getUsername, User::getUiName));
+    }
+
+    private static class TaskAnnotations
+    {
+        private final TaskDataItem item;
+        private final String label;
+        private final List<TaskResult.Span> spans;
+
+        TaskAnnotations(TaskDataItem aItem, String aLabel, List<TaskResult.Span> aSpans)
+        {
+            item = aItem;
+            label = aLabel;
+            spans = aSpans;
+        }
+    }
+}
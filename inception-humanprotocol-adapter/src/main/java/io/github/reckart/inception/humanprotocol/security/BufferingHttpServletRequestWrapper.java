@@ -49,11 +49,19 @@ public class BufferingHttpServletRequestWrapper
     
     @Override
     public ServletInputStream getInputStream() throws IOException
+    {
+        return new ByteArrayServletInputStream(getContentAsByteArray());
+    }
+
+    /**
+     * @return the buffered request body. The returned array is shared and must not be modified.
+     */
+    public byte[] getContentAsByteArray() throws IOException
     {
         if (byteBuffer == null) {
             byteBuffer = IOUtils.toByteArray(super.getInputStream());
         }
-        
-        return new ByteArrayServletInputStream(byteBuffer);
+
+        return byteBuffer;
     }
 }
@@ -16,11 +16,11 @@
  */
 package io.github.reckart.inception.humanprotocol.security;
 
-import static de.tudarmstadt.ukp.clarin.webanno.security.model.Role.ROLE_ADMIN;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.HEADER_X_HUMAN_SIGNATURE;
+import static io.github.reckart.inception.humanprotocol.SignatureUtils.bodilessRequestPayload;
 import static io.github.reckart.inception.humanprotocol.SignatureUtils.generateHexSignature;
-import static java.util.Arrays.asList;
-import static org.apache.commons.io.IOUtils.toByteArray;
+import static io.github.reckart.inception.humanprotocol.security.SecurityContextUtils.createHumanProtocolAuthentication;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -35,9 +35,7 @@ import org.apache.wicket.util.lang.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import org.springframework.web.filter.GenericFilterBean;
 
 import io.github.reckart.inception.humanprotocol.config.HumanProtocolProperties;
@@ -79,8 +77,7 @@ public class HumanSignatureValidationFilter
         // If no secret key is set (i.e. any key is accepted), we always mark the signature as valid
         if (jobFlowKey == null) {
             SecurityContextHolder.getContext()
-                    .setAuthentication(new PreAuthenticatedAuthenticationToken("HumanProtocol",
-                            null, asList(new SimpleGrantedAuthority(ROLE_ADMIN.toString()))));
+                    .setAuthentication(createHumanProtocolAuthentication());
             aRequest.setAttribute(ATTR_SIGNATURE_VALID, true);
             aChain.doFilter(aRequest, aResponse);
             return;
@@ -96,14 +93,18 @@ public class HumanSignatureValidationFilter
             // return;
         }
 
-        HttpServletRequest wrappedRequest = new BufferingHttpServletRequestWrapper(
+        BufferingHttpServletRequestWrapper wrappedRequest = new BufferingHttpServletRequestWrapper(
                 (HttpServletRequest) aRequest);
 
-        validateSignature(signature, toByteArray(wrappedRequest.getInputStream()));
+        byte[] payload = wrappedRequest.getContentAsByteArray();
+        if (payload.length == 0) {
+            payload = bodilessRequestPayload(httpRequest.getMethod(), httpRequest.getRequestURI(),
+                    httpRequest.getParameterMap()).getBytes(UTF_8);
+        }
+
+        validateSignature(signature, payload);
         
-        SecurityContextHolder.getContext()
-                .setAuthentication(new PreAuthenticatedAuthenticationToken("HumanProtocol", null,
-                        asList(new SimpleGrantedAuthority(ROLE_ADMIN.toString()))));
+        SecurityContextHolder.getContext().setAuthentication(createHumanProtocolAuthentication());
 
 //        setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
 //                SecurityContextHolder.getContext());
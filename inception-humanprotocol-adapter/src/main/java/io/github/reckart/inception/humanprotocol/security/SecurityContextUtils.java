@@ -0,0 +1,55 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.security;
+
+import static de.tudarmstadt.ukp.clarin.webanno.security.model.Role.ROLE_ADMIN;
+import static java.util.Arrays.asList;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+
+public class SecurityContextUtils
+{
+    private SecurityContextUtils()
+    {
+        // No instances
+    }
+
+    /**
+     * @return the authentication under which signed HUMAN Protocol requests are processed.
+     */
+    public static Authentication createHumanProtocolAuthentication()
+    {
+        return new PreAuthenticatedAuthenticationToken("HumanProtocol", null,
+                asList(new SimpleGrantedAuthority(ROLE_ADMIN.toString())));
+    }
+
+    /**
+     * Background tasks run with the same authority as the signed requests accepted by the
+     * {@link HumanSignatureValidationFilter} - but since they may run after the request has been
+     * completed or even after a restart, the security context cannot be taken from the request.
+     */
+    public static SecurityContext createHumanProtocolSecurityContext()
+    {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(createHumanProtocolAuthentication());
+        return context;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.workload;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+
+/**
+ * Withdraws the documents of jobs with an accuracy target from further annotators once the
+ * annotators who have finished a document agree on it. The dynamic workload assigns each document
+ * to up to {@code requester_max_repeats} annotators. When a document has been finished by at least
+ * {@code requester_min_repeats} annotators (but no fewer than two) and their
+ * {@link LabelAgreement agreement} reaches the accuracy target, the document is marked as finished.
+ * The {@link EarlyStoppingWorkflowExtension} then no longer offers it to any annotator.
+ */
+public interface EarlyStoppingService
+{
+    /**
+     * @return whether the given document must no longer be offered to annotators.
+     */
+    boolean isWithdrawn(SourceDocument aDocument);
+}
@@ -0,0 +1,195 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.workload;
+
+import static de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocumentState.FINISHED;
+import static de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState.ANNOTATION_FINISHED;
+import static de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState.ANNOTATION_IN_PROGRESS;
+import static de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState.CURATION_FINISHED;
+import static de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState.CURATION_IN_PROGRESS;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_DOCUMENT_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_ITEM_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_SPAN_LAYER;
+import static java.util.Arrays.asList;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.commons.collections4.ListUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.AnnotationStateChangeEvent;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.DocumentStateChangedEvent;
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState;
+import de.tudarmstadt.ukp.inception.annotation.storage.CasStorageSession;
+import io.github.reckart.inception.humanprotocol.HumanProtocolService;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolProperties;
+import io.github.reckart.inception.humanprotocol.model.JobManifest;
+import io.github.reckart.inception.humanprotocol.registry.JobRegistryService;
+
+/**
+ * <p>
+ * This class is exposed as a Spring Component via
+ * {@link HumanProtocolAutoConfiguration#earlyStoppingService}.
+ * </p>
+ */
+public class EarlyStoppingServiceImpl
+    implements EarlyStoppingService
+{
+    private static final List<String> LABEL_LAYERS = asList(CUSTOM_SPAN_LAYER, CUSTOM_ITEM_LAYER,
+            CUSTOM_DOCUMENT_LAYER);
+
+    /**
+     * A single annotator always agrees with themselves, so agreement is only meaningful from two
+     * annotators on - even if the job asks for a single repeat.
+     */
+    private static final int MIN_ANNOTATORS_FOR_AGREEMENT = 2;
+
+    private static final Set<SourceDocumentState> WITHDRAWN_STATES = EnumSet
+            .of(ANNOTATION_FINISHED, CURATION_IN_PROGRESS, CURATION_FINISHED);
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final DocumentService documentService;
+    private final HumanProtocolService hmtService;
+    private final JobRegistryService jobRegistry;
+    private final HumanProtocolProperties hmtProperties;
+
+    public EarlyStoppingServiceImpl(DocumentService aDocumentService,
+            HumanProtocolService aHmtService, JobRegistryService aJobRegistry,
+            HumanProtocolProperties aHmtProperties)
+    {
+        documentService = aDocumentService;
+        hmtService = aHmtService;
+        jobRegistry = aJobRegistry;
+        hmtProperties = aHmtProperties;
+    }
+
+    @Override
+    public boolean isWithdrawn(SourceDocument aDocument)
+    {
+        return WITHDRAWN_STATES.contains(aDocument.getState());
+    }
+
+    /**
+     * Runs after the transaction which finished the annotation document has been committed, so the
+     * agreement includes the finished document.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnnotationStateChange(AnnotationStateChangeEvent aEvent)
+    {
+        if (aEvent.getNewState() != FINISHED) {
+            return;
+        }
+
+        SourceDocument document = aEvent.getAnnotationDocument().getDocument();
+
+        try {
+            Optional<JobManifest> manifest = getEarlyStoppingManifest(document.getProject());
+            if (manifest.isEmpty()) {
+                return;
+            }
+
+            if (isSettled(document, manifest.get())) {
+                log.info("Annotators agree on {} - withdrawing it from further annotators",
+                        document);
+                documentService.setSourceDocumentState(document, ANNOTATION_FINISHED);
+            }
+        }
+        catch (Exception e) {
+            log.error("Unable to check whether annotation of {} can stop", document, e);
+        }
+    }
+
+    /**
+     * The dynamic workload derives the document state from the number of finished annotators. When
+     * it recomputes the state of a withdrawn document, it moves the document back to
+     * {@link SourceDocumentState#ANNOTATION_IN_PROGRESS}. This restores the state within the same
+     * transaction if the annotators still agree, so the document is never offered again.
+     */
+    @EventListener
+    public void onDocumentStateChanged(DocumentStateChangedEvent aEvent)
+    {
+        if (aEvent.getPreviousState() != ANNOTATION_FINISHED
+                || aEvent.getNewState() != ANNOTATION_IN_PROGRESS) {
+            return;
+        }
+
+        SourceDocument document = aEvent.getDocument();
+
+        try {
+            Optional<JobManifest> manifest = getEarlyStoppingManifest(document.getProject());
+            if (manifest.isPresent() && isSettled(document, manifest.get())) {
+                documentService.setSourceDocumentState(document, ANNOTATION_FINISHED);
+            }
+        }
+        catch (Exception e) {
+            log.error("Unable to check whether {} is still withdrawn", document, e);
+        }
+    }
+
+    private Optional<JobManifest> getEarlyStoppingManifest(Project aProject) throws IOException
+    {
+        if (!jobRegistry.isJobProject(aProject)) {
+            return Optional.empty();
+        }
+
+        return hmtService.readJobManifest(aProject)
+                .filter(manifest -> manifest.maxRepeats() > manifest.getRequesterMinRepeats());
+    }
+
+    private boolean isSettled(SourceDocument aDocument, JobManifest aManifest) throws IOException
+    {
+        var finishedAnnDocuments = documentService.listFinishedAnnotationDocuments(aDocument);
+
+        // Below min repeats, the document is still needed and from max repeats on, the dynamic
+        // workload stops assigning it by itself
+        int minAnnotators = Math.max(MIN_ANNOTATORS_FOR_AGREEMENT,
+                aManifest.getRequesterMinRepeats());
+        if (finishedAnnDocuments.size() < minAnnotators
+                || finishedAnnDocuments.size() >= aManifest.maxRepeats()) {
+            return false;
+        }
+
+        // Only the labels of the annotators are kept, so the CASes can be read in batches
+        var labelAgreement = new LabelAgreement(LABEL_LAYERS);
+        for (var batch : ListUtils.partition(finishedAnnDocuments,
+                hmtProperties.getCurationCasBatchSize())) {
+            try (var session = CasStorageSession.openNested()) {
+                documentService.readAllCasesSharedNoUpgrade(batch).values()
+                        .forEach(labelAgreement::add);
+            }
+        }
+        double agreement = labelAgreement.getAgreement();
+
+        double target = aManifest.requesterAccuracyTarget().getAsDouble();
+        log.debug("Agreement on {} after {} annotators: {} (target: {})", aDocument,
+                finishedAnnDocuments.size(), agreement, target);
+
+        return agreement >= target;
+    }
+}
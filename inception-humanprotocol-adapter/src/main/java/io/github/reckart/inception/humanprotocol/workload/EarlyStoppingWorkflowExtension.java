@@ -0,0 +1,75 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.workload;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+
+import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
+import de.tudarmstadt.ukp.inception.workload.dynamic.workflow.types.WorkflowExtension;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
+
+/**
+ * Workflow for the dynamic workload of job projects. It keeps the order of the documents, but
+ * drops the documents which the {@link EarlyStoppingService} has withdrawn, so they are never
+ * assigned to another annotator. Filtering here means that nothing needs to be written for an
+ * annotator who joins the project after documents have been withdrawn.
+ * <p>
+ * This class is exposed as a Spring Component via
+ * {@link HumanProtocolAutoConfiguration#earlyStoppingWorkflowExtension}.
+ * </p>
+ */
+public class EarlyStoppingWorkflowExtension
+    implements WorkflowExtension
+{
+    public static final String ID = "human-protocol-early-stopping";
+
+    private final EarlyStoppingService earlyStoppingService;
+
+    public EarlyStoppingWorkflowExtension(EarlyStoppingService aEarlyStoppingService)
+    {
+        earlyStoppingService = aEarlyStoppingService;
+    }
+
+    @Override
+    public String getId()
+    {
+        return ID;
+    }
+
+    @Override
+    public String getLabel()
+    {
+        return "HUMAN Protocol (early stopping)";
+    }
+
+    @Override
+    public boolean accepts(Project aProject)
+    {
+        return true;
+    }
+
+    @Override
+    public List<SourceDocument> rankDocuments(List<SourceDocument> aSourceDocuments)
+    {
+        return aSourceDocuments.stream() //
+                .filter(doc -> !earlyStoppingService.isWithdrawn(doc)) //
+                .collect(toList());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.workload;
+
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.VALUE_FEATURE;
+import static org.apache.uima.fit.util.CasUtil.selectFS;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.FeatureStructure;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.fit.util.FSUtil;
+
+/**
+ * Measures how well the annotators of a document agree on its labels. Each position which has been
+ * labelled by at least one annotator is a unit - a span by its offsets or the whole document for
+ * document-level annotations. Annotators who did not label a unit count as voting for no label.
+ * The agreement on a unit is the share of annotators who voted for the label chosen most often and
+ * the agreement on the document is the lowest agreement on any of its units, so that a document is
+ * only considered settled if every one of its units is.
+ * <p>
+ * The labels are collected one annotator at a time, so the CAS of an annotator does not need to be
+ * kept once its labels have been {@link #add added}.
+ */
+public final class LabelAgreement
+{
+    private static final String DOCUMENT_UNIT = "document";
+
+    private final Collection<String> layers;
+    private final List<Map<String, String>> labelsByAnnotator = new ArrayList<>();
+
+    /**
+     * @param aLayers
+     *            the layers holding the labels. Layers which do not exist in a CAS are ignored.
+     */
+    public LabelAgreement(Collection<String> aLayers)
+    {
+        layers = aLayers;
+    }
+
+    /**
+     * Adds the labels of one annotator.
+     */
+    public void add(CAS aCas)
+    {
+        labelsByAnnotator.add(collectLabels(aCas, layers));
+    }
+
+    /**
+     * @return the agreement between {@code 0} and {@code 1}. If there are no annotators or no
+     *         labels, the agreement is {@code 1}.
+     */
+    public double getAgreement()
+    {
+        if (labelsByAnnotator.isEmpty()) {
+            return 1.0d;
+        }
+
+        Set<String> units = new HashSet<>();
+        labelsByAnnotator.forEach(labels -> units.addAll(labels.keySet()));
+
+        double agreement = 1.0d;
+        for (String unit : units) {
+            Map<String, Integer> votes = new HashMap<>();
+            for (var labels : labelsByAnnotator) {
+                votes.merge(Objects.toString(labels.get(unit), ""), 1, Integer::sum);
+            }
+
+            int majority = votes.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+            agreement = Math.min(agreement, (double) majority / labelsByAnnotator.size());
+        }
+
+        return agreement;
+    }
+
+    /**
+     * @param aCasByUser
+     *            the annotations of each annotator.
+     * @param aLayers
+     *            the layers holding the labels. Layers which do not exist in a CAS are ignored.
+     * @return the agreement between {@code 0} and {@code 1}. If there are no annotators or no
+     *         labels, the agreement is {@code 1}.
+     */
+    public static double calculate(Map<String, CAS> aCasByUser, Collection<String> aLayers)
+    {
+        var agreement = new LabelAgreement(aLayers);
+        aCasByUser.values().forEach(agreement::add);
+        return agreement.getAgreement();
+    }
+
+    private static Map<String, String> collectLabels(CAS aCas, Collection<String> aLayers)
+    {
+        Map<String, String> labels = new HashMap<>();
+        for (String layer : aLayers) {
+            Type type = aCas.getTypeSystem().getType(layer);
+            if (type == null || type.getFeatureByBaseName(VALUE_FEATURE) == null) {
+                continue;
+            }
+
+            for (FeatureStructure fs : selectFS(aCas, type)) {
+                String label = FSUtil.getFeature(fs, VALUE_FEATURE, String.class);
+                if (label == null) {
+                    continue;
+                }
+
+                String unit = fs instanceof AnnotationFS
+                        ? layer + "@" + ((AnnotationFS) fs).getBegin() + "-"
+                                + ((AnnotationFS) fs).getEnd()
+                        : layer + "@" + DOCUMENT_UNIT;
+                labels.put(unit, label);
+            }
+        }
+        return labels;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.adapter;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.reckart.inception.humanprotocol.labels.DocumentLabelAggregator;
+
+public class DocumentLabelAggregatorTest
+{
+    @Test
+    public void thatMajorityLabelIsChosen()
+    {
+        assertThat(DocumentLabelAggregator.majorityLabel(asList("X", "Y", "X"))).contains("X");
+        assertThat(DocumentLabelAggregator.majorityLabel(asList("X", "Y"))).isEmpty();
+        assertThat(DocumentLabelAggregator.majorityLabel(asList(null, null))).isEmpty();
+    }
+
+    @Test
+    public void thatThresholdIsRespected()
+    {
+        // 3 of 4 annotators chose "X"
+        assertThat(DocumentLabelAggregator.chooseLabel(asList("X", "X", "Y", "X"), 1, 0.75d))
+                .contains("X");
+        assertThat(DocumentLabelAggregator.chooseLabel(asList("X", "X", "Y", "X"), 1, 0.8d))
+                .isEmpty();
+
+        // Annotators who did not label the document count towards the total
+        assertThat(DocumentLabelAggregator.chooseLabel(asList("X", "X", null), 1, 1.0d))
+                .isEmpty();
+    }
+
+    @Test
+    public void thatMinRepeatsIsRespected()
+    {
+        assertThat(DocumentLabelAggregator.chooseLabel(asList("X", null), 2, 0.0d)).isEmpty();
+        assertThat(DocumentLabelAggregator.chooseLabel(asList("X", "X"), 2, 0.0d)).contains("X");
+    }
+}
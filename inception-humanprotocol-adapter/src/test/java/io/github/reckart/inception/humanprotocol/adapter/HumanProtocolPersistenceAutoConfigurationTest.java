@@ -0,0 +1,109 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.persistence.metamodel.EntityType;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolPersistenceAutoConfiguration;
+import io.github.reckart.inception.humanprotocol.model.CurationFingerprint;
+import io.github.reckart.inception.humanprotocol.model.DocumentLabel;
+import io.github.reckart.inception.humanprotocol.model.HumanProtocolJob;
+
+/**
+ * Checks that the adapter sets up its persistence on its own. Neither the entity scan nor the
+ * changelog of the host application know about the adapter here. The schema is not generated by
+ * Hibernate either, so the tables of the adapter can only come from its changelog. The changelog
+ * of the host application only creates the tables which the tables of the adapter refer to.
+ */
+@DataJpaTest(properties = { //
+        "spring.jpa.hibernate.ddl-auto=none", //
+        "spring.liquibase.change-log=" + HumanProtocolPersistenceAutoConfigurationTest.CHANGELOG })
+@ImportAutoConfiguration(HumanProtocolPersistenceAutoConfiguration.class)
+@EntityScan({ //
+        "de.tudarmstadt.ukp.inception", //
+        "de.tudarmstadt.ukp.clarin.webanno.model", //
+        "de.tudarmstadt.ukp.clarin.webanno.security.model" })
+public class HumanProtocolPersistenceAutoConfigurationTest
+{
+    static final String CHANGELOG = //
+            "classpath:/io/github/reckart/inception/humanprotocol/adapter/host-db-changelog.xml";
+
+    private @Autowired EntityManager entityManager;
+    private @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void thatEntitiesAreRegistered()
+    {
+        assertThat(entityManager.getMetamodel().getEntities()) //
+                .extracting(EntityType::getJavaType) //
+                .contains(HumanProtocolJob.class, DocumentLabel.class, CurationFingerprint.class);
+    }
+
+    @Test
+    public void thatChangelogIsApplied()
+    {
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT ID FROM DATABASECHANGELOG WHERE FILENAME LIKE ?", String.class,
+                "%io/github/reckart/inception/humanprotocol/db-changelog.xml")) //
+                        .containsExactlyInAnyOrder("20221018-1", "20221018-2", "20221018-3");
+
+        for (String table : new String[] { "hmt_job", "hmt_document_label", "hmt_curation_fingerprint" }) {
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table,
+                    Integer.class)) //
+                            .as(table) //
+                            .isZero();
+        }
+    }
+
+    @Test
+    public void thatChangelogIsAppliedAfterHostChangelog()
+    {
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT ID FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED", String.class)) //
+                        .containsExactly("host-1", "20221018-1", "20221018-2", "20221018-3");
+    }
+
+    @Test
+    public void thatEntitiesCanBeQueried()
+    {
+        assertThat(entityManager
+                .createQuery("FROM " + HumanProtocolJob.class.getName(), HumanProtocolJob.class)
+                .getResultList()).isEmpty();
+        assertThat(entityManager
+                .createQuery("FROM " + DocumentLabel.class.getName(), DocumentLabel.class)
+                .getResultList()).isEmpty();
+        assertThat(entityManager.createQuery("FROM " + CurationFingerprint.class.getName(),
+                CurationFingerprint.class).getResultList()).isEmpty();
+    }
+
+    @SpringBootConfiguration
+    public static class TestContext
+    {
+        // All handled by auto-config
+    }
+}
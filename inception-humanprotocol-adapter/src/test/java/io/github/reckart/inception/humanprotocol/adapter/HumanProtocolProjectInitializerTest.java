@@ -21,12 +21,18 @@ import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.O
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_ANCHORING;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_CROSS_SENENCE;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_OVERLAP;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_PACK_SIZE;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_VERSION;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_TYPE_SPAN_SELECT;
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -40,13 +46,20 @@ import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfigurati
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ReflectionUtils;
 
+import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
 import de.tudarmstadt.ukp.clarin.webanno.api.ProjectService;
 import de.tudarmstadt.ukp.clarin.webanno.api.config.RepositoryAutoConfiguration;
+import de.tudarmstadt.ukp.clarin.webanno.api.config.RepositoryProperties;
+import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationFeature;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationLayer;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.Tag;
 import de.tudarmstadt.ukp.clarin.webanno.project.config.ProjectServiceAutoConfiguration;
 import de.tudarmstadt.ukp.clarin.webanno.project.initializers.config.ProjectInitializersAutoConfiguration;
 import de.tudarmstadt.ukp.clarin.webanno.security.config.SecurityAutoConfiguration;
@@ -61,7 +74,12 @@ import de.tudarmstadt.ukp.inception.schema.config.AnnotationSchemaServiceAutoCon
 import de.tudarmstadt.ukp.inception.ui.core.docanno.layer.DocumentMetadataLayerSupport;
 import io.github.reckart.inception.humanprotocol.HumanProtocolConstants;
 import io.github.reckart.inception.humanprotocol.HumanProtocolProjectInitializer;
+import io.github.reckart.inception.humanprotocol.ProjectSchemaTemplate;
 import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
+import io.github.reckart.inception.humanprotocol.config.HumanProtocolPropertiesImpl;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataIngestionService;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataIngestionServiceImpl;
+import io.github.reckart.inception.humanprotocol.intake.JobMonitor;
 import io.github.reckart.inception.humanprotocol.model.InternationalizedStrings;
 import io.github.reckart.inception.humanprotocol.model.JobManifest;
 
@@ -75,7 +93,8 @@ import io.github.reckart.inception.humanprotocol.model.JobManifest;
                 "repository.path=" + ResultsSubmissionTest.TEST_OUTPUT_FOLDER, //
                 "documentmetadata.enabled=true", //
                 "workload.dynamic.enabled=true", //
-                "sharing.invites.enabled=true" })
+                "sharing.invites.enabled=true", //
+                "spring.liquibase.enabled=false" })
 @Import({ //
         CasStorageServiceAutoConfiguration.class, //
         AnnotationSchemaServiceAutoConfiguration.class, //
@@ -142,6 +161,114 @@ public class HumanProtocolProjectInitializerTest
         assertThat(schemaService.listAnnotationFeature(project)).hasSize(1);
     }
 
+    @Test
+    public void thatPackedDocumentTaggingTaskInitializationWorks() throws Exception
+    {
+        Project project = new Project("test-packed-document-tagging");
+        projectService.createProject(project);
+
+        JobManifest manifest = new JobManifest();
+        manifest.setRequestType(HumanProtocolConstants.TASK_TYPE_DOCUMENT_CLASSIFICATION);
+        manifest.setRequestConfig(Map.of( //
+                REQUEST_CONFIG_KEY_VERSION, 0, //
+                REQUEST_CONFIG_KEY_PACK_SIZE, 50));
+
+        initializeProject(project, manifest);
+
+        assertThat(schemaService.listAnnotationLayer(project))
+                .extracting(AnnotationLayer::getName, AnnotationLayer::getType)
+                .containsExactly(tuple("custom.ItemTag", WebAnnoConst.SPAN_TYPE));
+        assertThat(schemaService.listAnnotationFeature(project))
+                .extracting(AnnotationFeature::getName, AnnotationFeature::isVisible)
+                .containsExactlyInAnyOrder(tuple("value", true), tuple("taskKey", false));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void thatSchemaTemplateIsSharedBetweenManifestsOfSameShape() throws Exception
+    {
+        Map<String, InternationalizedStrings> answers = new LinkedHashMap<>();
+        answers.put("rabbit", new InternationalizedStrings().withString("en", "A rabbit"));
+        answers.put("hare", new InternationalizedStrings().withString("en", "A hare"));
+
+        JobManifest manifest1 = new JobManifest();
+        manifest1.setRequestType(TASK_TYPE_SPAN_SELECT);
+        manifest1.setRequestConfig(Map.of( //
+                REQUEST_CONFIG_KEY_VERSION, 0, //
+                REQUEST_CONFIG_KEY_ANCHORING, ANCHORING_TOKENS));
+        manifest1.setRequesterRestrictedAnswerSet(answers);
+
+        JobManifest manifest2 = new JobManifest();
+        manifest2.setRequestType(TASK_TYPE_SPAN_SELECT);
+        manifest2.setRequestConfig(Map.of( //
+                REQUEST_CONFIG_KEY_ANCHORING, ANCHORING_TOKENS, //
+                REQUEST_CONFIG_KEY_VERSION, 0));
+        manifest2.setRequesterRestrictedAnswerSet(answers);
+
+        assertThat(ProjectSchemaTemplate.fingerprint(manifest1))
+                .isEqualTo(ProjectSchemaTemplate.fingerprint(manifest2));
+
+        HumanProtocolProjectInitializer prototype = new HumanProtocolProjectInitializer(null);
+        AutowireCapableBeanFactory factory = applicationContext.getAutowireCapableBeanFactory();
+        factory.autowireBean(prototype);
+        factory.initializeBean(prototype, "transientInitializer");
+
+        var templateCache = (Map<String, ProjectSchemaTemplate>) ReflectionTestUtils
+                .getField(prototype, "templateCache");
+        String fingerprint = ProjectSchemaTemplate.fingerprint(manifest1);
+
+        ProjectSchemaTemplate firstTemplate = null;
+        List<JobManifest> manifests = asList(manifest1, manifest2);
+        for (int i = 0; i < manifests.size(); i++) {
+            JobManifest manifest = manifests.get(i);
+            Project project = new Project("test-schema-template-" + i);
+            projectService.createProject(project);
+
+            new HumanProtocolProjectInitializer(prototype, manifest, JobMonitor.detached())
+                    .configure(project);
+
+            assertThat(schemaService.listAnnotationLayer(project))
+                    .extracting(AnnotationLayer::getName, AnnotationLayer::getProject)
+                    .containsExactly(tuple("custom.Span", project));
+            List<AnnotationFeature> features = schemaService.listAnnotationFeature(project);
+            assertThat(features).hasSize(1);
+            assertThat(schemaService.listTags(features.get(0).getTagset()))
+                    .extracting(Tag::getName, Tag::getDescription)
+                    .containsExactly(tuple("rabbit", "A rabbit"), tuple("hare", "A hare"));
+
+            // The template built for the first job is reused for the second one
+            assertThat(templateCache).containsOnlyKeys(fingerprint);
+            if (firstTemplate == null) {
+                firstTemplate = templateCache.get(fingerprint);
+            }
+            assertThat(templateCache.get(fingerprint)).isSameAs(firstTemplate);
+        }
+    }
+
+    @Test
+    public void thatInitializerCreatedFromPrototypeUsesAllServices() throws Exception
+    {
+        HumanProtocolProjectInitializer prototype = new HumanProtocolProjectInitializer(null);
+        AutowireCapableBeanFactory factory = applicationContext.getAutowireCapableBeanFactory();
+        factory.autowireBean(prototype);
+        factory.initializeBean(prototype, "transientInitializer");
+
+        HumanProtocolProjectInitializer sut = new HumanProtocolProjectInitializer(prototype,
+                new JobManifest(), JobMonitor.detached());
+
+        List<Field> injectedFields = new ArrayList<>();
+        ReflectionUtils.doWithFields(HumanProtocolProjectInitializer.class, injectedFields::add,
+                field -> field.isAnnotationPresent(Autowired.class));
+
+        assertThat(injectedFields).isNotEmpty();
+        for (Field field : injectedFields) {
+            ReflectionUtils.makeAccessible(field);
+            assertThat(field.get(sut)).as(field.getName()) //
+                    .isNotNull() //
+                    .isSameAs(field.get(prototype));
+        }
+    }
+
     private void initializeProject(Project aProject, JobManifest aManifest) throws IOException
     {
         HumanProtocolProjectInitializer sut = new HumanProtocolProjectInitializer(aManifest);
@@ -154,6 +281,12 @@ public class HumanProtocolProjectInitializerTest
     @SpringBootConfiguration
     public static class TestContext
     {
-        // All handled by auto-config
+        @Bean
+        public TaskDataIngestionService taskDataIngestionService(DocumentService aDocumentService,
+                AnnotationSchemaService aSchemaService, RepositoryProperties aRepositoryProperties)
+        {
+            return new TaskDataIngestionServiceImpl(aDocumentService, aSchemaService,
+                    aRepositoryProperties, new HumanProtocolPropertiesImpl());
+        }
     }
 }
@@ -16,17 +16,32 @@
  */
 package io.github.reckart.inception.humanprotocol.adapter;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.junit.jupiter.api.Test;
 
+import de.tudarmstadt.ukp.clarin.webanno.support.JSONUtil;
 import io.github.reckart.inception.humanprotocol.JobManifestUtils;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataBundle;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataBundle.BundledDatapoint;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataReader;
+import io.github.reckart.inception.humanprotocol.model.InternationalizedStrings;
 import io.github.reckart.inception.humanprotocol.model.JobManifest;
 import io.github.reckart.inception.humanprotocol.model.TaskData;
+import io.github.reckart.inception.humanprotocol.model.TaskDataItem;
 
 public class JobManifestUtilsTest
 {
@@ -50,4 +65,91 @@ public class JobManifestUtilsTest
         
         assertThat(sut).hasSize(2);
     }
+
+    @Test
+    public void thatTaskDataCanBeStreamed() throws Exception {
+        List<TaskDataItem> items = new ArrayList<>();
+        try (TaskDataReader sut = TaskDataReader.forTaskData(Files.newInputStream(
+                Path.of("src/test/resources/manifest/dataset.json")))) {
+            sut.forEachRemaining(items::add);
+        }
+
+        assertThat(items) //
+                .extracting(TaskDataItem::getTaskKey) //
+                .containsExactly( //
+                        "53fdad02-b6d1-4f94-a617-bc204b6e8d27", //
+                        "22bf88a2-1caa-4b92-b304-cf947380455d");
+    }
+
+    @Test
+    public void thatInlineTaskDataCanBeStreamedFromManifest() throws Exception {
+        JobManifest manifest = new JobManifest();
+        manifest.setRequesterQuestion(new InternationalizedStrings().withString("en", "Question"));
+        TaskData taskData;
+        try (InputStream is = Files.newInputStream(Path.of("src/test/resources/manifest/dataset.json"))) {
+            taskData = JobManifestUtils.loadTaskData(is);
+        }
+        manifest.setTaskdata(taskData);
+        byte[] manifestBytes = JSONUtil.toJsonString(manifest).getBytes(UTF_8);
+
+        JobManifest sut = JobManifestUtils.loadManifestWithoutTaskData(manifestBytes);
+        assertThat(sut.getTaskdata()).isNull();
+        assertThat(sut.getRequesterQuestion().get("en")).isEqualTo("Question");
+
+        List<TaskDataItem> items = new ArrayList<>();
+        try (TaskDataReader reader = TaskDataReader
+                .forManifest(new ByteArrayInputStream(manifestBytes))) {
+            reader.forEachRemaining(items::add);
+        }
+
+        assertThat(items) //
+                .extracting(TaskDataItem::getDatapointUri) //
+                .containsExactlyElementsOf(taskData.stream() //
+                        .map(TaskDataItem::getDatapointUri) //
+                        .collect(toList()));
+    }
+
+    @Test
+    public void thatManifestWithoutInlineTaskDataYieldsNoItems() throws Exception {
+        try (TaskDataReader sut = TaskDataReader.forManifest(Files.newInputStream(
+                Path.of("src/test/resources/manifest/example.json")))) {
+            assertThat(sut.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    public void thatArchiveBundleYieldsListedDatapoints() throws Exception {
+        TaskData taskData = new TaskData();
+        for (String name : List.of("doc1.txt", "doc2.txt")) {
+            TaskDataItem item = new TaskDataItem();
+            item.setTaskKey(name);
+            item.setDatapointUri("docs/" + name);
+            taskData.add(item);
+        }
+
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            out.putNextEntry(new ZipEntry(TaskDataBundle.TASK_DATA_ENTRY));
+            out.write(JSONUtil.toJsonString(taskData).getBytes(UTF_8));
+            out.putNextEntry(new ZipEntry("docs/doc2.txt"));
+            out.write("Document 2".getBytes(UTF_8));
+            out.putNextEntry(new ZipEntry("unlisted.txt"));
+            out.write("Not part of the job".getBytes(UTF_8));
+            out.putNextEntry(new ZipEntry("docs/doc1.txt"));
+            out.write("Document 1".getBytes(UTF_8));
+        }
+
+        List<String> contents = new ArrayList<>();
+        try (TaskDataBundle sut = TaskDataBundle.forArchive(
+                new ZipArchiveInputStream(new ByteArrayInputStream(zip.toByteArray())))) {
+            assertThat(sut.size()).isEqualTo(2);
+            BundledDatapoint datapoint;
+            while ((datapoint = sut.next()) != null) {
+                contents.add(datapoint.getItem().getTaskKey() + ": "
+                        + new String(datapoint.getContent().readAllBytes(), UTF_8));
+            }
+        }
+
+        assertThat(contents).containsExactly("doc2.txt: Document 2", "doc1.txt: Document 1");
+    }
 }
@@ -28,31 +28,62 @@ import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.O
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_ANCHORING;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_CROSS_SENENCE;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_OVERLAP;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_PACK_SIZE;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_PROJECT_TITLE;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_VERSION;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_TYPE_DOCUMENT_CLASSIFICATION;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_TYPE_SPAN_SELECT;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolController.API_BASE;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolController.INTAKE_STATISTICS;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolController.JOB_STATUS;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolController.PARAM_JOB_ADDRESS;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolController.PARAM_NETWORK_ID;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolController.RESUME_JOB;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolController.SUBMIT_JOB;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolController.SUBMIT_JOBS;
+import static io.github.reckart.inception.humanprotocol.SignatureUtils.bodilessRequestPayload;
 import static io.github.reckart.inception.humanprotocol.SignatureUtils.generateHexSignature;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.contentOf;
+import static org.assertj.core.api.Assertions.entry;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.MOCK;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.util.Deque;
-import java.util.LinkedList;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.persistence.EntityManager;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.AfterEach;
@@ -74,16 +105,23 @@ import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.context.WebApplicationContext;
 
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
 import de.tudarmstadt.ukp.clarin.webanno.api.ProjectService;
 import de.tudarmstadt.ukp.clarin.webanno.api.config.RepositoryAutoConfiguration;
 import de.tudarmstadt.ukp.clarin.webanno.api.config.RepositoryProperties;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
 import de.tudarmstadt.ukp.clarin.webanno.project.config.ProjectServiceAutoConfiguration;
 import de.tudarmstadt.ukp.clarin.webanno.project.initializers.config.ProjectInitializersAutoConfiguration;
 import de.tudarmstadt.ukp.clarin.webanno.security.UserDao;
@@ -91,6 +129,7 @@ import de.tudarmstadt.ukp.clarin.webanno.security.config.SecurityAutoConfigurati
 import de.tudarmstadt.ukp.clarin.webanno.security.model.Role;
 import de.tudarmstadt.ukp.clarin.webanno.security.model.User;
 import de.tudarmstadt.ukp.clarin.webanno.support.logging.LoggingFilter;
+import de.tudarmstadt.ukp.clarin.webanno.text.TextFormatSupport;
 import de.tudarmstadt.ukp.inception.annotation.storage.OpenCasStorageSessionForRequestFilter;
 import de.tudarmstadt.ukp.inception.annotation.storage.config.CasStorageServiceAutoConfiguration;
 import de.tudarmstadt.ukp.inception.documents.config.DocumentServiceAutoConfiguration;
@@ -100,17 +139,34 @@ import de.tudarmstadt.ukp.inception.schema.config.AnnotationSchemaServiceAutoCon
 import de.tudarmstadt.ukp.inception.sharing.InviteService;
 import de.tudarmstadt.ukp.inception.sharing.config.InviteServicePropertiesImpl;
 import de.tudarmstadt.ukp.inception.sharing.model.ProjectInvite;
+import io.github.reckart.inception.humanprotocol.HumanProtocolControllerImpl;
 import io.github.reckart.inception.humanprotocol.HumanProtocolServiceImpl;
 import io.github.reckart.inception.humanprotocol.config.HumanProtocolPropertiesImpl;
+import io.github.reckart.inception.humanprotocol.ingest.DatapointHashMismatchException;
+import io.github.reckart.inception.humanprotocol.ingest.PartialIngestionException;
+import io.github.reckart.inception.humanprotocol.ingest.TaskDataIngestionService;
+import io.github.reckart.inception.humanprotocol.intake.JobIntakeService;
+import io.github.reckart.inception.humanprotocol.intake.JobIntakeServiceImpl;
+import io.github.reckart.inception.humanprotocol.intake.JobMonitor;
+import io.github.reckart.inception.humanprotocol.messages.DatapointCacheStatistics;
 import io.github.reckart.inception.humanprotocol.messages.InviteLinkNotification;
+import io.github.reckart.inception.humanprotocol.messages.JobIntakeStatistics;
 import io.github.reckart.inception.humanprotocol.messages.JobRequest;
+import io.github.reckart.inception.humanprotocol.messages.JobStatus;
+import io.github.reckart.inception.humanprotocol.messages.JobSubmissionResult;
+import io.github.reckart.inception.humanprotocol.model.HumanProtocolJob;
 import io.github.reckart.inception.humanprotocol.model.InternationalizedStrings;
 import io.github.reckart.inception.humanprotocol.model.JobManifest;
+import io.github.reckart.inception.humanprotocol.model.JobState;
 import io.github.reckart.inception.humanprotocol.model.TaskData;
 import io.github.reckart.inception.humanprotocol.model.TaskDataItem;
+import io.github.reckart.inception.humanprotocol.pool.ProjectPoolService;
+import io.github.reckart.inception.humanprotocol.registry.JobRegistryService;
 import io.github.reckart.inception.humanprotocol.security.HumanSignatureValidationFilter;
+import mockwebserver3.Dispatcher;
 import mockwebserver3.MockResponse;
 import mockwebserver3.MockWebServer;
+import mockwebserver3.QueueDispatcher;
 import mockwebserver3.RecordedRequest;
 
 @ExtendWith(SpringExtension.class)
@@ -124,7 +180,8 @@ import mockwebserver3.RecordedRequest;
         "human-protocol.s3-secret-access-key=dummy", //
         "human-protocol.human-api-key=" + JobSubmissionTest.HUMAN_API_KEY, //
         "workload.dynamic.enabled=true", //
-        "sharing.invites.enabled=true" })
+        "sharing.invites.enabled=true", //
+        "spring.liquibase.enabled=false" })
 @EnableWebSecurity
 @Import({ //
         CasStorageServiceAutoConfiguration.class, //
@@ -154,13 +211,20 @@ public class JobSubmissionTest
     private @Autowired UserDao userRepository;
     private @Autowired ProjectService projectService;
     private @Autowired HumanProtocolServiceImpl hmtService;
+    private @Autowired HumanProtocolControllerImpl controller;
     private @Autowired HumanProtocolPropertiesImpl hmtProperties;
     private @Autowired InviteService inviteService;
     private @Autowired InviteServicePropertiesImpl inviteProperties;
     private @Autowired DocumentService documentService;
+    private @Autowired JobIntakeService jobIntakeService;
+    private @Autowired ProjectPoolService projectPool;
+    private @Autowired TaskDataIngestionService ingestionService;
+    private @Autowired JobRegistryService jobRegistry;
+    private @Autowired EntityManager entityManager;
 
     private MockMvc mvc;
     private MockWebServer metaApiServer;
+    private Map<String, String> datapoints;
 
     // If this is not static, for some reason the value is re-set to false before a
     // test method is invoked. However, the DB is not reset - and it should not be.
@@ -182,6 +246,21 @@ public class JobSubmissionTest
         metaApiServer = new MockWebServer();
         metaApiServer.start();
 
+        // Datapoints are fetched in parallel, so they are served by path instead of in order
+        datapoints = new ConcurrentHashMap<>();
+        metaApiServer.setDispatcher(new QueueDispatcher()
+        {
+            @Override
+            public MockResponse dispatch(RecordedRequest aRequest) throws InterruptedException
+            {
+                String datapoint = datapoints.get(aRequest.getPath());
+                if (datapoint != null) {
+                    return new MockResponse().setResponseCode(200).setBody(datapoint);
+                }
+                return super.dispatch(aRequest);
+            }
+        });
+
         inviteProperties.setInviteBaseUrl("http://nevermind:8080/inception");
 
         hmtProperties.setJobFlowUrl(metaApiServer.url("/api").toString());
@@ -250,8 +329,17 @@ public class JobSubmissionTest
         assertThat(storedManifest).isPresent();
         assertThat(contentOf(hmtService.getManifestFile(project).toFile()))
                 .isEqualTo(toPrettyJsonString(manifest));
-        assertThatJson(toPrettyJsonString(hmtService.readJobManifest(project).get()))
-                .isEqualTo(toPrettyJsonString(manifest));
+        assertThat(hmtService.readJobManifestBytes(project).get())
+                .isEqualTo(toPrettyJsonString(manifest).getBytes(UTF_8));
+
+        // The cached manifest must not hold on to the inline task data
+        assertThat(storedManifest.get().getTaskdata()).isNull();
+        assertThat(hmtService.readJobManifest(project)).containsSame(storedManifest.get());
+        JobManifest manifestWithoutTaskData = fromJsonString(JobManifest.class,
+                toPrettyJsonString(manifest));
+        manifestWithoutTaskData.setTaskdata(null);
+        assertThatJson(toPrettyJsonString(storedManifest.get()))
+                .isEqualTo(toPrettyJsonString(manifestWithoutTaskData));
 
         assertThat(documentService.listSourceDocuments(project)).as("All documents imported")
                 .hasSize(manifest.getTaskdata().size());
@@ -286,6 +374,721 @@ public class JobSubmissionTest
                 .isEqualTo(documentService.listSourceDocuments(project).size());
     }
 
+    @Test
+    public void thatProjectCreationIsAsynchronousWhenEnabled() throws Exception
+    {
+        hmtProperties.setAsyncJobIntake(true);
+        try {
+            generateJobManifestAndEnqueueDataResponses("This is document 1.");
+
+            // Expect request posting the invite link information
+            metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+            JobRequest jobRequest = createJobRequest("0a1b2c3d-4e5f-4a6b-8c7d-9e0f1a2b3c4d");
+            postJob(jobRequest, status().isAccepted());
+
+            JobStatus status = awaitJobCompletion(jobRequest);
+            assertThat(status.getState()).isEqualTo(JobState.COMPLETED);
+            assertThat(projectService.existsProjectWithSlug(status.getProject())).isTrue();
+
+            // The status resource reports the same state
+            String networkId = String.valueOf(jobRequest.getNetworkId());
+            String signature = signBodilessRequest("GET", API_BASE + "/" + JOB_STATUS, //
+                    PARAM_NETWORK_ID, networkId, //
+                    PARAM_JOB_ADDRESS, jobRequest.getJobAddress());
+            // @formatter:off
+            String response = mvc.perform(get(API_BASE + "/" + JOB_STATUS)
+                    .with(user("admin").roles("ADMIN"))
+                    .header(HEADER_X_HUMAN_SIGNATURE, signature)
+                    .param(PARAM_NETWORK_ID, networkId)
+                    .param(PARAM_JOB_ADDRESS, jobRequest.getJobAddress()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            // @formatter:on
+            assertThat(fromJsonString(JobStatus.class, response).getState())
+                    .isEqualTo(JobState.COMPLETED);
+
+            // The signature is only good for the request it was made for
+            // @formatter:off
+            assertThatThrownBy(() -> mvc.perform(get(API_BASE + "/" + JOB_STATUS)
+                    .with(user("admin").roles("ADMIN"))
+                    .header(HEADER_X_HUMAN_SIGNATURE, signature)
+                    .param(PARAM_NETWORK_ID, networkId)
+                    .param(PARAM_JOB_ADDRESS, "0xdeadbeef")))
+                .hasMessageContaining("Invalid signature");
+            // @formatter:on
+        }
+        finally {
+            hmtProperties.setAsyncJobIntake(false);
+        }
+    }
+
+    @Test
+    public void thatDatapointWithMismatchingHashIsRolledBack() throws Exception
+    {
+        Project project = new Project("test-hash-mismatch");
+        projectService.createProject(project);
+
+        TaskDataItem item = createTaskDataItem("This is document 1.");
+        TaskDataItem tampered = createTaskDataItem("This is document 2.");
+        datapoints.put(URI.create(tampered.getDatapointUri()).getPath(),
+                "This is a tampered document.");
+
+        // The first datapoint is ingested on its own so that it is certainly checkpointed
+        ingestionService.ingest(project, List.of(item).iterator(), TextFormatSupport.ID, 0,
+                new JobMonitor(createJobRequest()));
+
+        assertThatThrownBy(() -> ingestionService.ingest(project,
+                List.of(item, tampered).iterator(), TextFormatSupport.ID, 0,
+                new JobMonitor(createJobRequest()))) //
+                        .isInstanceOf(DatapointHashMismatchException.class);
+
+        assertThat(documentService.listSourceDocuments(project)) //
+                .as("Only the mismatching document has been removed") //
+                .extracting(SourceDocument::getName) //
+                .containsExactly(item.getTaskKey());
+        assertThat(contentOf(new File(repositoryProperties.getPath(),
+                "project/" + project.getId() + "/hmt/task-data-checkpoints.tsv"))) //
+                        .contains(item.getTaskKey()) //
+                        .doesNotContain(tampered.getTaskKey());
+    }
+
+    @Test
+    public void thatDatapointErrorResponseIsNotImported() throws Exception
+    {
+        Project project = new Project("test-datapoint-error");
+        projectService.createProject(project);
+
+        // The datapoint is not served by path, so the error response is taken from the queue
+        TaskDataItem item = createTaskDataItem("This is document 1.");
+        datapoints.remove(URI.create(item.getDatapointUri()).getPath());
+        metaApiServer.enqueue(new MockResponse().setResponseCode(503));
+
+        assertThatThrownBy(() -> ingestionService.ingest(project, List.of(item).iterator(),
+                TextFormatSupport.ID, 0, new JobMonitor(createJobRequest()))) //
+                        .isInstanceOf(PartialIngestionException.class) //
+                        .hasMessageContaining("HTTP 503");
+
+        assertThat(documentService.listSourceDocuments(project)).isEmpty();
+    }
+
+    @Test
+    public void thatFullIntakeQueueIsAnsweredWithRetryAfter() throws Exception
+    {
+        boolean asyncJobIntake = hmtProperties.isAsyncJobIntake();
+        int jobIntakeThreads = hmtProperties.getJobIntakeThreads();
+        int jobIntakeQueueCapacity = hmtProperties.getJobIntakeQueueCapacity();
+        Object originalIntake = ReflectionTestUtils.getField(controller, "jobIntakeService");
+
+        // The manifest of the first job is only served once it is released, so the first job
+        // keeps the only intake thread busy
+        CountDownLatch manifestRequested = new CountDownLatch(1);
+        CountDownLatch releaseManifest = new CountDownLatch(1);
+        MockWebServer blockingServer = new MockWebServer();
+        blockingServer.setDispatcher(new Dispatcher()
+        {
+            @Override
+            public MockResponse dispatch(RecordedRequest aRequest) throws InterruptedException
+            {
+                manifestRequested.countDown();
+                releaseManifest.await();
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        blockingServer.start();
+
+        hmtProperties.setAsyncJobIntake(true);
+        hmtProperties.setJobIntakeThreads(1);
+        hmtProperties.setJobIntakeQueueCapacity(1);
+        JobIntakeServiceImpl intake = new JobIntakeServiceImpl(repositoryProperties,
+                hmtProperties);
+        ReflectionTestUtils.setField(controller, "jobIntakeService", intake);
+        try {
+            List<JobRequest> jobRequests = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                JobRequest jobRequest = new JobRequest();
+                jobRequest.setNetworkId(12345);
+                jobRequest.setJobAddress("0xbackpressure" + i);
+                jobRequest.setJobManifest(blockingServer.url("/manifest-" + i).uri());
+                jobRequests.add(jobRequest);
+            }
+
+            // The first job is running, the second one takes the only slot in the queue
+            postJob(jobRequests.get(0), status().isAccepted());
+            assertThat(manifestRequested.await(10, SECONDS)).isTrue();
+            postJob(jobRequests.get(1), status().isAccepted());
+
+            // The third job is turned away
+            String body = toJsonString(jobRequests.get(2));
+            // @formatter:off
+            String retryAfter = mvc.perform(post(API_BASE + "/" + SUBMIT_JOB)
+                    .with(csrf().asHeader())
+                    .with(user("admin").roles("ADMIN"))
+                    .header(HEADER_X_HUMAN_SIGNATURE, generateHexSignature(HUMAN_API_KEY, body))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                .andExpect(status().isTooManyRequests())
+                .andReturn().getResponse().getHeader(RETRY_AFTER);
+            // @formatter:on
+            assertThat(Long.parseLong(retryAfter)).isBetween(1L, 3600L);
+
+            // @formatter:off
+            String response = mvc.perform(get(API_BASE + "/" + INTAKE_STATISTICS)
+                    .with(user("admin").roles("ADMIN"))
+                    .header(HEADER_X_HUMAN_SIGNATURE,
+                            signBodilessRequest("GET", API_BASE + "/" + INTAKE_STATISTICS)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            // @formatter:on
+            JobIntakeStatistics statistics = fromJsonString(JobIntakeStatistics.class, response);
+            assertThat(statistics.getConcurrency()).isEqualTo(1);
+            assertThat(statistics.getQueueCapacity()).isEqualTo(1);
+            assertThat(statistics.getRunning()).isEqualTo(1);
+            assertThat(statistics.getQueueDepth()).isEqualTo(1);
+            assertThat(statistics.getRejected()).isEqualTo(1);
+            assertThat(statistics.getRetryAfter()).isEqualTo(Long.parseLong(retryAfter));
+
+            // Let both accepted jobs fail on their manifest and wait for the intake to drain
+            releaseManifest.countDown();
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (intake.getStatistics().getFailed() < 2) {
+                assertThat(System.currentTimeMillis()).isLessThan(deadline);
+                Thread.sleep(100);
+            }
+        }
+        finally {
+            releaseManifest.countDown();
+            ReflectionTestUtils.setField(controller, "jobIntakeService", originalIntake);
+            intake.destroy();
+            blockingServer.shutdown();
+            hmtProperties.setAsyncJobIntake(asyncJobIntake);
+            hmtProperties.setJobIntakeThreads(jobIntakeThreads);
+            hmtProperties.setJobIntakeQueueCapacity(jobIntakeQueueCapacity);
+        }
+    }
+
+    @Test
+    public void thatProjectPoolIsUsedWhenEnabled() throws Exception
+    {
+        hmtProperties.setProjectPoolSize(1);
+        try {
+            projectPool.refill();
+            assertThat(projectPool.getAvailable()).isEqualTo(1);
+            Project pooledProject = projectService.listProjects().stream()
+                    .filter(p -> p.getSlug().startsWith(ProjectPoolService.POOL_SLUG_PREFIX))
+                    .findFirst().get();
+
+            generateJobManifestAndEnqueueDataResponses("This is document 1.");
+
+            // Expect request posting the invite link information
+            metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+            JobRequest jobRequest = createJobRequest("7d2f1e3c-5b4a-4e9d-8c1f-3a2b4c5d6e7f");
+            postJob(jobRequest);
+
+            Project project = projectService.getProjectBySlug("job-" + jobRequest.getJobAddress());
+            assertThat(project.getId()) //
+                    .as("Project has been taken from the pool") //
+                    .isEqualTo(pooledProject.getId());
+            assertThat(project.getName()).isEqualTo("Test project");
+            assertThat(inviteService.readProjectInvite(project).getExpirationDate())
+                    .isInTheFuture();
+
+            // Wait for the pool to be refilled in the background before disabling it again
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (projectPool.getAvailable() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+            }
+            assertThat(projectPool.getAvailable()).as("Pool has been refilled").isEqualTo(1);
+        }
+        finally {
+            hmtProperties.setProjectPoolSize(0);
+        }
+    }
+
+    @Test
+    public void thatProjectsAreCreatedForAllJobsInBatch() throws Exception
+    {
+        // The jobs are processed in parallel, so the responses need to be served by path
+        Map<String, String> resources = new ConcurrentHashMap<>();
+        metaApiServer.setDispatcher(new Dispatcher()
+        {
+            @Override
+            public MockResponse dispatch(RecordedRequest aRequest)
+            {
+                // Anything not registered as a resource is an invite link notification
+                return new MockResponse().setResponseCode(200)
+                        .setBody(resources.getOrDefault(aRequest.getPath(), ""));
+            }
+        });
+
+        List<JobRequest> jobRequests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            jobRequests.add(createJobRequestServedByPath(resources, "This is document " + i));
+        }
+
+        String body = toJsonString(jobRequests);
+        // @formatter:off
+        String response = mvc.perform(post(API_BASE + "/" + SUBMIT_JOBS)
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN"))
+                .header(HEADER_X_HUMAN_SIGNATURE, generateHexSignature(HUMAN_API_KEY, body))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        // @formatter:on
+
+        JobSubmissionResult[] results = fromJsonString(JobSubmissionResult[].class, response);
+        assertThat(results).hasSize(jobRequests.size());
+        for (int i = 0; i < results.length; i++) {
+            assertThat(results[i].getJobAddress())
+                    .isEqualTo(jobRequests.get(i).getJobAddress());
+            assertThat(results[i].getStatus()).isEqualTo(201);
+            assertThat(results[i].getJob().getState()).isEqualTo(JobState.COMPLETED);
+            assertThat(projectService.existsProjectWithSlug(results[i].getJob().getProject()))
+                    .isTrue();
+        }
+    }
+
+    @Test
+    public void thatRepeatedDatapointsAreServedFromCache() throws Exception
+    {
+        hmtProperties.setTaskDataCacheSize(DataSize.ofMegabytes(1));
+        try {
+            DatapointCacheStatistics before = ingestionService.getCacheStatistics();
+
+            generateJobManifestAndEnqueueDataResponses("This is a document worth caching.");
+            metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+            postJob(createJobRequest("9a7e5c3b-1f2d-4e6a-8b0c-7d5e3f1a9b2c"));
+
+            generateJobManifestAndEnqueueDataResponses("This is a document worth caching.");
+            metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+            postJob(createJobRequest("2b4d6f8a-0c1e-4a3b-9d5f-6e8a0b2c4d6f"));
+
+            assertThat(metaApiServer.getRequestCount()) //
+                    .as("Datapoint has been downloaded only for the first job") //
+                    .isEqualTo(5);
+
+            DatapointCacheStatistics after = ingestionService.getCacheStatistics();
+            assertThat(after.getHits() - before.getHits()).isEqualTo(1);
+            assertThat(after.getMisses() - before.getMisses()).isEqualTo(1);
+            assertThat(after.getSavedBytes() - before.getSavedBytes())
+                    .isEqualTo("This is a document worth caching.".length());
+        }
+        finally {
+            hmtProperties.setTaskDataCacheSize(DataSize.ofBytes(0));
+        }
+    }
+
+    @Test
+    public void thatResubmittedJobDoesNotCreateAnotherProject() throws Exception
+    {
+        generateJobManifestAndEnqueueDataResponses("This is document 1.");
+
+        // Expect request posting the invite link information
+        metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+        JobRequest jobRequest = createJobRequest("5c3e2a8f-9b1d-4c6e-8f7a-2d4b6e8a0c1e");
+        postJob(jobRequest);
+
+        long projectCount = projectService.listProjects().size();
+
+        // A retry of the same submission gets the status of the existing job
+        postJob(jobRequest, status().isOk());
+
+        assertThat(projectService.listProjects()) //
+                .as("No additional project has been created") //
+                .hasSize((int) projectCount);
+        assertThat(metaApiServer.getRequestCount()) //
+                .as("Manifest and data have not been fetched again") //
+                .isEqualTo(3);
+    }
+
+    @Test
+    public void thatJobWithMismatchingDatapointHashFails() throws Exception
+    {
+        hmtProperties.setAsyncJobIntake(true);
+        try {
+            JobManifest manifest = generateJobManifestAndEnqueueDataResponses( //
+                    "This is document 1.", //
+                    "This is document 2.");
+
+            // A datapoint which does not match its hash would not match it on a retry either
+            datapoints.put(URI.create(manifest.getTaskdata().get(1).getDatapointUri()).getPath(),
+                    "This is a tampered document.");
+
+            JobRequest jobRequest = createJobRequest("7b1d9e3a-5c2f-4a8e-b6d0-3f9c1e7a2b4d");
+            postJob(jobRequest, status().isAccepted());
+
+            JobStatus status = awaitJobCompletion(jobRequest);
+            assertThat(status.getState()).isEqualTo(JobState.FAILED);
+            assertThat(projectService.existsProjectWithSlug(status.getProject())) //
+                    .as("Project has been removed") //
+                    .isFalse();
+            assertThat(findRegisteredJob(jobRequest)).get().satisfies(job -> {
+                assertThat(job.getProject()).isNull();
+                assertThat(job.getState()).isEqualTo(JobState.FAILED);
+            });
+
+            resumeJob(jobRequest, status().isConflict());
+        }
+        finally {
+            hmtProperties.setAsyncJobIntake(false);
+        }
+    }
+
+    @Test
+    public void thatProjectIsKeptAndResumedAfterPartialIngestion() throws Exception
+    {
+        hmtProperties.setAsyncJobIntake(true);
+        hmtProperties.setJobResumeAttempts(0);
+        try {
+            JobManifest manifest = generateJobManifestAndEnqueueDataResponses( //
+                    "This is document 1.", //
+                    "This is document 2.", //
+                    "This is document 3.", //
+                    "This is document 4.");
+
+            // One of the datapoints is temporarily unavailable
+            String unavailablePath = URI.create(manifest.getTaskdata().get(2).getDatapointUri())
+                    .getPath();
+            String original = datapoints.remove(unavailablePath);
+            metaApiServer.enqueue(new MockResponse().setResponseCode(503));
+
+            JobRequest jobRequest = createJobRequest("3e8a4c2f-1d6b-4f0a-9e7c-5b2d8f4a6c1e");
+            postJob(jobRequest, status().isAccepted());
+
+            JobStatus status = awaitJobState(jobRequest, JobState.PARTIALLY_INGESTED);
+            Project project = projectService.getProjectBySlug(status.getProject());
+            int ingested = documentService.listSourceDocuments(project).size();
+            assertThat(ingested) //
+                    .as("Project with the datapoints ingested so far has been kept") //
+                    .isLessThan(4);
+
+            // Once the datapoint is available again, the job can be resumed - this fetches the
+            // manifest again and posts the invite link
+            datapoints.put(unavailablePath, original);
+            metaApiServer.enqueue(
+                    new MockResponse().setResponseCode(200).setBody(toPrettyJsonString(manifest)));
+            metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+            int requestCount = metaApiServer.getRequestCount();
+
+            resumeJob(jobRequest, status().isAccepted());
+
+            status = awaitJobCompletion(jobRequest);
+            assertThat(status.getState()).isEqualTo(JobState.COMPLETED);
+            assertThat(status.getProject()).isEqualTo(project.getSlug());
+            assertThat(documentService.listSourceDocuments(project)).hasSize(4);
+            assertThat(metaApiServer.getRequestCount() - requestCount) //
+                    .as("Datapoints ingested before have not been fetched again") //
+                    .isEqualTo(2 + (4 - ingested));
+
+            // A completed job cannot be resumed
+            resumeJob(jobRequest, status().isConflict());
+        }
+        finally {
+            hmtProperties.setJobResumeAttempts(3);
+            hmtProperties.setAsyncJobIntake(false);
+        }
+    }
+
+    @Test
+    public void thatSlowManifestImportDoesNotBlockOtherProjects() throws Exception
+    {
+        Project slowProject = new Project("slow-manifest-import");
+        projectService.createProject(slowProject);
+        Project otherProject = new Project("other-manifest-import");
+        projectService.createProject(otherProject);
+
+        // A manifest source which only delivers its content once it is released
+        CountDownLatch importStarted = new CountDownLatch(1);
+        CountDownLatch releaseImport = new CountDownLatch(1);
+        byte[] slowManifest = toPrettyJsonString(generateSpanSelectTaskJobManifest(null))
+                .getBytes(UTF_8);
+        InputStream slowSource = new SequenceInputStream(new InputStream()
+        {
+            @Override
+            public int read() throws IOException
+            {
+                importStarted.countDown();
+                try {
+                    releaseImport.await();
+                }
+                catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                return -1;
+            }
+        }, new ByteArrayInputStream(slowManifest));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> slowImport = executor.submit(() -> {
+                hmtService.importJobManifest(slowProject, slowSource);
+                return null;
+            });
+            assertThat(importStarted.await(10, SECONDS)).isTrue();
+
+            JobManifest otherManifest = generateSpanSelectTaskJobManifest(null);
+            Future<Optional<JobManifest>> otherAccess = executor.submit(() -> {
+                hmtService.writeJobManifest(otherProject, otherManifest);
+                return hmtService.readJobManifest(otherProject);
+            });
+
+            assertThat(otherAccess.get(10, SECONDS).get().getJobId())
+                    .as("Manifest of another project is accessible during a slow import")
+                    .isEqualTo(otherManifest.getJobId());
+            assertThat(slowImport.isDone()).isFalse();
+
+            releaseImport.countDown();
+            slowImport.get(10, SECONDS);
+            assertThat(hmtService.readJobManifest(slowProject)).isPresent();
+        }
+        finally {
+            releaseImport.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void thatStoredJobManifestsAreKeptPerProject() throws Exception
+    {
+        Project project1 = new Project("manifest-store-1");
+        projectService.createProject(project1);
+        Project project2 = new Project("manifest-store-2");
+        projectService.createProject(project2);
+        Project project3 = new Project("manifest-store-3");
+        projectService.createProject(project3);
+
+        JobManifest manifest1 = generateSpanSelectTaskJobManifest(null);
+        JobManifest manifest2 = generateSpanSelectTaskJobManifest(null);
+        hmtService.writeJobManifest(project1, manifest1);
+        hmtService.writeJobManifest(project2, manifest2);
+
+        assertThat(hmtService.getManifestFile(project1))
+                .isNotEqualTo(hmtService.getManifestFile(project2));
+        assertThat(hmtService.readJobManifest(project1).get().getJobId())
+                .isEqualTo(manifest1.getJobId());
+        assertThat(hmtService.readJobManifest(project2).get().getJobId())
+                .isEqualTo(manifest2.getJobId());
+        assertThat(hmtService.readJobManifest(project3)).isEmpty();
+        assertThat(hmtService.readJobRequest(project3)).isEmpty();
+
+        // Writing a manifest must replace a negative cache entry
+        hmtService.writeJobManifest(project3, manifest1);
+        assertThat(hmtService.readJobManifest(project3).get().getJobId())
+                .isEqualTo(manifest1.getJobId());
+    }
+
+    @Test
+    public void thatSubmittedJobIsRegistered() throws Exception
+    {
+        JobManifest manifest = generateJobManifestAndEnqueueDataResponses("This is document 1.");
+
+        // Expect request posting the invite link information
+        metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+        JobRequest jobRequest = createJobRequest("6e1a9c3d-4b7f-4e2a-8d5c-1f3b7a9e0c2d");
+        postJob(jobRequest);
+
+        Project project = projectService.getProjectBySlug("job-" + jobRequest.getJobAddress());
+        assertThat(jobRegistry.isJobProject(project)).isTrue();
+        assertThat(jobRegistry.getJob(project)).get().satisfies(job -> {
+            assertThat(job.getJobAddress()).isEqualTo(jobRequest.getJobAddress());
+            assertThat(job.getState()).isEqualTo(JobState.COMPLETED);
+            assertThat(job.getManifestDigest())
+                    .isEqualTo(DigestUtils.sha256Hex(toPrettyJsonString(manifest)));
+            assertThat(job.getResultsPublished()).isNull();
+        });
+
+        Project other = new Project("not-a-job-project");
+        projectService.createProject(other);
+        assertThat(jobRegistry.isJobProject(other)).isFalse();
+
+        projectService.removeProject(project);
+        assertThat(findRegisteredJob(jobRequest)).isEmpty();
+    }
+
+    @Test
+    public void thatExistingJobProjectIsRegistered() throws Exception
+    {
+        // A project created before jobs were registered only has its job request file
+        Project project = new Project("existing-job-project");
+        projectService.createProject(project);
+        JobRequest jobRequest = createJobRequest("9d4b2e7f-1a6c-4f3e-8b5d-0c7a3e9f1b6d");
+        Path jobRequestFile = hmtService.getJobRequestFile(project);
+        Files.createDirectories(jobRequestFile.getParent());
+        Files.writeString(jobRequestFile, toPrettyJsonString(jobRequest));
+        assertThat(jobRegistry.isJobProject(project)).isFalse();
+
+        hmtService.registerExistingJobs();
+
+        assertThat(jobRegistry.getJob(project)).get().satisfies(job -> {
+            assertThat(job.getNetworkId()).isEqualTo(jobRequest.getNetworkId());
+            assertThat(job.getJobAddress()).isEqualTo(jobRequest.getJobAddress());
+            assertThat(job.getState()).isEqualTo(JobState.COMPLETED);
+        });
+    }
+
+    @Test
+    public void thatTaskDataBundleIsIngestedWithSingleRequest() throws Exception
+    {
+        StringBuilder bundle = new StringBuilder();
+        for (int i = 1; i <= 3; i++) {
+            String document = "This is bundled document " + i + ".";
+            ObjectNode line = JsonNodeFactory.instance.objectNode();
+            line.put("task_key", UUID.randomUUID().toString());
+            line.put("datapoint_uri", "doc" + i + ".txt");
+            line.put("datapoint_hash", DigestUtils.sha256Hex(document));
+            line.put("datapoint", document);
+            bundle.append(line.toString()).append("\n");
+        }
+        datapoints.put("/bundle.jsonl", bundle.toString());
+
+        JobManifest manifest = generateSpanSelectTaskJobManifest(null);
+        manifest.setTaskdataUri(metaApiServer.url("/bundle.jsonl").toString());
+        metaApiServer.enqueue(
+                new MockResponse().setResponseCode(200).setBody(toPrettyJsonString(manifest)));
+
+        // Expect request posting the invite link information
+        metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+        JobRequest jobRequest = createJobRequest("8f1c3e5a-7b9d-4f2e-a6c8-0d2f4b6e8a1c");
+        postJob(jobRequest);
+
+        Project project = projectService.getProjectBySlug("job-" + jobRequest.getJobAddress());
+        assertThat(documentService.listSourceDocuments(project)) //
+                .extracting(SourceDocument::getName) //
+                .containsExactlyInAnyOrder("doc1.txt", "doc2.txt", "doc3.txt");
+        assertThat(metaApiServer.getRequestCount()) //
+                .as("Manifest, bundle and invite link - but no individual datapoints") //
+                .isEqualTo(3);
+    }
+
+    @Test
+    public void thatTinyDatapointsArePackedIntoDocuments() throws Exception
+    {
+        StringBuilder bundle = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            String document = "Tiny " + i;
+            ObjectNode line = JsonNodeFactory.instance.objectNode();
+            line.put("task_key", "item-" + i);
+            line.put("datapoint_uri", "doc" + i + ".txt");
+            line.put("datapoint_hash", DigestUtils.sha256Hex(document));
+            line.put("datapoint", document);
+            bundle.append(line.toString()).append("\n");
+        }
+        datapoints.put("/packed.jsonl", bundle.toString());
+
+        JobManifest manifest = generateSpanSelectTaskJobManifest(null);
+        manifest.setRequestType(TASK_TYPE_DOCUMENT_CLASSIFICATION);
+        manifest.setRequestConfig(Map.of( //
+                REQUEST_CONFIG_KEY_PROJECT_TITLE, "Test project", //
+                REQUEST_CONFIG_KEY_VERSION, 0, //
+                REQUEST_CONFIG_KEY_PACK_SIZE, 2));
+        manifest.setTaskdataUri(metaApiServer.url("/packed.jsonl").toString());
+        metaApiServer.enqueue(
+                new MockResponse().setResponseCode(200).setBody(toPrettyJsonString(manifest)));
+
+        // Expect request posting the invite link information
+        metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+        JobRequest jobRequest = createJobRequest("2d7e9b41-6c3a-4f58-9e0b-a5c1d3f7b9e2");
+        postJob(jobRequest);
+
+        Project project = projectService.getProjectBySlug("job-" + jobRequest.getJobAddress());
+        assertThat(documentService.listSourceDocuments(project)) //
+                .extracting(SourceDocument::getName) //
+                .containsExactlyInAnyOrder("pack-000001", "pack-000002", "pack-000003");
+        assertThat(ingestionService.getPackedTaskKeys(project)) //
+                .containsOnlyKeys("pack-000001", "pack-000002", "pack-000003") //
+                .containsEntry("pack-000003", List.of("item-5"));
+    }
+
+    @Test
+    public void thatPacksFollowTaskDataOrder() throws Exception
+    {
+        TaskData taskData = new TaskData();
+        for (int i = 1; i <= 4; i++) {
+            taskData.add(createTaskDataItem("Tiny " + i));
+        }
+
+        // The first datapoint arrives last, but it must still end up in the first pack
+        String delayedPath = URI.create(taskData.get(0).getDatapointUri()).getPath();
+        String delayed = datapoints.remove(delayedPath);
+        metaApiServer.setDispatcher(new QueueDispatcher()
+        {
+            @Override
+            public MockResponse dispatch(RecordedRequest aRequest) throws InterruptedException
+            {
+                if (delayedPath.equals(aRequest.getPath())) {
+                    return new MockResponse().setResponseCode(200).setBody(delayed)
+                            .setHeadersDelay(500, MILLISECONDS);
+                }
+                String datapoint = datapoints.get(aRequest.getPath());
+                if (datapoint != null) {
+                    return new MockResponse().setResponseCode(200).setBody(datapoint);
+                }
+                return super.dispatch(aRequest);
+            }
+        });
+
+        JobManifest manifest = generateSpanSelectTaskJobManifest(taskData);
+        manifest.setRequestType(TASK_TYPE_DOCUMENT_CLASSIFICATION);
+        manifest.setRequestConfig(Map.of( //
+                REQUEST_CONFIG_KEY_PROJECT_TITLE, "Test project", //
+                REQUEST_CONFIG_KEY_VERSION, 0, //
+                REQUEST_CONFIG_KEY_PACK_SIZE, 2));
+        metaApiServer.enqueue(
+                new MockResponse().setResponseCode(200).setBody(toPrettyJsonString(manifest)));
+
+        // Expect request posting the invite link information
+        metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+        JobRequest jobRequest = createJobRequest("7c1f4a92-3b5d-4e68-8a0f-d2e6b9c4a173");
+        postJob(jobRequest);
+
+        Project project = projectService.getProjectBySlug("job-" + jobRequest.getJobAddress());
+        assertThat(ingestionService.getPackedTaskKeys(project)) //
+                .containsOnly( //
+                        entry("pack-000001", List.of(taskData.get(0).getTaskKey(),
+                                taskData.get(1).getTaskKey())), //
+                        entry("pack-000002", List.of(taskData.get(2).getTaskKey(),
+                                taskData.get(3).getTaskKey())));
+    }
+
+    private JobStatus awaitJobState(JobRequest aJobRequest, JobState aState)
+        throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<JobMonitor> monitor = jobIntakeService
+                    .getMonitor(aJobRequest.getNetworkId(), aJobRequest.getJobAddress());
+            if (monitor.isPresent() && monitor.get().getState() == aState) {
+                return monitor.get().getStatus();
+            }
+            Thread.sleep(100);
+        }
+
+        throw new AssertionError("Job did not reach state " + aState + " in time");
+    }
+
+    private JobStatus awaitJobCompletion(JobRequest aJobRequest) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<JobMonitor> monitor = jobIntakeService
+                    .getMonitor(aJobRequest.getNetworkId(), aJobRequest.getJobAddress());
+            if (monitor.isPresent() && monitor.get().getState().isTerminal()) {
+                return monitor.get().getStatus();
+            }
+            Thread.sleep(100);
+        }
+
+        throw new AssertionError("Job did not complete in time");
+    }
+
     private JobManifest generateSpanSelectTaskJobManifest(TaskData aTaskData)
     {
         JobManifest manifest = new JobManifest();
@@ -306,40 +1109,96 @@ public class JobSubmissionTest
     private JobManifest generateJobManifestAndEnqueueDataResponses(String... aDocuments)
         throws IOException
     {
-        Deque<MockResponse> responses = new LinkedList<>();
-
         TaskData taskData = new TaskData();
         for (String document : aDocuments) {
-            responses.add(new MockResponse().setResponseCode(200).setBody(document));
-
-            TaskDataItem item = new TaskDataItem();
-            item.setTaskKey(UUID.randomUUID().toString());
-            item.setDatapointUri(metaApiServer.url("/data/" + item.getTaskKey()).toString());
-            item.setDatapointHash(DigestUtils.sha256Hex(document));
-            taskData.add(item);
+            taskData.add(createTaskDataItem(document));
         }
 
         JobManifest manifest = generateSpanSelectTaskJobManifest(taskData);
 
-        // This is actually the first request that needs to be served
-        responses.push(
+        // This is the first request that needs to be served
+        metaApiServer.enqueue(
                 new MockResponse().setResponseCode(200).setBody(toPrettyJsonString(manifest)));
 
-        responses.forEach(metaApiServer::enqueue);
-
         return manifest;
     }
 
+    private TaskDataItem createTaskDataItem(String aDocument)
+    {
+        TaskDataItem item = new TaskDataItem();
+        item.setTaskKey(UUID.randomUUID().toString());
+        item.setDatapointUri(metaApiServer.url("/data/" + item.getTaskKey()).toString());
+        item.setDatapointHash(DigestUtils.sha256Hex(aDocument));
+        datapoints.put("/data/" + item.getTaskKey(), aDocument);
+        return item;
+    }
+
+    private JobRequest createJobRequestServedByPath(Map<String, String> aResources,
+            String aDocument)
+    {
+        TaskDataItem item = new TaskDataItem();
+        item.setTaskKey(UUID.randomUUID().toString());
+        item.setDatapointUri(metaApiServer.url("/data/" + item.getTaskKey()).toString());
+        item.setDatapointHash(DigestUtils.sha256Hex(aDocument));
+        aResources.put("/data/" + item.getTaskKey(), aDocument);
+
+        TaskData taskData = new TaskData();
+        taskData.add(item);
+
+        JobRequest jobRequest = createJobRequest(UUID.randomUUID().toString());
+        String manifestPath = "/manifest/" + jobRequest.getJobAddress();
+        aResources.put(manifestPath,
+                toPrettyJsonString(generateSpanSelectTaskJobManifest(taskData)));
+        jobRequest.setJobManifest(metaApiServer.url(manifestPath).uri());
+        return jobRequest;
+    }
+
     private JobRequest createJobRequest()
+    {
+        return createJobRequest("e376b295-637a-4f6f-ba5c-3662a5d57f07");
+    }
+
+    private Optional<HumanProtocolJob> findRegisteredJob(JobRequest aJobRequest)
+    {
+        String query = String.join("\n", //
+                "FROM HumanProtocolJob", //
+                "WHERE networkId = :networkId AND jobAddress = :jobAddress");
+        return entityManager.createQuery(query, HumanProtocolJob.class) //
+                .setParameter("networkId", aJobRequest.getNetworkId()) //
+                .setParameter("jobAddress", aJobRequest.getJobAddress()) //
+                .getResultList().stream() //
+                .findFirst();
+    }
+
+    private JobRequest createJobRequest(String aJobAddress)
     {
         JobRequest jobRequest = new JobRequest();
         jobRequest.setNetworkId(12345);
-        jobRequest.setJobAddress("e376b295-637a-4f6f-ba5c-3662a5d57f07");
+        jobRequest.setJobAddress(aJobAddress);
         jobRequest.setJobManifest(metaApiServer.url("/data").uri());
         return jobRequest;
     }
 
+    /**
+     * @param aParams
+     *            parameter names and values in alternating order.
+     */
+    private static String signBodilessRequest(String aMethod, String aPath, String... aParams)
+        throws Exception
+    {
+        Map<String, String[]> params = new LinkedHashMap<>();
+        for (int i = 0; i < aParams.length; i += 2) {
+            params.put(aParams[i], new String[] { aParams[i + 1] });
+        }
+        return generateHexSignature(HUMAN_API_KEY, bodilessRequestPayload(aMethod, aPath, params));
+    }
+
     private void postJob(JobRequest jobRequest) throws Exception
+    {
+        postJob(jobRequest, status().isCreated());
+    }
+
+    private void postJob(JobRequest jobRequest, ResultMatcher aExpectedStatus) throws Exception
     {
         String body = toJsonString(jobRequest);
         String signature = generateHexSignature(HUMAN_API_KEY, body);
@@ -351,7 +1210,24 @@ public class JobSubmissionTest
                 .header(HEADER_X_HUMAN_SIGNATURE, signature)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(body))
-            .andExpect(status().isCreated());
+            .andExpect(aExpectedStatus);
+        // @formatter:on
+    }
+
+    private void resumeJob(JobRequest jobRequest, ResultMatcher aExpectedStatus) throws Exception
+    {
+        String networkId = String.valueOf(jobRequest.getNetworkId());
+        String signature = signBodilessRequest("POST", API_BASE + "/" + RESUME_JOB, //
+                PARAM_NETWORK_ID, networkId, //
+                PARAM_JOB_ADDRESS, jobRequest.getJobAddress());
+        // @formatter:off
+        mvc.perform(post(API_BASE + "/" + RESUME_JOB)
+                .with(csrf().asHeader())
+                .with(user("admin").roles("ADMIN"))
+                .header(HEADER_X_HUMAN_SIGNATURE, signature)
+                .param(PARAM_NETWORK_ID, networkId)
+                .param(PARAM_JOB_ADDRESS, jobRequest.getJobAddress()))
+            .andExpect(aExpectedStatus);
         // @formatter:on
     }
 
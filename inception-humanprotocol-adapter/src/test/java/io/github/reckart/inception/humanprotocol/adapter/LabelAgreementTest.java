@@ -0,0 +1,100 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.adapter;
+
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_SPAN_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.VALUE_FEATURE;
+import static java.util.Arrays.asList;
+import static org.apache.uima.cas.CAS.TYPE_NAME_ANNOTATION;
+import static org.apache.uima.cas.CAS.TYPE_NAME_STRING;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.fit.factory.CasFactory;
+import org.apache.uima.fit.factory.TypeSystemDescriptionFactory;
+import org.apache.uima.fit.util.FSUtil;
+import org.apache.uima.resource.metadata.TypeSystemDescription;
+import org.junit.jupiter.api.Test;
+
+import io.github.reckart.inception.humanprotocol.workload.LabelAgreement;
+
+public class LabelAgreementTest
+{
+    @Test
+    public void thatUnanimousLabelsAgreeFully() throws Exception
+    {
+        Map<String, CAS> casByUser = new LinkedHashMap<>();
+        casByUser.put("anno1", createCas(new int[] { 0, 4 }, "X"));
+        casByUser.put("anno2", createCas(new int[] { 0, 4 }, "X"));
+
+        assertThat(LabelAgreement.calculate(casByUser, asList(CUSTOM_SPAN_LAYER))).isEqualTo(1.0d);
+    }
+
+    @Test
+    public void thatAgreementIsLowestAgreementOnAnyUnit() throws Exception
+    {
+        Map<String, CAS> casByUser = new LinkedHashMap<>();
+        casByUser.put("anno1", createCas(new int[] { 0, 4, 5, 9 }, "X", "Y"));
+        casByUser.put("anno2", createCas(new int[] { 0, 4, 5, 9 }, "X", "Z"));
+        casByUser.put("anno3", createCas(new int[] { 0, 4 }, "X"));
+        casByUser.put("anno4", createCas(new int[] { 0, 4, 5, 9 }, "X", "Y"));
+
+        // The first span is unanimous, the second one is labelled "Y" by half of the annotators
+        assertThat(LabelAgreement.calculate(casByUser, asList(CUSTOM_SPAN_LAYER))).isEqualTo(0.5d);
+    }
+
+    @Test
+    public void thatDocumentsWithoutLabelsAgreeFully() throws Exception
+    {
+        Map<String, CAS> casByUser = new LinkedHashMap<>();
+        casByUser.put("anno1", createCas(new int[0]));
+        casByUser.put("anno2", createCas(new int[0]));
+
+        assertThat(LabelAgreement.calculate(casByUser, asList(CUSTOM_SPAN_LAYER))).isEqualTo(1.0d);
+    }
+
+    @Test
+    public void thatLabelsCanBeAddedOneAnnotatorAtATime() throws Exception
+    {
+        LabelAgreement sut = new LabelAgreement(asList(CUSTOM_SPAN_LAYER));
+        sut.add(createCas(new int[] { 0, 4 }, "X"));
+        sut.add(createCas(new int[] { 0, 4 }, "X"));
+        sut.add(createCas(new int[] { 0, 4 }, "Y"));
+
+        assertThat(sut.getAgreement()).isEqualTo(2.0d / 3.0d);
+    }
+
+    private CAS createCas(int[] aOffsets, String... aLabels) throws Exception
+    {
+        TypeSystemDescription tsd = TypeSystemDescriptionFactory.createTypeSystemDescription();
+        tsd.addType(CUSTOM_SPAN_LAYER, "", TYPE_NAME_ANNOTATION).addFeature(VALUE_FEATURE, "",
+                TYPE_NAME_STRING);
+
+        CAS cas = CasFactory.createCas(tsd);
+        cas.setDocumentText("This test.");
+        for (int i = 0; i < aLabels.length; i++) {
+            var span = cas.createAnnotation(cas.getTypeSystem().getType(CUSTOM_SPAN_LAYER),
+                    aOffsets[i * 2], aOffsets[i * 2 + 1]);
+            FSUtil.setFeature(span, VALUE_FEATURE, aLabels[i]);
+            cas.addFsToIndexes(span);
+        }
+        return cas;
+    }
+}
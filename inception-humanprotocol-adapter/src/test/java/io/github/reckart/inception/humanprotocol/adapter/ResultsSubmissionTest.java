@@ -17,6 +17,7 @@
 package io.github.reckart.inception.humanprotocol.adapter;
 
 import static de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocumentState.FINISHED;
+import static de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocumentState.IN_PROGRESS;
 import static de.tudarmstadt.ukp.clarin.webanno.model.PermissionLevel.ANNOTATOR;
 import static de.tudarmstadt.ukp.clarin.webanno.model.ProjectState.ANNOTATION_FINISHED;
 import static de.tudarmstadt.ukp.clarin.webanno.model.ProjectState.ANNOTATION_IN_PROGRESS;
@@ -24,37 +25,55 @@ import static de.tudarmstadt.ukp.clarin.webanno.security.model.Role.ROLE_USER;
 import static de.tudarmstadt.ukp.clarin.webanno.support.JSONUtil.fromJsonString;
 import static de.tudarmstadt.ukp.clarin.webanno.support.WebAnnoConst.CURATION_USER;
 import static de.tudarmstadt.ukp.clarin.webanno.support.logging.Logging.KEY_USERNAME;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_DOCUMENT_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_ITEM_LAYER;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_SPAN_LAYER;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.HEADER_X_EXCHANGE_SIGNATURE;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.JOB_RESULTS_ENDPOINT;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.REQUEST_CONFIG_KEY_PACK_SIZE;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_KEY_FEATURE;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_TYPE_DOCUMENT_CLASSIFICATION;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.TASK_TYPE_SPAN_SELECT;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.VALUE_FEATURE;
 import static io.github.reckart.inception.humanprotocol.HumanProtocolService.RESULTS_KEY_SUFFIX;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolService.TASK_RESULTS_KEY_SUFFIX;
 import static io.github.reckart.inception.humanprotocol.SignatureUtils.generateHexSignature;
+import static io.github.reckart.inception.humanprotocol.model.DocumentLabel.DOCUMENT;
 import static java.lang.String.format;
 import static java.lang.String.join;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.joining;
 import static org.apache.uima.fit.util.FSUtil.getFeature;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.MOCK;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 import java.util.zip.ZipFile;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.uima.UIMAException;
 import org.apache.uima.cas.CAS;
 import org.apache.uima.cas.CASException;
+import org.apache.uima.cas.FeatureStructure;
 import org.apache.uima.cas.Type;
+import org.apache.uima.cas.impl.XmiCasSerializer;
 import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.fit.factory.CasFactory;
+import org.apache.uima.fit.util.CasUtil;
 import org.apache.uima.fit.util.FSUtil;
 import org.apache.uima.jcas.tcas.Annotation;
 import org.junit.jupiter.api.AfterEach;
@@ -82,6 +101,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.DirtiesContext.ClassMode;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
 
 import com.adobe.testing.s3mock.junit5.S3MockExtension;
 
@@ -89,6 +109,7 @@ import de.tudarmstadt.ukp.clarin.webanno.api.DocumentService;
 import de.tudarmstadt.ukp.clarin.webanno.api.ProjectService;
 import de.tudarmstadt.ukp.clarin.webanno.api.annotation.config.AnnotationAutoConfiguration;
 import de.tudarmstadt.ukp.clarin.webanno.api.config.RepositoryAutoConfiguration;
+import de.tudarmstadt.ukp.clarin.webanno.api.event.AnnotationStateChangeEvent;
 import de.tudarmstadt.ukp.clarin.webanno.api.event.ProjectStateChangedEvent;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectExportException;
 import de.tudarmstadt.ukp.clarin.webanno.api.export.ProjectImportRequest;
@@ -97,6 +118,7 @@ import de.tudarmstadt.ukp.clarin.webanno.diag.config.CasDoctorAutoConfiguration;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocument;
 import de.tudarmstadt.ukp.clarin.webanno.model.AnnotationDocumentState;
 import de.tudarmstadt.ukp.clarin.webanno.model.Project;
+import de.tudarmstadt.ukp.clarin.webanno.model.ProjectState;
 import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocument;
 import de.tudarmstadt.ukp.clarin.webanno.model.SourceDocumentState;
 import de.tudarmstadt.ukp.clarin.webanno.project.config.ProjectServiceAutoConfiguration;
@@ -108,6 +130,8 @@ import de.tudarmstadt.ukp.clarin.webanno.security.model.User;
 import de.tudarmstadt.ukp.clarin.webanno.text.TextFormatSupport;
 import de.tudarmstadt.ukp.clarin.webanno.text.config.TextFormatsAutoConfiguration;
 import de.tudarmstadt.ukp.clarin.webanno.ui.annotation.config.AnnotationUIAutoConfiguration;
+import de.tudarmstadt.ukp.clarin.webanno.xmi.XmiFormatSupport;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.tudarmstadt.ukp.inception.annotation.storage.CasStorageSession;
 import de.tudarmstadt.ukp.inception.annotation.storage.config.CasStorageServiceAutoConfiguration;
 import de.tudarmstadt.ukp.inception.curation.config.CurationDocumentServiceAutoConfiguration;
@@ -127,15 +151,20 @@ import de.tudarmstadt.ukp.inception.sharing.config.InviteServiceAutoConfiguratio
 import de.tudarmstadt.ukp.inception.ui.core.dashboard.config.DashboardAutoConfiguration;
 import de.tudarmstadt.ukp.inception.ui.core.docanno.config.DocumentMetadataLayerSupportAutoConfiguration;
 import de.tudarmstadt.ukp.inception.workload.config.WorkloadManagementAutoConfiguration;
+import de.tudarmstadt.ukp.inception.workload.dynamic.DynamicWorkloadExtension;
 import de.tudarmstadt.ukp.inception.workload.dynamic.config.DynamicWorkloadManagerAutoConfiguration;
 import io.github.reckart.inception.humanprotocol.HumanProtocolProjectInitializer;
 import io.github.reckart.inception.humanprotocol.HumanProtocolServiceImpl;
 import io.github.reckart.inception.humanprotocol.config.HumanProtocolAutoConfiguration;
 import io.github.reckart.inception.humanprotocol.config.HumanProtocolPropertiesImpl;
+import io.github.reckart.inception.humanprotocol.curation.CurationFingerprintService;
+import io.github.reckart.inception.humanprotocol.labels.DocumentLabelService;
 import io.github.reckart.inception.humanprotocol.messages.JobRequest;
 import io.github.reckart.inception.humanprotocol.messages.JobResultSubmission;
+import io.github.reckart.inception.humanprotocol.messages.TaskResult;
 import io.github.reckart.inception.humanprotocol.model.JobManifest;
 import io.github.reckart.inception.humanprotocol.model.PayoutItem;
+import io.github.reckart.inception.humanprotocol.model.ResultsFormat;
 import mockwebserver3.MockResponse;
 import mockwebserver3.MockWebServer;
 import mockwebserver3.RecordedRequest;
@@ -162,7 +191,8 @@ import software.amazon.awssdk.services.s3.model.GetObjectResponse;
                 "documentmetadata.enabled=true", //
                 "workload.dynamic.enabled=true", //
                 "sharing.invites.enabled=true", //
-                "search.enabled=false" })
+                "search.enabled=false", //
+                "spring.liquibase.enabled=false" })
 @EnableWebSecurity
 @Import({ //
         SchedulingServiceAutoConfiguration.class, //
@@ -237,6 +267,9 @@ public class ResultsSubmissionTest
     private @Autowired ProjectExportService projectExportService;
     private @Autowired ApplicationContext applicationContext;
     private @Autowired AnnotationSchemaService annotationService;
+    private @Autowired DynamicWorkloadExtension dynamicWorkload;
+    private @Autowired DocumentLabelService labelService;
+    private @Autowired CurationFingerprintService fingerprintService;
 
     private S3Client s3Client;
     private MockWebServer metaApiServer;
@@ -272,6 +305,9 @@ public class ResultsSubmissionTest
 
         assertThat(hmtProperties.isS3BucketInformationAvailable()).isTrue();
 
+        // Most tests inspect the curated annotations in the full project export
+        hmtProperties.setResultsFormat(ResultsFormat.PROJECT_EXPORT);
+
         if (!initialized) {
             userRepository.create(new User("admin", Role.ROLE_ADMIN));
             initialized = true;
@@ -336,6 +372,9 @@ public class ResultsSubmissionTest
     @Test
     public void thatAutoMergingIsPerformedBeforeSubmission() throws Exception
     {
+        // Read the annotator CASes one at a time
+        hmtProperties.setCurationCasBatchSize(1);
+
         JobManifest jobManifest = new JobManifest();
         jobManifest.setRequesterAccuracyTarget(0.75d);
         jobManifest.setRequestType(TASK_TYPE_SPAN_SELECT);
@@ -406,6 +445,439 @@ public class ResultsSubmissionTest
         }
     }
 
+    @Test
+    public void thatDocumentsAreCuratedInParallel() throws Exception
+    {
+        // Make sure that the heap does not limit the number of workers
+        hmtProperties.setCurationMemoryPerWorker(DataSize.ofKilobytes(1));
+        assertThat(hmtProperties.getCurationThreads()).isGreaterThan(1);
+
+        JobManifest jobManifest = new JobManifest();
+        jobManifest.setRequesterAccuracyTarget(0.75d);
+        jobManifest.setRequestType(TASK_TYPE_SPAN_SELECT);
+        Project project = prepareProject(jobManifest);
+
+        User anno1 = userRepository.get("anno1");
+        User anno2 = userRepository.get("anno2");
+        for (int i = 3; i <= 12; i++) {
+            SourceDocument doc = createSourceDocument(project, "doc" + i, "Test.");
+            createAnnotationDocument(doc, anno1, FINISHED);
+            createAnnotationDocument(doc, anno2, FINISHED);
+        }
+
+        try (var session = CasStorageSession.open()) {
+            for (SourceDocument doc : documentService.listSourceDocuments(project)) {
+                addCustomSpanAnnotation(doc, "anno1", "X");
+                addCustomSpanAnnotation(doc, "anno2", "X");
+            }
+        }
+
+        // Expect results submission message
+        metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+        // Trigger project submissions via event
+        project.setState(ANNOTATION_FINISHED);
+        applicationEventPublisher
+                .publishEvent(new ProjectStateChangedEvent(this, project, ANNOTATION_IN_PROGRESS));
+
+        assertThat(documentService.listSourceDocuments(project)) //
+                .hasSize(12) //
+                .extracting(SourceDocument::getState) //
+                .containsOnly(SourceDocumentState.CURATION_FINISHED);
+        assertThat(projectService.getProject(project.getId()).getState())
+                .isEqualTo(ProjectState.CURATION_FINISHED);
+    }
+
+    @Test
+    public void thatTaskResultsArePublished() throws Exception
+    {
+        assertThat(new HumanProtocolPropertiesImpl().getResultsFormat())
+                .isEqualTo(ResultsFormat.TASK_RESULTS);
+        hmtProperties.setResultsFormat(ResultsFormat.TASK_RESULTS);
+
+        JobManifest jobManifest = new JobManifest();
+        jobManifest.setRequesterAccuracyTarget(0.75d);
+        jobManifest.setRequestType(TASK_TYPE_SPAN_SELECT);
+        Project project = prepareProject(jobManifest);
+
+        SourceDocument doc1 = documentService.getSourceDocument(project, "doc1");
+        SourceDocument doc2 = documentService.getSourceDocument(project, "doc2");
+
+        try (var session = CasStorageSession.open()) {
+            addCustomSpanAnnotation(doc1, "anno1", "X");
+            addCustomSpanAnnotation(doc1, "anno2", "X");
+            addCustomSpanAnnotation(doc2, "anno1", "X");
+            addCustomSpanAnnotation(doc2, "anno2", "Y");
+        }
+
+        // Expect results submission message
+        metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+        // Trigger project submissions via event
+        project.setState(ANNOTATION_FINISHED);
+        applicationEventPublisher
+                .publishEvent(new ProjectStateChangedEvent(this, project, ANNOTATION_IN_PROGRESS));
+
+        List<TaskResult> results = fetchTaskResultsFromBucket();
+
+        // The test documents have not been ingested from task data, so they are keyed by name
+        assertThat(results) //
+                .extracting( //
+                        TaskResult::getTaskKey, //
+                        TaskResult::getDatapointHash, //
+                        TaskResult::isCurated, //
+                        TaskResult::getWallets)
+                .containsExactly( //
+                        tuple("doc1", null, true, List.of("anno1", "anno2")),
+                        tuple("doc2", null, true, List.of("anno1", "anno2")));
+        assertThat(results.get(0).getSpans()) //
+                .extracting( //
+                        TaskResult.Span::getBegin, //
+                        TaskResult.Span::getEnd, //
+                        TaskResult.Span::getLabel)
+                .containsExactly(tuple(0, 5, "X"));
+        assertThat(results.get(1).getSpans()).isEmpty();
+
+        JobResultSubmission notification = fromJsonString(JobResultSubmission.class,
+                metaApiServer.takeRequest().getBody().readUtf8());
+        assertThat(notification.getJobData().toString())
+                .endsWith(format("/%s/%s/results.jsonl", hmtProperties.getS3Bucket(), JOB_ADDRESS));
+    }
+
+    @Test
+    public void thatAnswersArePublishedForTasksWhichAreNotCurated() throws Exception
+    {
+        hmtProperties.setResultsFormat(ResultsFormat.TASK_RESULTS);
+
+        // Without an accuracy target, the job is not curated
+        JobManifest jobManifest = new JobManifest();
+        jobManifest.setRequestType(TASK_TYPE_DOCUMENT_CLASSIFICATION);
+        jobManifest.setRequestConfig(Map.of(REQUEST_CONFIG_KEY_PACK_SIZE, 2));
+        Project project = prepareProject(jobManifest);
+
+        SourceDocument pack = createPackedSourceDocument(project, "pack-000001", "item-1",
+                "item-2");
+        createAnnotationDocument(pack, userRepository.get("anno1"), FINISHED);
+        createAnnotationDocument(pack, userRepository.get("anno2"), FINISHED);
+
+        try (var session = CasStorageSession.open()) {
+            setItemLabels(pack, "anno1", "X", "X");
+            setItemLabels(pack, "anno2", "X", "Y");
+        }
+
+        // Expect results submission message
+        metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+        // Trigger project submissions via event
+        project.setState(ANNOTATION_FINISHED);
+        applicationEventPublisher
+                .publishEvent(new ProjectStateChangedEvent(this, project, ANNOTATION_IN_PROGRESS));
+
+        List<TaskResult> results = fetchTaskResultsFromBucket();
+
+        // The unpacked test documents have no label
+        assertThat(results) //
+                .extracting( //
+                        TaskResult::getTaskKey, //
+                        TaskResult::isCurated, //
+                        TaskResult::getLabel, //
+                        TaskResult::getWallets)
+                .containsExactly( //
+                        tuple("doc1", false, null, List.of("anno1", "anno2")),
+                        tuple("doc2", false, null, List.of("anno1", "anno2")),
+                        tuple("item-1", false, null, List.of("anno1", "anno2")),
+                        tuple("item-2", false, null, List.of("anno1", "anno2")));
+        assertThat(results.get(2).getAnswers()) //
+                .extracting(TaskResult.Answer::getWallet, TaskResult.Answer::getLabel) //
+                .containsExactly(tuple("anno1", "X"), tuple("anno2", "X"));
+        assertThat(results.get(3).getAnswers()) //
+                .extracting(TaskResult.Answer::getWallet, TaskResult.Answer::getLabel) //
+                .containsExactly(tuple("anno1", "X"), tuple("anno2", "Y"));
+    }
+
+    @Test
+    public void thatDocumentLabelsAreMergedBeforeSubmission() throws Exception
+    {
+        JobManifest jobManifest = new JobManifest();
+        jobManifest.setRequesterAccuracyTarget(0.75d);
+        jobManifest.setRequestType(TASK_TYPE_DOCUMENT_CLASSIFICATION);
+        jobManifest.setRequestConfig(new HashMap<>());
+        Project project = prepareProject(jobManifest);
+
+        SourceDocument doc1 = documentService.getSourceDocument(project, "doc1");
+        SourceDocument doc2 = documentService.getSourceDocument(project, "doc2");
+
+        try (var session = CasStorageSession.open()) {
+            addDocumentTag(doc1, "anno1", "X");
+            addDocumentTag(doc1, "anno2", "X");
+            addDocumentTag(doc2, "anno1", "X");
+            addDocumentTag(doc2, "anno2", "Y");
+        }
+
+        assertThat(labelService.listLabels(project)) //
+                .containsEntry(doc1, Map.of(DOCUMENT, Map.of("anno1", "X", "anno2", "X"))) //
+                .containsEntry(doc2, Map.of(DOCUMENT, Map.of("anno1", "X", "anno2", "Y")));
+
+        // Expect results submission message
+        metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+        // Trigger project submissions via event
+        project.setState(ANNOTATION_FINISHED);
+        applicationEventPublisher
+                .publishEvent(new ProjectStateChangedEvent(this, project, ANNOTATION_IN_PROGRESS));
+
+        Project copyOfProject = fetchProjectFromBucket();
+
+        SourceDocument copyDoc1 = documentService.getSourceDocument(copyOfProject, "doc1");
+        SourceDocument copyDoc2 = documentService.getSourceDocument(copyOfProject, "doc2");
+
+        assertThat(documentService.listSourceDocuments(copyOfProject))
+                .extracting(SourceDocument::getName, SourceDocument::getState) //
+                .containsExactly( //
+                        tuple("doc1", SourceDocumentState.CURATION_FINISHED), //
+                        tuple("doc2", SourceDocumentState.CURATION_FINISHED));
+
+        try (var session = CasStorageSession.open()) {
+            CAS curatedCas1 = documentService.readAnnotationCas(copyDoc1, CURATION_USER);
+            Type tagType1 = curatedCas1.getTypeSystem().getType(CUSTOM_DOCUMENT_LAYER);
+            assertThat(curatedCas1.select(tagType1).asList()) //
+                    .extracting(fs -> getFeature(fs, VALUE_FEATURE, String.class))
+                    .containsExactly("X");
+
+            CAS curatedCas2 = documentService.readAnnotationCas(copyDoc2, CURATION_USER);
+            Type tagType2 = curatedCas2.getTypeSystem().getType(CUSTOM_DOCUMENT_LAYER);
+            assertThat(curatedCas2.select(tagType2).asList()).isEmpty();
+        }
+    }
+
+    @Test
+    public void thatPackedItemLabelsAreMergedBeforeSubmission() throws Exception
+    {
+        JobManifest jobManifest = new JobManifest();
+        jobManifest.setRequesterAccuracyTarget(0.75d);
+        jobManifest.setRequestType(TASK_TYPE_DOCUMENT_CLASSIFICATION);
+        jobManifest.setRequestConfig(Map.of(REQUEST_CONFIG_KEY_PACK_SIZE, 2));
+        Project project = prepareProject(jobManifest);
+
+        SourceDocument pack = createPackedSourceDocument(project, "pack-000001", "item-1",
+                "item-2");
+        createAnnotationDocument(pack, userRepository.get("anno1"), FINISHED);
+        createAnnotationDocument(pack, userRepository.get("anno2"), FINISHED);
+
+        try (var session = CasStorageSession.open()) {
+            setItemLabels(pack, "anno1", "X", "X");
+            setItemLabels(pack, "anno2", "X", "Y");
+        }
+
+        assertThat(labelService.listLabels(project)).containsEntry(pack, Map.of( //
+                "item-1", Map.of("anno1", "X", "anno2", "X"), //
+                "item-2", Map.of("anno1", "X", "anno2", "Y")));
+
+        // Expect results submission message
+        metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+        // Trigger project submissions via event
+        project.setState(ANNOTATION_FINISHED);
+        applicationEventPublisher
+                .publishEvent(new ProjectStateChangedEvent(this, project, ANNOTATION_IN_PROGRESS));
+
+        Project copyOfProject = fetchProjectFromBucket();
+
+        SourceDocument copyOfPack = documentService.getSourceDocument(copyOfProject,
+                "pack-000001");
+        assertThat(copyOfPack.getState()).isEqualTo(SourceDocumentState.CURATION_FINISHED);
+
+        try (var session = CasStorageSession.open()) {
+            CAS curatedCas = documentService.readAnnotationCas(copyOfPack, CURATION_USER);
+            Type itemType = curatedCas.getTypeSystem().getType(CUSTOM_ITEM_LAYER);
+            assertThat(curatedCas.<Annotation> select(itemType).asList()) //
+                    .extracting( //
+                            fs -> getFeature(fs, TASK_KEY_FEATURE, String.class), //
+                            fs -> getFeature(fs, VALUE_FEATURE, String.class))
+                    .containsExactly( //
+                            tuple("item-1", "X"), //
+                            tuple("item-2", null));
+        }
+    }
+
+    @Test
+    public void thatDocumentsAreCuratedOnceMinRepeatsAreReached() throws Exception
+    {
+        JobManifest jobManifest = new JobManifest();
+        jobManifest.setRequesterAccuracyTarget(0.75d);
+        jobManifest.setRequesterMinRepeats(2);
+        jobManifest.setRequestType(TASK_TYPE_SPAN_SELECT);
+        Project project = prepareProject(jobManifest);
+
+        SourceDocument doc1 = documentService.getSourceDocument(project, "doc1");
+        SourceDocument doc2 = documentService.getSourceDocument(project, "doc2");
+
+        try (var session = CasStorageSession.open()) {
+            addCustomSpanAnnotation(doc1, "anno1", "X");
+            addCustomSpanAnnotation(doc1, "anno2", "X");
+        }
+
+        // Trigger incremental curation via event - the project is still being annotated
+        AnnotationDocument annDoc = documentService.getAnnotationDocument(doc1, "anno2");
+        applicationEventPublisher
+                .publishEvent(new AnnotationStateChangeEvent(this, annDoc, IN_PROGRESS));
+
+        // The fingerprint is recorded once the curation CAS has been written
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (fingerprintService.getFingerprint(doc1).isEmpty()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertThat(fingerprintService.getFingerprint(doc1)).isPresent();
+        assertThat(fingerprintService.getFingerprint(doc2)).isEmpty();
+        assertThat(documentService.existsCas(doc1, CURATION_USER)).isTrue();
+        assertThat(documentService.existsCas(doc2, CURATION_USER)).isFalse();
+        assertThat(documentService.getSourceDocument(project, "doc1").getState())
+                .isNotEqualTo(SourceDocumentState.CURATION_FINISHED);
+
+        try (var session = CasStorageSession.open()) {
+            CAS curatedCas1 = documentService.readAnnotationCas(doc1, CURATION_USER);
+            Type spanType1 = curatedCas1.getTypeSystem().getType(CUSTOM_SPAN_LAYER);
+            assertThat(curatedCas1.<Annotation> select(spanType1).asList()) //
+                    .extracting( //
+                            Annotation::getCoveredText, //
+                            a -> getFeature(a, VALUE_FEATURE, String.class))
+                    .containsExactly( //
+                            tuple("Test.", "X"));
+        }
+    }
+
+    @Test
+    public void thatAgreedDocumentsAreNoLongerAssigned() throws Exception
+    {
+        JobManifest jobManifest = new JobManifest();
+        jobManifest.setRequesterAccuracyTarget(0.75d);
+        jobManifest.setRequesterMinRepeats(2);
+        jobManifest.setRequesterMaxRepeats(4);
+        jobManifest.setRequestType(TASK_TYPE_SPAN_SELECT);
+        Project project = prepareProject(jobManifest);
+
+        SourceDocument doc1 = documentService.getSourceDocument(project, "doc1");
+        SourceDocument doc2 = documentService.getSourceDocument(project, "doc2");
+
+        try (var session = CasStorageSession.open()) {
+            addCustomSpanAnnotation(doc1, "anno1", "X");
+            addCustomSpanAnnotation(doc1, "anno2", "X");
+            addCustomSpanAnnotation(doc2, "anno1", "X");
+            addCustomSpanAnnotation(doc2, "anno2", "Y");
+        }
+
+        // Trigger the agreement check via event
+        for (SourceDocument doc : asList(doc1, doc2)) {
+            AnnotationDocument annDoc = documentService.getAnnotationDocument(doc, "anno2");
+            applicationEventPublisher
+                    .publishEvent(new AnnotationStateChangeEvent(this, annDoc, IN_PROGRESS));
+        }
+
+        assertThat(documentService.getSourceDocument(project, "doc1").getState())
+                .isEqualTo(SourceDocumentState.ANNOTATION_FINISHED);
+        assertThat(documentService.getSourceDocument(project, "doc2").getState())
+                .isNotEqualTo(SourceDocumentState.ANNOTATION_FINISHED);
+
+        // An annotator who joins later only gets the document on which the annotators disagree
+        User anno3 = createAnnotatorUser(project, "anno3");
+        assertThat(dynamicWorkload.nextDocumentToAnnotate(project, anno3)) //
+                .map(SourceDocument::getName) //
+                .contains("doc2");
+
+        // Two finished annotators are below the number of annotators the workload asks for, so
+        // the recomputation moves the document back - but the agreement still holds
+        dynamicWorkload.recalculate(project);
+
+        assertThat(documentService.getSourceDocument(project, "doc1").getState())
+                .isEqualTo(SourceDocumentState.ANNOTATION_FINISHED);
+        assertThat(dynamicWorkload.nextDocumentToAnnotate(project, anno3)) //
+                .map(SourceDocument::getName) //
+                .contains("doc2");
+    }
+
+    @Test
+    public void thatOnlyChangedDocumentsAreCuratedAgain() throws Exception
+    {
+        JobManifest jobManifest = new JobManifest();
+        jobManifest.setRequesterAccuracyTarget(0.75d);
+        jobManifest.setRequestType(TASK_TYPE_SPAN_SELECT);
+        Project project = prepareProject(jobManifest);
+
+        SourceDocument doc1 = documentService.getSourceDocument(project, "doc1");
+        SourceDocument doc2 = documentService.getSourceDocument(project, "doc2");
+
+        try (var session = CasStorageSession.open()) {
+            addCustomSpanAnnotation(doc1, "anno1", "X");
+            addCustomSpanAnnotation(doc1, "anno2", "X");
+            addCustomSpanAnnotation(doc2, "anno1", "X");
+            addCustomSpanAnnotation(doc2, "anno2", "X");
+        }
+
+        // Expect results submission message
+        metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+        project.setState(ANNOTATION_FINISHED);
+        applicationEventPublisher
+                .publishEvent(new ProjectStateChangedEvent(this, project, ANNOTATION_IN_PROGRESS));
+
+        var fingerprint1 = fingerprintService.getFingerprint(doc1).get();
+        var fingerprint2 = fingerprintService.getFingerprint(doc2).get();
+        var timestamp1 = documentService.getAnnotationCasTimestamp(doc1, CURATION_USER).get();
+
+        // Another annotator disagrees on the second document
+        User anno3 = createAnnotatorUser(project, "anno3");
+        createAnnotationDocument(doc2, anno3, FINISHED);
+        try (var session = CasStorageSession.open()) {
+            addCustomSpanAnnotation(doc2, "anno3", "Y");
+        }
+
+        // Expect results submission message
+        metaApiServer.enqueue(new MockResponse().setResponseCode(200));
+
+        project.setState(ANNOTATION_FINISHED);
+        applicationEventPublisher
+                .publishEvent(new ProjectStateChangedEvent(this, project, ANNOTATION_IN_PROGRESS));
+
+        assertThat(fingerprintService.getFingerprint(doc1)).contains(fingerprint1);
+        assertThat(documentService.getAnnotationCasTimestamp(doc1, CURATION_USER))
+                .as("Curation CAS of unchanged document has not been written again") //
+                .contains(timestamp1);
+        assertThat(fingerprintService.getFingerprint(doc2)).get().isNotEqualTo(fingerprint2);
+
+        try (var session = CasStorageSession.open()) {
+            CAS curatedCas2 = documentService.readAnnotationCas(doc2, CURATION_USER);
+            Type spanType2 = curatedCas2.getTypeSystem().getType(CUSTOM_SPAN_LAYER);
+            assertThat(curatedCas2.<Annotation> select(spanType2).asList()) //
+                    .as("Two out of three votes do not reach the accuracy target") //
+                    .isEmpty();
+        }
+    }
+
+    private void addDocumentTag(SourceDocument aDoc, String aUser, String aLabel)
+        throws IOException
+    {
+        CAS cas = documentService.readAnnotationCas(aDoc, aUser);
+        Type tagType = cas.getTypeSystem().getType(CUSTOM_DOCUMENT_LAYER);
+        FeatureStructure tag = cas.createFS(tagType);
+        FSUtil.setFeature(tag, VALUE_FEATURE, aLabel);
+        cas.addFsToIndexes(tag);
+        documentService.writeAnnotationCas(cas, aDoc, aUser, false);
+    }
+
+    private void setItemLabels(SourceDocument aDoc, String aUser, String... aLabels)
+        throws IOException
+    {
+        CAS cas = documentService.readAnnotationCas(aDoc, aUser);
+        Type itemType = cas.getTypeSystem().getType(CUSTOM_ITEM_LAYER);
+        List<AnnotationFS> items = new ArrayList<>(CasUtil.select(cas, itemType));
+        for (int i = 0; i < aLabels.length; i++) {
+            FSUtil.setFeature(items.get(i), VALUE_FEATURE, aLabels[i]);
+        }
+        documentService.writeAnnotationCas(cas, aDoc, aUser, false);
+    }
+
     private void addCustomSpanAnnotation(SourceDocument aDoc, String aUser, String aLabel)
         throws IOException, CASException
     {
@@ -469,6 +941,39 @@ public class ResultsSubmissionTest
         return doc;
     }
 
+    /**
+     * Creates a document like the ones into which the task data ingestion packs several tiny
+     * datapoints, each covered by an item tag which carries the task key of the datapoint.
+     */
+    private SourceDocument createPackedSourceDocument(Project aProject, String aDocumentName,
+            String... aTaskKeys)
+        throws Exception
+    {
+        CAS cas = CasFactory.createCas(annotationService.getFullProjectTypeSystem(aProject));
+        cas.setDocumentText(Stream.of(aTaskKeys).map(key -> "Test " + key + ".")
+                .collect(joining("\n\n")));
+
+        Type itemType = cas.getTypeSystem().getType(CUSTOM_ITEM_LAYER);
+        int begin = 0;
+        for (String taskKey : aTaskKeys) {
+            int end = begin + ("Test " + taskKey + ".").length();
+            cas.addFsToIndexes(cas.createAnnotation(CasUtil.getType(cas, Sentence.class), begin,
+                    end));
+            AnnotationFS item = cas.createAnnotation(itemType, begin, end);
+            FSUtil.setFeature(item, TASK_KEY_FEATURE, taskKey);
+            cas.addFsToIndexes(item);
+            begin = end + 2;
+        }
+
+        ByteArrayOutputStream xmi = new ByteArrayOutputStream();
+        XmiCasSerializer.serialize(cas, xmi);
+
+        SourceDocument doc = documentService.createSourceDocument(
+                new SourceDocument(aDocumentName, aProject, XmiFormatSupport.ID));
+        documentService.uploadSourceDocument(new ByteArrayInputStream(xmi.toByteArray()), doc);
+        return doc;
+    }
+
     private AnnotationDocument createAnnotationDocument(SourceDocument aDocument, User aAnnotator,
             AnnotationDocumentState aState)
     {
@@ -478,6 +983,18 @@ public class ResultsSubmissionTest
         return annDoc;
     }
 
+    private List<TaskResult> fetchTaskResultsFromBucket() throws IOException
+    {
+        List<TaskResult> results = new ArrayList<>();
+        try (var response = s3Client.getObject(GetObjectRequest.builder().bucket(BUCKET)
+                .key(JOB_ADDRESS + "/" + TASK_RESULTS_KEY_SUFFIX).build())) {
+            for (String line : IOUtils.readLines(response, UTF_8)) {
+                results.add(fromJsonString(TaskResult.class, line));
+            }
+        }
+        return results;
+    }
+
     private Project fetchProjectFromBucket() throws IOException, ProjectExportException
     {
         File projectExportFile = new File(workDir, "export.zip");
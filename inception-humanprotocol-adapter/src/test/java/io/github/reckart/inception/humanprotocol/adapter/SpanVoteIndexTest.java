@@ -0,0 +1,136 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License. 
+ */
+package io.github.reckart.inception.humanprotocol.adapter;
+
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.CUSTOM_SPAN_LAYER;
+import static io.github.reckart.inception.humanprotocol.HumanProtocolConstants.VALUE_FEATURE;
+import static org.apache.uima.cas.CAS.TYPE_NAME_ANNOTATION;
+import static org.apache.uima.cas.CAS.TYPE_NAME_STRING;
+import static org.apache.uima.fit.util.FSUtil.getFeature;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.fit.factory.CasFactory;
+import org.apache.uima.fit.factory.TypeSystemDescriptionFactory;
+import org.apache.uima.fit.util.FSUtil;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.apache.uima.resource.metadata.TypeSystemDescription;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+
+import io.github.reckart.inception.humanprotocol.consensus.SpanVoteIndex;
+import io.github.reckart.inception.humanprotocol.consensus.SpanVoteIndex.Consensus;
+
+public class SpanVoteIndexTest
+{
+    @Test
+    public void thatUnanimousSpansWin() throws Exception
+    {
+        SpanVoteIndex sut = new SpanVoteIndex();
+        sut.add(createCas(new int[] { 0, 4, 5, 9 }, "X", "Y"));
+        sut.add(createCas(new int[] { 5, 9, 0, 4 }, "Y", "X"));
+
+        assertThat(winners(sut.vote(2, 1.0d))) //
+                .containsExactly(tuple(0, 4, "X"), tuple(5, 9, "Y"));
+    }
+
+    @Test
+    public void thatTiesDoNotWin() throws Exception
+    {
+        SpanVoteIndex sut = new SpanVoteIndex();
+        sut.add(createCas(new int[] { 0, 4 }, "X"));
+        sut.add(createCas(new int[] { 0, 4 }, "Y"));
+
+        assertThat(winners(sut.vote(1, 0.0d))).isEmpty();
+    }
+
+    @Test
+    public void thatThresholdAndMinRepeatsAreRespected() throws Exception
+    {
+        SpanVoteIndex sut = new SpanVoteIndex();
+        sut.add(createCas(new int[] { 0, 4, 5, 9 }, "X", "Y"));
+        sut.add(createCas(new int[] { 0, 4, 0, 9 }, "X", "Z"));
+        sut.add(createCas(new int[] { 0, 4 }, "Y"));
+        sut.add(createCas(new int[0]));
+
+        // "X" at 0-4 is chosen by 2 of 4 annotators, the other spans by only one of them
+        assertThat(winners(sut.vote(1, 0.5d))).containsExactly(tuple(0, 4, "X"));
+        assertThat(winners(sut.vote(1, 0.75d))).isEmpty();
+        assertThat(winners(sut.vote(1, 0.25d))) //
+                .containsExactly(tuple(0, 9, "Z"), tuple(0, 4, "X"), tuple(5, 9, "Y"));
+        assertThat(winners(sut.vote(2, 0.25d))).containsExactly(tuple(0, 4, "X"));
+    }
+
+    @Test
+    public void thatAnnotatorsVoteOncePerLabelAndPosition() throws Exception
+    {
+        SpanVoteIndex sut = new SpanVoteIndex();
+        sut.add(createCas(new int[] { 0, 4, 0, 4, 0, 4 }, "Y", "Y", "Y"));
+        sut.add(createCas(new int[] { 0, 4 }, "X"));
+        sut.add(createCas(new int[] { 0, 4 }, "X"));
+
+        assertThat(winners(sut.vote(1, 0.0d))).containsExactly(tuple(0, 4, "X"));
+    }
+
+    @Test
+    public void thatWinnersAreWrittenToCas() throws Exception
+    {
+        SpanVoteIndex sut = new SpanVoteIndex();
+        sut.add(createCas(new int[] { 0, 4 }, "X"));
+        sut.add(createCas(new int[] { 0, 4 }, "X"));
+
+        CAS target = createCas(new int[0]);
+        sut.vote(1, 1.0d).writeTo(target);
+
+        assertThat(target.<Annotation> select(CUSTOM_SPAN_LAYER).asList()) //
+                .extracting( //
+                        Annotation::getCoveredText, //
+                        a -> getFeature(a, VALUE_FEATURE, String.class))
+                .containsExactly(tuple("This", "X"));
+    }
+
+    private List<Tuple> winners(Consensus aConsensus)
+    {
+        List<Tuple> winners = new ArrayList<>();
+        for (int i = 0; i < aConsensus.size(); i++) {
+            winners.add(tuple(aConsensus.getBegin(i), aConsensus.getEnd(i),
+                    aConsensus.getLabel(i)));
+        }
+        return winners;
+    }
+
+    private CAS createCas(int[] aOffsets, String... aLabels) throws Exception
+    {
+        TypeSystemDescription tsd = TypeSystemDescriptionFactory.createTypeSystemDescription();
+        tsd.addType(CUSTOM_SPAN_LAYER, "", TYPE_NAME_ANNOTATION).addFeature(VALUE_FEATURE, "",
+                TYPE_NAME_STRING);
+
+        CAS cas = CasFactory.createCas(tsd);
+        cas.setDocumentText("This test.");
+        for (int i = 0; i < aLabels.length; i++) {
+            var span = cas.createAnnotation(cas.getTypeSystem().getType(CUSTOM_SPAN_LAYER),
+                    aOffsets[i * 2], aOffsets[i * 2 + 1]);
+            FSUtil.setFeature(span, VALUE_FEATURE, aLabels[i]);
+            cas.addFsToIndexes(span);
+        }
+        return cas;
+    }
+}